@@ -0,0 +1,44 @@
+package org.mandelbrot.benchmarks;
+
+import org.mandelbrot.engine.Viewport;
+import org.mandelbrot.utils.Constants;
+
+/**
+ * Store of the viewports rendered by the benchmarks. The class is final to avoid heritage.
+ */
+public final class BenchmarkViewports {
+
+    /**
+     * Private constructor for the BenchmarkViewports class to avoid instantiation.
+     */
+    private BenchmarkViewports() {
+        throw new AssertionError("Non-instantiable class.");
+    }
+
+    /**
+     * Function used to get a full-size viewport from its name.
+     * @param name The name of the viewport: "home" for the initial view of the application, "seahorse" for the seahorse valley, or "spiral" for a deeper zoom on a spiral of the seahorse valley.
+     * @param nbSteps The maximal number of iterations performed for each pixel.
+     * @return The viewport associated to the name.
+     */
+    public static Viewport get(String name, int nbSteps) {
+        int width = Constants.WIDTH;
+        int height = Constants.HEIGHT;
+        return switch (name) {
+            case "home" -> new Viewport(-2.0, -1.13, 1.0 / Constants.INITIAL_ZOOM_SCALE, width, height, nbSteps);
+            case "seahorse" -> new Viewport(-0.75, -0.1, 0.2 / width, width, height, nbSteps);
+            case "spiral" -> new Viewport(-0.7437, 0.1316, 4e-4 / width, width, height, nbSteps);
+            default -> throw new IllegalArgumentException("Unknown viewport: " + name);
+        };
+    }
+
+    /**
+     * Function used to get the number of threads of a benchmark parameter.
+     * @param threads The number of threads, or "max" for all available cores.
+     * @return The number of threads, bounded by the number of available cores.
+     */
+    public static int threads(String threads) {
+        if(threads.equals("max")) return Constants.MAX_NB_CORES;
+        return Math.min(Integer.parseInt(threads), Constants.MAX_NB_CORES);
+    }
+}
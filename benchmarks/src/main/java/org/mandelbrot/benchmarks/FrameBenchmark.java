@@ -0,0 +1,97 @@
+package org.mandelbrot.benchmarks;
+
+import org.mandelbrot.engine.RenderResult;
+import org.mandelbrot.engine.Renderer;
+import org.mandelbrot.engine.Viewport;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmarks of the rendering of full frames, as performed by the application, at several viewports, depths and numbers of threads.
+ * The numbers of threads can be extended up to the number of cores with {@code -p threads=1,2,3,...}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class FrameBenchmark {
+    /**
+     * The name of the rendered viewport (see {@link BenchmarkViewports}).
+     */
+    @Param({"home", "seahorse", "spiral"})
+    public String viewport;
+
+    /**
+     * The maximal number of iterations of each pixel.
+     */
+    @Param({"1024", "4096", "16384"})
+    public int nbSteps;
+
+    /**
+     * The number of threads computing the frame, or "max" for all available cores.
+     */
+    @Param({"1", "2", "4", "max"})
+    public String threads;
+
+    /**
+     * The pool computing the frame.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * The renderer of the application.
+     */
+    private Renderer renderer;
+
+    /**
+     * The rendered viewport.
+     */
+    private Viewport frame;
+
+    /**
+     * The complete rendering of the viewport, colored again by the recoloring benchmark.
+     */
+    private RenderResult rendered;
+
+    /**
+     * Function used to initialize the pool and the renderer.
+     */
+    @Setup
+    public void setup() {
+        pool = new ForkJoinPool(BenchmarkViewports.threads(threads));
+        renderer = new Renderer();
+        frame = BenchmarkViewports.get(viewport, nbSteps);
+        rendered = renderer.render(frame, 0, pool).join();
+    }
+
+    /**
+     * Function used to release the threads of the pool.
+     */
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * The rendering of a whole frame.
+     * @return The rendered frame, consumed by the benchmark.
+     */
+    @Benchmark
+    public RenderResult render() {
+        return renderer.render(frame, 0, pool).join();
+    }
+
+    /**
+     * The coloring of a whole frame with another palette, from the iterations of a complete rendering.
+     * @return The colored frame, consumed by the benchmark.
+     */
+    @Benchmark
+    public RenderResult recolor() {
+        rendered.recolor(1);
+        return rendered;
+    }
+}
@@ -0,0 +1,154 @@
+package org.mandelbrot.benchmarks;
+
+import org.mandelbrot.model.Complex;
+import org.mandelbrot.model.EscapeResult;
+import org.mandelbrot.model.EscapeTimeKernel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmarks of the escape-time computation of single points, comparing the original {@link Complex#computeMandelbrot(int)} with the primitive kernels.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class KernelBenchmark {
+    /**
+     * The number of points of the row computed by the row benchmarks.
+     */
+    private static final int ROW_SIZE = 64;
+
+    /**
+     * The computed point: "interior" for a point of the period-3 bulb, "boundary" for a point close to the border of the set, "exterior" for a point escaping quickly.
+     */
+    @Param({"interior", "boundary", "exterior"})
+    public String point;
+
+    /**
+     * The maximal number of iterations.
+     */
+    @Param({"1024", "4096", "16384"})
+    public int maxSteps;
+
+    /**
+     * The real part of the computed point.
+     */
+    private double cr;
+
+    /**
+     * The imaginary part of the computed point.
+     */
+    private double ci;
+
+    /**
+     * The scalar kernel without any shortcut.
+     */
+    private EscapeTimeKernel plain;
+
+    /**
+     * The scalar kernel with the cardioid and periodicity checks.
+     */
+    private EscapeTimeKernel checked;
+
+    /**
+     * The fastest kernel available on the machine.
+     */
+    private EscapeTimeKernel fastest;
+
+    /**
+     * The reusable result of the kernels.
+     */
+    private EscapeResult result;
+
+    /**
+     * The real parts of the row of points around the computed point.
+     */
+    private double[] row;
+
+    /**
+     * The iterations of the row of points.
+     */
+    private int[] rowIterations;
+
+    /**
+     * The squared moduli of the row of points.
+     */
+    private double[] rowModuli;
+
+    /**
+     * Function used to initialize the computed point and the kernels.
+     */
+    @Setup
+    public void setup() {
+        switch (point) {
+            case "interior" -> { cr = -0.1226; ci = 0.7449; }
+            case "boundary" -> { cr = -0.7436447860; ci = 0.1318252536; }
+            case "exterior" -> { cr = 0.5; ci = 0.5; }
+            default -> throw new IllegalArgumentException("Unknown point: " + point);
+        }
+        plain = new EscapeTimeKernel();
+        plain.setCardioidCheck(false);
+        plain.setPeriodicityCheck(false);
+        checked = new EscapeTimeKernel();
+        fastest = EscapeTimeKernel.create();
+        result = new EscapeResult();
+        row = new double[ROW_SIZE];
+        for(int i = 0; i < ROW_SIZE; i++) row[i] = cr + i * 1e-9;
+        rowIterations = new int[ROW_SIZE];
+        rowModuli = new double[ROW_SIZE];
+    }
+
+    /**
+     * The original computation, allocating a map and complex numbers at each step.
+     * @return The computed map, consumed by the benchmark.
+     */
+    @Benchmark
+    public Map<Complex, Integer> complex() {
+        return new Complex(cr, ci).computeMandelbrot(maxSteps);
+    }
+
+    /**
+     * The primitive kernel without any shortcut.
+     * @return The number of iterations, consumed by the benchmark.
+     */
+    @Benchmark
+    public int primitive() {
+        plain.compute(cr, ci, maxSteps, result);
+        return result.getIterations();
+    }
+
+    /**
+     * The primitive kernel with the cardioid and periodicity checks.
+     * @return The number of iterations, consumed by the benchmark.
+     */
+    @Benchmark
+    public int primitiveChecked() {
+        checked.compute(cr, ci, maxSteps, 1e-12, result);
+        return result.getIterations();
+    }
+
+    /**
+     * The scalar kernel computing a row of points around the point.
+     * @return The iterations of the row, consumed by the benchmark.
+     */
+    @Benchmark
+    public int[] scalarRow() {
+        checked.computeRow(row, ci, ROW_SIZE, maxSteps, 1e-12, rowIterations, rowModuli);
+        return rowIterations;
+    }
+
+    /**
+     * The fastest available kernel, possibly SIMD, computing a row of points around the point.
+     * @return The iterations of the row, consumed by the benchmark.
+     */
+    @Benchmark
+    public int[] fastestRow() {
+        fastest.computeRow(row, ci, ROW_SIZE, maxSteps, 1e-12, rowIterations, rowModuli);
+        return rowIterations;
+    }
+}
@@ -0,0 +1,93 @@
+package org.mandelbrot.benchmarks;
+
+import org.mandelbrot.engine.RenderResult;
+import org.mandelbrot.engine.Renderer;
+import org.mandelbrot.engine.Viewport;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmarks of the tile scheduling, comparing the adaptive recursive splitting on a fork/join pool with fixed-size tiles on a plain thread pool of the same size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class SchedulerBenchmark {
+    /**
+     * The name of the rendered viewport (see {@link BenchmarkViewports}).
+     */
+    @Param({"home", "seahorse"})
+    public String viewport;
+
+    /**
+     * The number of threads computing the frame, or "max" for all available cores.
+     */
+    @Param({"1", "2", "4", "max"})
+    public String threads;
+
+    /**
+     * The fork/join pool on which the tiles are adaptively split.
+     */
+    private ForkJoinPool forkJoinPool;
+
+    /**
+     * The thread pool on which fixed-size tiles are computed.
+     */
+    private ExecutorService fixedPool;
+
+    /**
+     * The renderer of the application.
+     */
+    private Renderer renderer;
+
+    /**
+     * The rendered viewport.
+     */
+    private Viewport frame;
+
+    /**
+     * Function used to initialize the pools and the renderer.
+     */
+    @Setup
+    public void setup() {
+        int nbThreads = BenchmarkViewports.threads(threads);
+        forkJoinPool = new ForkJoinPool(nbThreads);
+        fixedPool = Executors.newFixedThreadPool(nbThreads);
+        renderer = new Renderer();
+        frame = BenchmarkViewports.get(viewport, 4096);
+    }
+
+    /**
+     * Function used to release the threads of the pools.
+     */
+    @TearDown
+    public void tearDown() {
+        forkJoinPool.shutdown();
+        fixedPool.shutdown();
+    }
+
+    /**
+     * The rendering with the adaptive recursive splitting.
+     * @return The rendered frame, consumed by the benchmark.
+     */
+    @Benchmark
+    public RenderResult adaptive() {
+        return renderer.render(frame, 0, forkJoinPool).join();
+    }
+
+    /**
+     * The rendering with fixed-size tiles.
+     * @return The rendered frame, consumed by the benchmark.
+     */
+    @Benchmark
+    public RenderResult fixed() {
+        return renderer.render(frame, 0, fixedPool).join();
+    }
+}
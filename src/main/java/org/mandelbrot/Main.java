@@ -1,6 +1,8 @@
 package org.mandelbrot;
 
-import org.mandelbrot.utils.Constants;
+import org.mandelbrot.batch.BatchRenderer;
+import org.mandelbrot.cluster.TileWorker;
+import org.mandelbrot.server.TileServer;
 import org.mandelbrot.view.MandelbrotFrame;
 import java.awt.*;
 
@@ -15,10 +17,24 @@ import java.awt.*;
 public class Main {
 
     /**
-     * The main execution function of the application.
+     * The main execution function of the application. Without arguments, the window of the application is opened, otherwise the frames described by the arguments are rendered to files without any window (see {@link BatchRenderer}), or the process serves the tiles of distributed renderings (see {@link TileWorker}) or the tiles of a slippy map over HTTP (see {@link TileServer}).
      * @param args The console arguments passed to the function.
      */
     public static void main(String[] args) {
+        if(args.length > 0 && args[0].equals("--worker")) {
+            TileWorker.main(args);
+            return;
+        }
+        if(args.length > 0 && args[0].equals("--serve")) {
+            System.setProperty("java.awt.headless", "true");
+            TileServer.main(args);
+            return;
+        }
+        if(args.length > 0) {
+            System.setProperty("java.awt.headless", "true");
+            BatchRenderer.main(args);
+            return;
+        }
         EventQueue.invokeLater(() -> {
             new MandelbrotFrame("The Mandelbrot Set");
         });
@@ -0,0 +1,324 @@
+package org.mandelbrot.batch;
+
+import org.mandelbrot.engine.Viewport;
+import org.mandelbrot.utils.Constants;
+import org.mandelbrot.utils.Utils;
+
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.math.MathContext;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The options of the batch mode, parsed from the console arguments. The options that are not given keep the values of the initial view of the application.
+ */
+public class BatchOptions {
+    /**
+     * The description of the console arguments of the batch mode.
+     */
+    public static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: java -jar mandelbrot-set.jar --output <file> [options]",
+            "  --output <file>       The file written, a String.format pattern such as frame-%04d.png when rendering several frames",
+            "  --format <png|raw>    The format of the files, guessed from the extension of the output by default",
+            "  --center <re> <im>    The complex number at the center of the first frame",
+            "  --scale <scale>       The distance in the complex plane between two adjacent pixels of the first frame",
+            "  --size <width> <height>  The size of the frames in pixels",
+            "  --steps <steps>       The maximal number of iterations of each pixel",
+            "  --palette <palette>   The color palette, from 1 to " + Constants.PALETTES.length,
+            "  --threads <threads>   The number of threads computing the frames",
+            "  --frames <frames>     The number of frames of the zoom sequence",
+            "  --zoom <factor>       The factor by which each frame zooms into the previous one",
+            "  --guessing <off|exact|fast>  The solid guessing of the uniform regions: off by default, exact to only fill the regions proven to be inside the set, fast to fill every region bordered by a single number of iterations",
+            "  --strip-rows <rows>   The number of rows of the strips the frames are rendered in, chosen automatically for the frames larger than " + Constants.MAX_FRAME_PIXELS + " pixels",
+            "  --workers <host:port,...>  The worker processes computing the tiles, started with --worker <port>, instead of the threads of this process");
+
+    /**
+     * The real part of the complex number at the center of the first frame.
+     */
+    private BigDecimal centerX;
+
+    /**
+     * The imaginary part of the complex number at the center of the first frame.
+     */
+    private BigDecimal centerY;
+
+    /**
+     * The distance in the complex plane between two adjacent pixels of the first frame.
+     */
+    private double scale = 1.0 / Constants.INITIAL_ZOOM_SCALE;
+
+    /**
+     * The width of the frames in pixels.
+     */
+    private int width = Constants.WIDTH;
+
+    /**
+     * The height of the frames in pixels.
+     */
+    private int height = Constants.HEIGHT;
+
+    /**
+     * The maximal number of iterations of each pixel.
+     */
+    private int nbSteps = Constants.INITIAL_NB_STEPS;
+
+    /**
+     * The index of the color palette.
+     */
+    private int activePalette = 0;
+
+    /**
+     * The number of threads computing the frames.
+     */
+    private int nbThreads = Constants.MAX_NB_CORES;
+
+    /**
+     * The number of frames of the zoom sequence.
+     */
+    private int nbFrames = 1;
+
+    /**
+     * The factor by which each frame zooms into the previous one.
+     */
+    private double zoomFactor = 2;
+
+    /**
+     * Whether the uniform regions of the frames are guessed instead of computing every pixel.
+     */
+    private boolean solidGuessing = false;
+
+    /**
+     * Whether the solid guessing only fills the regions proven to be inside the set.
+     */
+    private boolean exactGuessing = true;
+
+    /**
+     * The number of rows of the strips the frames are rendered in, or 0 to only render the large frames in strips.
+     */
+    private int stripRows = 0;
+
+    /**
+     * The addresses of the worker processes computing the tiles, empty to compute them in this process.
+     */
+    private List<InetSocketAddress> workers = List.of();
+
+    /**
+     * The file written, or the String.format pattern of the files when rendering several frames.
+     */
+    private String output;
+
+    /**
+     * The format of the written files.
+     */
+    private OutputFormat format;
+
+    /**
+     * The Constructor function of the BatchOptions class, centered on the initial view of the application.
+     */
+    public BatchOptions() {
+        BigDecimal initialScale = new BigDecimal(scale);
+        this.centerX = Constants.INITIAL_LEFT.add(initialScale.multiply(BigDecimal.valueOf(Constants.WIDTH / 2.0)), MathContext.DECIMAL64);
+        this.centerY = Constants.INITIAL_TOP.add(initialScale.multiply(BigDecimal.valueOf(Constants.HEIGHT / 2.0)), MathContext.DECIMAL64);
+    }
+
+    /**
+     * Function used to parse the console arguments of the batch mode.
+     * @param args The console arguments.
+     * @return The parsed options.
+     * @throws IllegalArgumentException If an argument is unknown, missing or invalid.
+     */
+    public static BatchOptions parse(String[] args) {
+        BatchOptions options = new BatchOptions();
+        for(int i = 0; i < args.length; i++) {
+            String name = args[i];
+            int count = switch(name) {
+                case "--center", "--size" -> 2;
+                case "--output", "--format", "--scale", "--steps", "--palette", "--threads", "--frames", "--zoom", "--guessing", "--strip-rows", "--workers" -> 1;
+                default -> throw new IllegalArgumentException("Unknown argument: " + name);
+            };
+            if(i + count >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + name);
+            }
+            String value = args[i + 1];
+            try {
+                switch(name) {
+                    case "--output" -> options.output = value;
+                    case "--format" -> options.format = OutputFormat.of(value);
+                    case "--center" -> {
+                        options.centerX = new BigDecimal(value);
+                        options.centerY = new BigDecimal(args[i + 2]);
+                    }
+                    case "--scale" -> options.scale = positive(name, Double.parseDouble(value));
+                    case "--size" -> {
+                        options.width = (int) positive(name, Integer.parseInt(value));
+                        options.height = (int) positive(name, Integer.parseInt(args[i + 2]));
+                    }
+                    case "--steps" -> options.nbSteps = (int) positive(name, Integer.parseInt(value));
+                    case "--palette" -> options.activePalette = (int) positive(name, Integer.parseInt(value)) - 1;
+                    case "--threads" -> options.nbThreads = (int) positive(name, Integer.parseInt(value));
+                    case "--frames" -> options.nbFrames = (int) positive(name, Integer.parseInt(value));
+                    case "--zoom" -> options.zoomFactor = positive(name, Double.parseDouble(value));
+                    case "--guessing" -> {
+                        switch(value) {
+                            case "off" -> options.solidGuessing = false;
+                            case "exact", "fast" -> {
+                                options.solidGuessing = true;
+                                options.exactGuessing = value.equals("exact");
+                            }
+                            default -> throw new IllegalArgumentException("Invalid value for --guessing, expected off, exact or fast: " + value);
+                        }
+                    }
+                    case "--strip-rows" -> options.stripRows = (int) positive(name, Integer.parseInt(value));
+                    case "--workers" -> options.workers = parseWorkers(value);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for " + name + ": " + value);
+            }
+            i += count;
+        }
+        if(options.output == null) {
+            throw new IllegalArgumentException("Missing argument: --output");
+        }
+        if(options.activePalette >= Constants.PALETTES.length) {
+            throw new IllegalArgumentException("Invalid value for --palette: " + (options.activePalette + 1));
+        }
+        if(options.nbFrames > 1 && !options.output.contains("%")) {
+            throw new IllegalArgumentException("The output of a zoom sequence must be a pattern such as frame-%04d.png");
+        }
+        if(options.format == null) options.format = OutputFormat.ofFile(options.output);
+        return options;
+    }
+
+    /**
+     * Function used to parse the addresses of the worker processes.
+     * @param value The comma-separated list of host:port addresses.
+     * @return The addresses of the workers.
+     * @throws IllegalArgumentException If an address is invalid.
+     */
+    private static List<InetSocketAddress> parseWorkers(String value) {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for(String worker : value.split(",")) {
+            int colon = worker.lastIndexOf(':');
+            if(colon <= 0) {
+                throw new IllegalArgumentException("Invalid worker address, expected host:port: " + worker);
+            }
+            int port = Integer.parseInt(worker.substring(colon + 1));
+            if(port <= 0 || port > 0xFFFF) {
+                throw new IllegalArgumentException("Invalid worker port: " + worker);
+            }
+            addresses.add(new InetSocketAddress(worker.substring(0, colon), port));
+        }
+        return List.copyOf(addresses);
+    }
+
+    /**
+     * Function used to check that the value of an argument is strictly positive.
+     * @param name The name of the argument.
+     * @param value The value of the argument.
+     * @return The value of the argument.
+     * @throws IllegalArgumentException If the value is not strictly positive.
+     */
+    private static double positive(String name, double value) {
+        if(!(value > 0) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Invalid value for " + name + ": " + value);
+        }
+        return value;
+    }
+
+    /**
+     * Function used to get the viewport of a frame of the zoom sequence, centered on the same point as the first one.
+     * @param frame The index of the frame, starting from 0.
+     * @return The viewport of the frame.
+     */
+    public Viewport getViewport(int frame) {
+        double frameScale = scale / Math.pow(zoomFactor, frame);
+        MathContext context = Utils.getMathContext(frameScale);
+        BigDecimal preciseScale = new BigDecimal(frameScale);
+        BigDecimal left = centerX.subtract(preciseScale.multiply(BigDecimal.valueOf(width / 2.0)), context);
+        BigDecimal top = centerY.subtract(preciseScale.multiply(BigDecimal.valueOf(height / 2.0)), context);
+        return new Viewport(left, top, frameScale, width, height, nbSteps);
+    }
+
+    /**
+     * Function used to get the file of a frame of the zoom sequence.
+     * @param frame The index of the frame, starting from 0.
+     * @return The file in which the frame is written.
+     */
+    public Path getOutput(int frame) {
+        return Path.of(nbFrames > 1 ? String.format(output, frame) : output);
+    }
+
+    /**
+     * Function used to know if the frames are rendered and written in horizontal strips, either because they are too large to be held in memory or because a strip height has been given.
+     * @return true if the frames are rendered in strips, false if they are rendered at once.
+     */
+    public boolean isStreamed() {
+        return stripRows > 0 || (long) width * height > Constants.MAX_FRAME_PIXELS;
+    }
+
+    /**
+     * Function used to get the number of rows of the strips the frames are rendered in.
+     * @return The given number of rows, or the number of rows of {@link Constants#STRIP_PIXELS} pixels.
+     */
+    public int getStripRows() {
+        return stripRows > 0 ? stripRows : Math.max(1, Constants.STRIP_PIXELS / width);
+    }
+
+    /**
+     * Function used to get the format of the written files.
+     * @return The output format.
+     */
+    public OutputFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Function used to know if the uniform regions of the frames are guessed instead of computing every pixel.
+     * @return true if the solid guessing is enabled, false otherwise.
+     */
+    public boolean isSolidGuessing() {
+        return solidGuessing;
+    }
+
+    /**
+     * Function used to know if the solid guessing only fills the regions proven to be inside the set.
+     * @return true for the exact mode, false for the fast mode.
+     */
+    public boolean isExactGuessing() {
+        return exactGuessing;
+    }
+
+    /**
+     * Function used to get the index of the color palette.
+     * @return The active palette.
+     */
+    public int getActivePalette() {
+        return activePalette;
+    }
+
+    /**
+     * Function used to get the number of threads computing the frames.
+     * @return The number of threads.
+     */
+    public int getNbThreads() {
+        return nbThreads;
+    }
+
+    /**
+     * Function used to get the addresses of the worker processes computing the tiles.
+     * @return The addresses of the workers, empty to compute the tiles in this process.
+     */
+    public List<InetSocketAddress> getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Function used to get the number of frames of the zoom sequence.
+     * @return The number of frames.
+     */
+    public int getNbFrames() {
+        return nbFrames;
+    }
+}
@@ -0,0 +1,183 @@
+package org.mandelbrot.batch;
+
+import org.mandelbrot.cluster.TileCoordinator;
+import org.mandelbrot.engine.CancellationToken;
+import org.mandelbrot.engine.RenderExecutor;
+import org.mandelbrot.engine.RenderResult;
+import org.mandelbrot.engine.Renderer;
+import org.mandelbrot.engine.Viewport;
+import org.mandelbrot.utils.Constants;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The headless mode of the application, rendering frames to files through the same engine as the window but without any graphical component.
+ * A zoom sequence is rendered as a pipeline: each frame is encoded on the input and output executor of the {@link RenderExecutor} while the next one is computed, at most one frame waiting to be encoded at any time.
+ * Each frame is computed from the previous one, so that a zoom by a power of two only computes the pixels not shared with the previous frame.
+ * When worker processes are given, the tiles are computed by them through a {@link TileCoordinator} instead of the threads of this process, each frame being then computed from scratch.
+ * The frames too large to be held in memory are computed in horizontal strips, a bounded number of them being computed in parallel while the previous ones are written in order, so that the memory used depends on the strip size and the number of threads but not on the size of the frame.
+ */
+public class BatchRenderer {
+    /**
+     * The options of the rendering.
+     */
+    private final BatchOptions options;
+
+    /**
+     * The rendering engine computing the frames.
+     */
+    private final Renderer renderer = new Renderer();
+
+    /**
+     * The coordinator of the worker processes computing the tiles, or null if they are computed in this process.
+     */
+    private TileCoordinator coordinator = null;
+
+    /**
+     * The Constructor function of the BatchRenderer class.
+     * @param options The options of the rendering.
+     */
+    public BatchRenderer(BatchOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Function used to render all the frames and write them to their files.
+     * @throws IOException If a file cannot be written.
+     */
+    public void run() throws IOException {
+        try(RenderExecutor executor = new RenderExecutor(options.getNbThreads(), Boolean.getBoolean(Constants.VIRTUAL_THREADS_PROPERTY));
+            TileCoordinator cluster = options.getWorkers().isEmpty() ? null : new TileCoordinator(options.getWorkers())) {
+            coordinator = cluster;
+            ForkJoinPool pool = executor.getPool();
+            renderer.setIoExecutor(executor.getIoExecutor());
+            renderer.setSolidGuessing(options.isSolidGuessing());
+            renderer.setExactGuessing(options.isExactGuessing());
+            CompletableFuture<Void> encoding = CompletableFuture.completedFuture(null);
+            RenderResult previous = null;
+            for(int frame = 0; frame < options.getNbFrames(); frame++) {
+                Viewport viewport = options.getViewport(frame);
+                long startTime = System.nanoTime();
+                if(options.isStreamed()) {
+                    renderStrips(viewport, options.getOutput(frame), pool);
+                    long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                    System.out.printf("Frame %d/%d computed and written in strips in %dms (%s) -> %s%n", frame + 1, options.getNbFrames(), duration, viewport, options.getOutput(frame));
+                    continue;
+                }
+                RenderResult result = render(viewport, pool, previous).join();
+                long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                encoding.join();
+                Path file = options.getOutput(frame);
+                encoding = CompletableFuture.runAsync(() -> write(result, file), executor.getIoExecutor());
+                System.out.printf("Frame %d/%d computed in %dms (%s) -> %s%n", frame + 1, options.getNbFrames(), duration, viewport, file);
+                System.out.printf("  %s%n", coordinator != null ? result.getLoadReport() : renderer.getMetrics().getLastFrame());
+                previous = result;
+            }
+            encoding.join();
+            System.out.printf("Total: %s%n", coordinator != null ? coordinator : renderer.getMetrics());
+        } catch (CompletionException e) {
+            if(e.getCause() instanceof UncheckedIOException io) throw io.getCause();
+            if(e.getCause() instanceof IOException io) throw io;
+            throw e;
+        }
+    }
+
+    /**
+     * Function used to start the rendering of a frame or of a strip, on the worker processes if there are some, otherwise on the pool from the previous frame.
+     * @param viewport The viewport of the frame or of the strip.
+     * @param pool The pool computing the tiles in this process.
+     * @param previous The previous frame, or null if there is none.
+     * @return A future completed with the result once all the tiles have been computed.
+     */
+    private CompletableFuture<RenderResult> render(Viewport viewport, ForkJoinPool pool, RenderResult previous) {
+        return render(viewport, pool, previous, CancellationToken.NONE);
+    }
+
+    /**
+     * Function used to start the cancellable rendering of a frame or of a strip, on the worker processes if there are some, otherwise on the pool from the previous frame.
+     * @param viewport The viewport of the frame or of the strip.
+     * @param pool The pool computing the tiles in this process.
+     * @param previous The previous frame, or null if there is none.
+     * @param token The token checked by the tiles computed in this process to stop the rendering.
+     * @return A future completed with the result once all the tiles have been computed.
+     */
+    private CompletableFuture<RenderResult> render(Viewport viewport, ForkJoinPool pool, RenderResult previous, CancellationToken token) {
+        if(coordinator != null) return coordinator.render(viewport, options.getActivePalette());
+        return renderer.render(viewport, options.getActivePalette(), pool, (tile, partial) -> {}, token, previous);
+    }
+
+    /**
+     * Function used to render a frame in horizontal strips and write them in order as soon as they are computed.
+     * At most one strip more than the number of threads is computed at any time, on top of the one being written. If a strip cannot be written, the strips still being computed are cancelled.
+     * @param viewport The viewport of the frame.
+     * @param file The file we want to write.
+     * @param pool The pool computing the strips.
+     * @throws IOException If the file cannot be written.
+     */
+    private void renderStrips(Viewport viewport, Path file, ForkJoinPool pool) throws IOException {
+        int rows = options.getStripRows();
+        Deque<CompletableFuture<RenderResult>> strips = new ArrayDeque<>();
+        CancellationToken token = new CancellationToken(0);
+        try(StripWriter writer = options.getFormat().open(file, viewport.getWidth(), viewport.getHeight())) {
+            int next = 0;
+            while(next < viewport.getHeight() || !strips.isEmpty()) {
+                while(next < viewport.getHeight() && strips.size() <= options.getNbThreads()) {
+                    strips.add(render(viewport.getStrip(next, Math.min(rows, viewport.getHeight() - next)), pool, null, token));
+                    next += rows;
+                }
+                writer.writeStrip(strips.poll().join());
+            }
+        } finally {
+            token.cancel();
+            strips.forEach(strip -> strip.cancel(false));
+        }
+    }
+
+    /**
+     * Function used to write a frame to its file.
+     * @param result The complete rendering of the frame.
+     * @param file The file we want to write.
+     */
+    private void write(RenderResult result, Path file) {
+        try {
+            options.getFormat().write(result, file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The main execution function of the batch mode.
+     * @param args The console arguments describing the frames to render.
+     */
+    public static void main(String[] args) {
+        if(List.of(args).contains("--help")) {
+            System.out.println(BatchOptions.USAGE);
+            return;
+        }
+        BatchOptions options;
+        try {
+            options = BatchOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(BatchOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        try {
+            new BatchRenderer(options).run();
+        } catch (IOException e) {
+            System.err.println("Unable to write the frames: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
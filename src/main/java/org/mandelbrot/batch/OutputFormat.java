@@ -0,0 +1,107 @@
+package org.mandelbrot.batch;
+
+import org.mandelbrot.engine.RenderResult;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * The formats in which the batch mode writes the rendered frames.
+ */
+public enum OutputFormat {
+    /**
+     * A PNG image, encoded by the image I/O library without any window.
+     */
+    PNG {
+        @Override
+        public void write(RenderResult result, Path file) throws IOException {
+            BufferedImage image = new BufferedImage(result.getViewport().getWidth(), result.getViewport().getHeight(), BufferedImage.TYPE_INT_RGB);
+            result.copyRaster(((DataBufferInt) image.getRaster().getDataBuffer()).getData());
+            if(!ImageIO.write(image, "png", file.toFile())) {
+                throw new IOException("No PNG encoder available to write " + file);
+            }
+        }
+
+        @Override
+        public StripWriter open(Path file, int width, int height) throws IOException {
+            return new PngStripWriter(file, width, height);
+        }
+    },
+
+    /**
+     * The red, green and blue bytes of each pixel, row after row from the top left corner, without any header.
+     */
+    RAW {
+        @Override
+        public void write(RenderResult result, Path file) throws IOException {
+            int width = result.getViewport().getWidth();
+            int[] raster = result.getRaster();
+            byte[] row = new byte[width * 3];
+            try(OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                for(int offset = 0; offset < raster.length; offset += width) {
+                    for(int x = 0; x < width; x++) {
+                        int color = raster[offset + x];
+                        row[3 * x] = (byte) (color >> 16);
+                        row[3 * x + 1] = (byte) (color >> 8);
+                        row[3 * x + 2] = (byte) color;
+                    }
+                    out.write(row);
+                }
+            }
+        }
+
+        @Override
+        public StripWriter open(Path file, int width, int height) throws IOException {
+            return new RawStripWriter(file);
+        }
+    };
+
+    /**
+     * Function used to write a complete rendering in a file.
+     * @param result The complete result of the rendering.
+     * @param file The file we want to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public abstract void write(RenderResult result, Path file) throws IOException;
+
+    /**
+     * Function used to open a file in which an image too large for the memory is written strip by strip.
+     * @param file The file we want to write.
+     * @param width The width of the image in pixels.
+     * @param height The height of the image in pixels.
+     * @return The writer receiving the strips of the image.
+     * @throws IOException If the file cannot be opened.
+     */
+    public abstract StripWriter open(Path file, int width, int height) throws IOException;
+
+    /**
+     * Function used to get a format from its name, ignoring the case.
+     * @param name The name of the format.
+     * @return The format with this name.
+     * @throws IllegalArgumentException If no format has this name.
+     */
+    public static OutputFormat of(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown output format: " + name);
+        }
+    }
+
+    /**
+     * Function used to guess the format of a file from its extension.
+     * @param file The name of the file.
+     * @return The raw format for the files ending with .raw or .rgb, the PNG format otherwise.
+     */
+    public static OutputFormat ofFile(String file) {
+        String name = file.toLowerCase(Locale.ROOT);
+        return name.endsWith(".raw") || name.endsWith(".rgb") ? RAW : PNG;
+    }
+}
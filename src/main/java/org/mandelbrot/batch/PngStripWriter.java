@@ -0,0 +1,164 @@
+package org.mandelbrot.batch;
+
+import org.mandelbrot.engine.RenderResult;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * A PNG encoder writing the image strip by strip, the compressed rows being flushed in data chunks as they come, so that its memory does not depend on the size of the image.
+ * The rows use the Sub filter, which predicts each byte from the same channel of the previous pixel and suits the large uniform bands of the mandelbrot set.
+ */
+final class PngStripWriter implements StripWriter {
+    /**
+     * The signature starting every PNG file.
+     */
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    /**
+     * The maximal number of compressed bytes of a data chunk.
+     */
+    private static final int CHUNK_BYTES = 1 << 16;
+
+    /**
+     * The filter type of the rows, predicting each byte from the previous pixel.
+     */
+    private static final int SUB_FILTER = 1;
+
+    /**
+     * The file written.
+     */
+    private final DataOutputStream file;
+
+    /**
+     * The deflater compressing the filtered rows.
+     */
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+    /**
+     * The stream cutting the compressed rows into data chunks.
+     */
+    private final ChunkOutputStream chunks = new ChunkOutputStream();
+
+    /**
+     * The stream compressing the filtered rows into data chunks.
+     */
+    private final DeflaterOutputStream data;
+
+    /**
+     * The filtered bytes of a row, starting with its filter type.
+     */
+    private final byte[] row;
+
+    /**
+     * The Constructor function of the PngStripWriter class, writing the header of the image.
+     * @param path The file we want to write.
+     * @param width The width of the image in pixels.
+     * @param height The height of the image in pixels.
+     * @throws IOException If the file cannot be written.
+     */
+    PngStripWriter(Path path, int width, int height) throws IOException {
+        this.file = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), CHUNK_BYTES));
+        this.data = new DeflaterOutputStream(chunks, deflater, CHUNK_BYTES);
+        this.row = new byte[1 + 3 * width];
+        file.write(SIGNATURE);
+        byte[] header = new byte[13];
+        ByteBuffer.wrap(header).putInt(width).putInt(height).put((byte) 8).put((byte) 2);
+        writeChunk("IHDR", header, header.length);
+    }
+
+    @Override
+    public void writeStrip(RenderResult strip) throws IOException {
+        int width = strip.getViewport().getWidth();
+        int[] raster = strip.getRaster();
+        row[0] = SUB_FILTER;
+        for(int offset = 0; offset < raster.length; offset += width) {
+            int previous = 0;
+            for(int x = 0; x < width; x++) {
+                int color = raster[offset + x];
+                row[1 + 3 * x] = (byte) ((color >> 16) - (previous >> 16));
+                row[2 + 3 * x] = (byte) ((color >> 8) - (previous >> 8));
+                row[3 + 3 * x] = (byte) (color - previous);
+                previous = color;
+            }
+            data.write(row);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            data.finish();
+            chunks.flush();
+            writeChunk("IEND", new byte[0], 0);
+        } finally {
+            deflater.end();
+            file.close();
+        }
+    }
+
+    /**
+     * Function used to write a chunk of the PNG file.
+     * @param type The four letters of the type of the chunk.
+     * @param content The content of the chunk.
+     * @param length The number of bytes of the content.
+     * @throws IOException If the file cannot be written.
+     */
+    private void writeChunk(String type, byte[] content, int length) throws IOException {
+        byte[] name = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(name);
+        crc.update(content, 0, length);
+        file.writeInt(length);
+        file.write(name);
+        file.write(content, 0, length);
+        file.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * The stream receiving the compressed rows and writing them in data chunks of at most {@link #CHUNK_BYTES} bytes.
+     */
+    private final class ChunkOutputStream extends OutputStream {
+        /**
+         * The compressed bytes of the next data chunk.
+         */
+        private final byte[] buffer = new byte[CHUNK_BYTES];
+
+        /**
+         * The number of bytes in the buffer.
+         */
+        private int size = 0;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while(length > 0) {
+                int count = Math.min(length, buffer.length - size);
+                System.arraycopy(bytes, offset, buffer, size, count);
+                size += count;
+                offset += count;
+                length -= count;
+                if(size == buffer.length) flush();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if(size > 0) writeChunk("IDAT", buffer, size);
+            size = 0;
+        }
+    }
+}
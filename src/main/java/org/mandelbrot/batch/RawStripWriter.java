@@ -0,0 +1,52 @@
+package org.mandelbrot.batch;
+
+import org.mandelbrot.engine.RenderResult;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A writer of raw RGB images mapping each strip of the file in memory in turn, so that images larger than the heap, and than the 2 GB of a single mapping, are written without copy through a stream.
+ */
+final class RawStripWriter implements StripWriter {
+    /**
+     * The file written.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The position in the file of the next strip.
+     */
+    private long position = 0;
+
+    /**
+     * The Constructor function of the RawStripWriter class. The file grows as the strips are mapped.
+     * @param path The file we want to write.
+     * @throws IOException If the file cannot be created.
+     */
+    RawStripWriter(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    @Override
+    public void writeStrip(RenderResult strip) throws IOException {
+        int[] raster = strip.getRaster();
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, raster.length * 3L);
+        for(int color : raster) {
+            buffer.put((byte) (color >> 16)).put((byte) (color >> 8)).put((byte) color);
+        }
+        position += raster.length * 3L;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.mandelbrot.batch;
+
+import org.mandelbrot.engine.RenderResult;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A writer receiving an image as consecutive horizontal strips, from the top to the bottom, so that the whole image never has to be held in memory.
+ */
+public interface StripWriter extends Closeable {
+    /**
+     * Function used to append a strip below the ones already written.
+     * @param strip The complete rendering of the strip, as wide as the image.
+     * @throws IOException If the strip cannot be written.
+     */
+    void writeStrip(RenderResult strip) throws IOException;
+}
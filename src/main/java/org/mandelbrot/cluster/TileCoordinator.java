@@ -0,0 +1,565 @@
+package org.mandelbrot.cluster;
+
+import org.mandelbrot.engine.LoadReport;
+import org.mandelbrot.engine.RenderResult;
+import org.mandelbrot.engine.Tile;
+import org.mandelbrot.engine.Viewport;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mandelbrot.utils.Constants.*;
+
+/**
+ * The coordinator of a distributed rendering, splitting the viewports into tiles computed by worker processes (see {@link TileWorker}) over TCP connections.
+ * The tiles wait in a single queue from which each worker is sent new ones as soon as it has answered, up to {@link org.mandelbrot.utils.Constants#WORKER_TILES_PER_THREAD} tiles per thread in flight, so that the fast workers take more tiles than the slow ones.
+ * Once the queue is empty, an idle worker steals the last tile sent to the most loaded worker, the first answer being kept, so that a slow worker does not hold back the end of the rendering.
+ * When a connection is lost, the tiles it had in flight are put back at the head of the queue for the remaining workers, and the renderings only fail once no worker is left.
+ */
+public class TileCoordinator implements AutoCloseable {
+    /**
+     * The longest time to wait for a worker to accept the connection and greet the coordinator, in milliseconds.
+     */
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+
+    /**
+     * The connections to the workers, including the lost ones.
+     */
+    private final List<Connection> connections = new ArrayList<>();
+
+    /**
+     * The tiles waiting to be sent to a worker.
+     */
+    private final Deque<Assignment> queue = new ArrayDeque<>();
+
+    /**
+     * The renderings in progress, indexed by their identifier.
+     */
+    private final Map<Integer, Job> jobs = new HashMap<>();
+
+    /**
+     * The identifier of the next rendering.
+     */
+    private int nextJob = 0;
+
+    /**
+     * Whether the coordinator has been closed.
+     */
+    private boolean closed = false;
+
+    /**
+     * The number of complete renderings.
+     */
+    private long frames = 0;
+
+    /**
+     * The number of pixels of the complete renderings.
+     */
+    private long pixels = 0;
+
+    /**
+     * The cumulated elapsed time of the complete renderings, in nanoseconds.
+     */
+    private long wallNanos = 0;
+
+    /**
+     * The number of tiles sent again after the loss of the worker computing them.
+     */
+    private long redispatchedTiles = 0;
+
+    /**
+     * The number of tiles stolen by an idle worker from a busy one.
+     */
+    private long stolenTiles = 0;
+
+    /**
+     * The number of bytes received from the workers.
+     */
+    private long bytesReceived = 0;
+
+    /**
+     * The Constructor function of the TileCoordinator class, connecting to all the workers.
+     * @param workers The addresses of the workers.
+     * @throws IOException If a worker cannot be reached or does not speak the protocol.
+     */
+    public TileCoordinator(List<InetSocketAddress> workers) throws IOException {
+        if(workers.isEmpty()) {
+            throw new IllegalArgumentException("No worker to coordinate");
+        }
+        try {
+            for(InetSocketAddress address : workers) {
+                connections.add(new Connection(address));
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+        for(Connection connection : connections) {
+            Thread.ofPlatform().daemon(true).name("mandelbrot-coordinator-" + connection.name).start(connection::receive);
+        }
+    }
+
+    /**
+     * Function used to render a viewport on the workers.
+     * @param viewport The viewport we want to render.
+     * @param activePalette The color palette used to color the raster.
+     * @return A future completed with the result once all the tiles have been received, or failed with an {@link IOException} if no worker is left.
+     */
+    public CompletableFuture<RenderResult> render(Viewport viewport, int activePalette) {
+        List<Tile> tiles = new ArrayList<>();
+        for(int y = 0; y < viewport.getHeight(); y += DISTRIBUTED_TILE_SIZE) {
+            for(int x = 0; x < viewport.getWidth(); x += DISTRIBUTED_TILE_SIZE) {
+                tiles.add(new Tile(x, y, Math.min(DISTRIBUTED_TILE_SIZE, viewport.getWidth() - x), Math.min(DISTRIBUTED_TILE_SIZE, viewport.getHeight() - y)));
+            }
+        }
+        synchronized (this) {
+            if(closed || getLiveWorkers() == 0) {
+                return CompletableFuture.failedFuture(new IOException("No worker left to render " + viewport));
+            }
+            Job job = new Job(nextJob++, viewport, activePalette, tiles);
+            jobs.put(job.id, job);
+            for(int i = 0; i < tiles.size(); i++) queue.add(new Assignment(job, i));
+            dispatch();
+            return job.future;
+        }
+    }
+
+    /**
+     * Function used to send tiles to the workers with room in their window, stealing in-flight tiles for the idle workers once the queue is empty.
+     */
+    private synchronized void dispatch() {
+        boolean lost;
+        do {
+            lost = false;
+            for(Connection connection : connections) {
+                if(!connection.alive) continue;
+                try {
+                    boolean sent = false;
+                    Assignment assignment;
+                    while(connection.inFlight.size() < connection.window && (assignment = next(connection)) != null) {
+                        connection.inFlight.put(assignment.getId(), assignment);
+                        TileProtocol.writeRequest(connection.out, assignment.getId(), assignment.job.viewport.getRegion(assignment.getTile()));
+                        sent = true;
+                    }
+                    if(sent) connection.out.flush();
+                } catch (IOException e) {
+                    fail(connection, e);
+                    lost = true;
+                }
+            }
+        } while(lost);
+    }
+
+    /**
+     * Function used to choose the next tile sent to a worker.
+     * @param connection The connection to the worker.
+     * @return The next tile of the queue, a tile stolen from the most loaded worker if the queue is empty and the worker is idle, or null if there is nothing to send.
+     */
+    private Assignment next(Connection connection) {
+        Assignment assignment;
+        while((assignment = queue.poll()) != null) {
+            if(!assignment.isDone()) return assignment;
+        }
+        if(!connection.inFlight.isEmpty()) return null;
+        Connection busiest = null;
+        for(Connection other : connections) {
+            if(other.alive && other != connection && (busiest == null || other.inFlight.size() > busiest.inFlight.size())) busiest = other;
+        }
+        if(busiest == null) return null;
+        for(Assignment victim : busiest.inFlight.sequencedValues().reversed()) {
+            if(!victim.stolen && !victim.isDone()) {
+                Assignment copy = new Assignment(victim.job, victim.index);
+                victim.stolen = true;
+                copy.stolen = true;
+                stolenTiles++;
+                return copy;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Function used to give up a lost worker, putting the tiles it had in flight back at the head of the queue.
+     * Once no worker is left, the renderings in progress fail.
+     * @param connection The connection to the lost worker.
+     * @param error The error that made the worker lost.
+     */
+    private synchronized void fail(Connection connection, IOException error) {
+        if(!connection.alive) return;
+        connection.alive = false;
+        connection.close();
+        for(Assignment assignment : connection.inFlight.sequencedValues().reversed()) {
+            if(!assignment.isDone()) {
+                queue.addFirst(new Assignment(assignment.job, assignment.index));
+                redispatchedTiles++;
+            }
+        }
+        connection.inFlight.clear();
+        if(!closed) System.err.println("Worker " + connection.name + " lost, its tiles are sent to the other workers: " + error.getMessage());
+        if(getLiveWorkers() == 0) {
+            for(Job job : jobs.values()) {
+                job.future.completeExceptionally(new IOException("All the workers are lost", error));
+            }
+            jobs.clear();
+            queue.clear();
+        }
+    }
+
+    /**
+     * Function used to get the number of workers still connected.
+     * @return The number of live workers.
+     */
+    public synchronized int getLiveWorkers() {
+        return (int) connections.stream().filter(connection -> connection.alive).count();
+    }
+
+    /**
+     * Function used to get the number of renderings completed by the workers.
+     * @return The number of complete frames.
+     */
+    public synchronized long getFrames() {
+        return frames;
+    }
+
+    /**
+     * Function used to get the end-to-end throughput of the complete renderings, from their request to the reception of their last tile.
+     * @return The throughput in pixels per second.
+     */
+    public synchronized double getPixelsPerSecond() {
+        return wallNanos == 0 ? 0 : pixels * 1e9 / wallNanos;
+    }
+
+    /**
+     * Function used to get the number of bytes received from the workers.
+     * @return The received bytes.
+     */
+    public synchronized long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /**
+     * Function used to get the number of tiles sent again after the loss of the worker computing them.
+     * @return The number of redispatched tiles.
+     */
+    public synchronized long getRedispatchedTiles() {
+        return redispatchedTiles;
+    }
+
+    /**
+     * Function used to get the number of tiles stolen by an idle worker from a busy one.
+     * @return The number of stolen tiles.
+     */
+    public synchronized long getStolenTiles() {
+        return stolenTiles;
+    }
+
+    /**
+     * Function used to close the connections to the workers, failing the renderings in progress.
+     */
+    @Override
+    public void close() {
+        List<Connection> open;
+        synchronized (this) {
+            closed = true;
+            open = new ArrayList<>(connections);
+        }
+        for(Connection connection : open) {
+            fail(connection, new IOException("Coordinator closed"));
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d/%d workers - %d frames - %.2f Mpixels/s - %d KB received - %d tiles redispatched - %d tiles stolen",
+                getLiveWorkers(), connections.size(), frames, getPixelsPerSecond() / 1e6, bytesReceived / 1024, redispatchedTiles, stolenTiles);
+    }
+
+    /**
+     * A rendering in progress on the workers.
+     */
+    private final class Job {
+        /**
+         * The identifier of the rendering.
+         */
+        private final int id;
+
+        /**
+         * The viewport of the rendering.
+         */
+        private final Viewport viewport;
+
+        /**
+         * The color palette used to color the raster.
+         */
+        private final int activePalette;
+
+        /**
+         * The tiles of the viewport.
+         */
+        private final List<Tile> tiles;
+
+        /**
+         * Whether each tile has been received.
+         */
+        private final boolean[] done;
+
+        /**
+         * The number of tiles not received yet.
+         */
+        private int remaining;
+
+        /**
+         * The time each worker has spent computing the tiles of the rendering, in nanoseconds, indexed by the name of the worker.
+         */
+        private final Map<String, Long> busyNanos = new HashMap<>();
+
+        /**
+         * The result in which the received tiles are stored.
+         */
+        private final RenderResult result;
+
+        /**
+         * The future completed with the result.
+         */
+        private final CompletableFuture<RenderResult> future = new CompletableFuture<>();
+
+        /**
+         * The value of System.nanoTime() when the rendering has been requested.
+         */
+        private final long start = System.nanoTime();
+
+        /**
+         * The Constructor function of the Job class.
+         * @param id The identifier of the rendering.
+         * @param viewport The viewport of the rendering.
+         * @param activePalette The color palette used to color the raster.
+         * @param tiles The tiles of the viewport.
+         */
+        Job(int id, Viewport viewport, int activePalette, List<Tile> tiles) {
+            this.id = id;
+            this.viewport = viewport;
+            this.activePalette = activePalette;
+            this.tiles = tiles;
+            this.done = new boolean[tiles.size()];
+            this.remaining = tiles.size();
+            this.result = new RenderResult(viewport);
+        }
+
+        /**
+         * Function used to record a received tile.
+         * @param index The index of the tile.
+         * @param worker The name of the worker which computed the tile.
+         * @param nanos The time the worker took to compute the tile, in nanoseconds.
+         * @return true if it was the last tile of the rendering, false otherwise.
+         */
+        boolean receive(int index, String worker, long nanos) {
+            if(done[index]) return false;
+            done[index] = true;
+            busyNanos.merge(worker, nanos, Long::sum);
+            return --remaining == 0;
+        }
+
+        /**
+         * Function used to complete the rendering once all its tiles have been received, with the time each worker has spent on it as load report.
+         */
+        void complete() {
+            long elapsed = System.nanoTime() - start;
+            synchronized (TileCoordinator.this) {
+                jobs.remove(id);
+                frames++;
+                pixels += (long) viewport.getWidth() * viewport.getHeight();
+                wallNanos += elapsed;
+                result.setLoadReport(new LoadReport(elapsed, tiles.size(), busyNanos));
+            }
+            future.complete(result);
+        }
+    }
+
+    /**
+     * A tile of a rendering sent, or to be sent, to a worker.
+     */
+    private static final class Assignment {
+        /**
+         * The rendering the tile belongs to.
+         */
+        private final Job job;
+
+        /**
+         * The index of the tile in the rendering.
+         */
+        private final int index;
+
+        /**
+         * Whether a copy of the tile has been sent to another worker.
+         */
+        private boolean stolen = false;
+
+        /**
+         * The Constructor function of the Assignment class.
+         * @param job The rendering the tile belongs to.
+         * @param index The index of the tile in the rendering.
+         */
+        Assignment(Job job, int index) {
+            this.job = job;
+            this.index = index;
+        }
+
+        /**
+         * Function used to get the identifier of the tile in the messages, made of the identifiers of the rendering and of the tile.
+         * @return The identifier of the tile.
+         */
+        long getId() {
+            return (long) job.id << 32 | index;
+        }
+
+        /**
+         * Function used to get the tile of the image.
+         * @return The tile.
+         */
+        Tile getTile() {
+            return job.tiles.get(index);
+        }
+
+        /**
+         * Function used to know if the tile no longer needs to be computed, because it has been received or its rendering has failed.
+         * @return true if the tile is not needed any more, false otherwise.
+         */
+        boolean isDone() {
+            return job.done[index] || job.future.isDone();
+        }
+    }
+
+    /**
+     * The connection to a worker, with the tiles it has in flight.
+     */
+    private final class Connection {
+        /**
+         * The address of the worker, naming it in the load reports.
+         */
+        private final String name;
+
+        /**
+         * The socket connected to the worker.
+         */
+        private final Socket socket;
+
+        /**
+         * The stream of the requests.
+         */
+        private final DataOutputStream out;
+
+        /**
+         * The stream of the responses.
+         */
+        private final DataInputStream in;
+
+        /**
+         * The largest number of tiles in flight on the worker.
+         */
+        private final int window;
+
+        /**
+         * The tiles sent to the worker and not answered yet, in the order they have been sent, indexed by their identifier.
+         */
+        private final LinkedHashMap<Long, Assignment> inFlight = new LinkedHashMap<>();
+
+        /**
+         * Whether the worker is still connected.
+         */
+        private boolean alive = true;
+
+        /**
+         * The Constructor function of the Connection class, connecting to a worker and reading its greeting.
+         * @param address The address of the worker.
+         * @throws IOException If the worker cannot be reached or does not speak the protocol.
+         */
+        Connection(InetSocketAddress address) throws IOException {
+            this.name = address.getHostString() + ":" + address.getPort();
+            this.socket = new Socket();
+            try {
+                socket.connect(address, CONNECT_TIMEOUT_MILLIS);
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+                this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                this.window = TileProtocol.readHello(in) * WORKER_TILES_PER_THREAD;
+                socket.setSoTimeout(0);
+            } catch (IOException e) {
+                close();
+                throw new IOException("Unable to connect to the worker " + name + ": " + e.getMessage(), e);
+            }
+        }
+
+        /**
+         * Function used to receive the tiles computed by the worker until the connection is lost or closed.
+         */
+        void receive() {
+            try {
+                while(true) {
+                    long id = in.readLong();
+                    long nanos = in.readLong();
+                    int count = in.readInt();
+                    byte[] data = new byte[in.readInt()];
+                    in.readFully(data);
+                    Assignment assignment;
+                    boolean needed;
+                    synchronized (TileCoordinator.this) {
+                        assignment = inFlight.remove(id);
+                        bytesReceived += data.length + 24;
+                        needed = assignment != null && !assignment.isDone();
+                    }
+                    if(assignment == null) {
+                        throw new IOException("Unexpected tile " + Long.toHexString(id));
+                    }
+                    Tile tile = assignment.getTile();
+                    if(count != tile.getArea()) {
+                        throw new IOException("Tile " + tile + " received with " + count + " pixels");
+                    }
+                    boolean last = false;
+                    if(needed) {
+                        int[] iterations = new int[count];
+                        float[] squaredModuli = new float[count];
+                        TileProtocol.decompress(data, iterations, squaredModuli);
+                        assignment.job.result.storeTile(tile, iterations, squaredModuli, assignment.job.activePalette);
+                        synchronized (TileCoordinator.this) {
+                            last = !assignment.job.future.isDone() && assignment.job.receive(assignment.index, name, nanos);
+                        }
+                    }
+                    if(last) assignment.job.complete();
+                    dispatch();
+                }
+            } catch (EOFException e) {
+                fail(this, new IOException("Connection closed by the worker", e));
+                dispatch();
+            } catch (IOException e) {
+                fail(this, e);
+                dispatch();
+            }
+        }
+
+        /**
+         * Function used to close the connection.
+         */
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // The connection is already unusable.
+            }
+        }
+    }
+}
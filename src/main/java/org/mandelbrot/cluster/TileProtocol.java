@@ -0,0 +1,186 @@
+package org.mandelbrot.cluster;
+
+import org.mandelbrot.engine.Viewport;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The messages exchanged between the coordinator and the worker processes over a TCP connection.
+ * On connection, the worker sends {@link #MAGIC}, {@link #VERSION} and its number of threads. The coordinator then sends requests, each one holding the identifier of a tile and the viewport of the tile, and the worker answers each one, in any order, with the identifier of the tile, its computing time and its compressed iterations and squared moduli.
+ * The viewport of a tile is sent with the corner of the frame it has been cut from and its position in the frame, so that the worker computes exactly the pixels of the frame.
+ * A worker unable to compute a tile closes the connection, so that the coordinator sends its tiles to the other workers.
+ */
+final class TileProtocol {
+    /**
+     * The first bytes sent by a worker, identifying the protocol.
+     */
+    static final int MAGIC = 0x4D414E44;
+
+    /**
+     * The version of the protocol, changed whenever the messages change.
+     */
+    static final int VERSION = 2;
+
+    /**
+     * The Constructor function of the TileProtocol class, which only holds static functions.
+     */
+    private TileProtocol() {
+    }
+
+    /**
+     * Function used to send the greeting of a worker.
+     * @param out The stream to the coordinator.
+     * @param parallelism The number of threads of the worker.
+     * @throws IOException If the greeting cannot be sent.
+     */
+    static void writeHello(DataOutputStream out, int parallelism) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(parallelism);
+        out.flush();
+    }
+
+    /**
+     * Function used to receive the greeting of a worker.
+     * @param in The stream from the worker.
+     * @return The number of threads of the worker.
+     * @throws IOException If the greeting cannot be received or is not the one of a worker speaking this version of the protocol.
+     */
+    static int readHello(DataInputStream in) throws IOException {
+        if(in.readInt() != MAGIC) {
+            throw new IOException("Not a tile worker");
+        }
+        int version = in.readInt();
+        if(version != VERSION) {
+            throw new IOException("Unsupported protocol version " + version + ", expected " + VERSION);
+        }
+        int parallelism = in.readInt();
+        if(parallelism <= 0) {
+            throw new IOException("Invalid number of worker threads: " + parallelism);
+        }
+        return parallelism;
+    }
+
+    /**
+     * Function used to send the request of a tile. The stream is not flushed, so that several requests can be sent at once.
+     * @param out The stream to the worker.
+     * @param id The identifier of the tile.
+     * @param viewport The viewport of the tile.
+     * @throws IOException If the request cannot be sent.
+     */
+    static void writeRequest(DataOutputStream out, long id, Viewport viewport) throws IOException {
+        out.writeLong(id);
+        out.writeUTF(viewport.getPreciseLeft().toString());
+        out.writeUTF(viewport.getPreciseTop().toString());
+        out.writeDouble(viewport.getImageLeft());
+        out.writeDouble(viewport.getImageTop());
+        out.writeInt(viewport.getImageColumn());
+        out.writeInt(viewport.getImageRow());
+        out.writeDouble(viewport.getScale());
+        out.writeInt(viewport.getWidth());
+        out.writeInt(viewport.getHeight());
+        out.writeInt(viewport.getMaxIterations());
+    }
+
+    /**
+     * Function used to receive the viewport of a requested tile, once its identifier has been read.
+     * @param in The stream from the coordinator.
+     * @return The viewport of the tile.
+     * @throws IOException If the request cannot be received or is invalid.
+     */
+    static Viewport readViewport(DataInputStream in) throws IOException {
+        try {
+            BigDecimal left = new BigDecimal(in.readUTF());
+            BigDecimal top = new BigDecimal(in.readUTF());
+            return new Viewport(left, top, in.readDouble(), in.readDouble(), in.readInt(), in.readInt(), in.readDouble(), in.readInt(), in.readInt(), in.readInt());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid tile request: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Function used to send the outcome of a tile.
+     * @param out The stream to the coordinator.
+     * @param id The identifier of the tile.
+     * @param nanos The time the worker took to compute the tile, in nanoseconds.
+     * @param iterations The numbers of iterations of the pixels of the tile.
+     * @param squaredModuli The squared moduli of the pixels of the tile.
+     * @throws IOException If the response cannot be sent.
+     */
+    static void writeResponse(DataOutputStream out, long id, long nanos, int[] iterations, float[] squaredModuli) throws IOException {
+        byte[] data = compress(iterations, squaredModuli);
+        out.writeLong(id);
+        out.writeLong(nanos);
+        out.writeInt(iterations.length);
+        out.writeInt(data.length);
+        out.write(data);
+        out.flush();
+    }
+
+    /**
+     * Function used to compress the outcome of a tile. The iterations are stored as differences with the previous pixel, which are mostly zero inside the set and small outside, so that the deflate stream shrinks them further.
+     * @param iterations The numbers of iterations of the pixels of the tile.
+     * @param squaredModuli The squared moduli of the pixels of the tile.
+     * @return The compressed outcome.
+     */
+    static byte[] compress(int[] iterations, float[] squaredModuli) {
+        ByteBuffer raw = ByteBuffer.allocate(iterations.length * 8);
+        int previous = 0;
+        for(int i = 0; i < iterations.length; i++) {
+            raw.putInt(iterations[i] - previous);
+            previous = iterations[i];
+        }
+        raw.asFloatBuffer().put(squaredModuli);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw.array());
+            deflater.finish();
+            byte[] buffer = new byte[raw.capacity() / 4 + 64];
+            int length = 0;
+            while(!deflater.finished()) {
+                if(length == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Function used to decompress the outcome of a tile.
+     * @param data The compressed outcome.
+     * @param iterations The array in which the numbers of iterations of the pixels are decompressed.
+     * @param squaredModuli The array in which the squared moduli of the pixels are decompressed.
+     * @throws IOException If the outcome is corrupted.
+     */
+    static void decompress(byte[] data, int[] iterations, float[] squaredModuli) throws IOException {
+        byte[] raw = new byte[iterations.length * 8];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            if(inflater.inflate(raw) != raw.length || !inflater.finished()) {
+                throw new IOException("Truncated tile of " + data.length + " bytes");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted tile: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(raw);
+        int previous = 0;
+        for(int i = 0; i < iterations.length; i++) {
+            previous += buffer.getInt();
+            iterations[i] = previous;
+        }
+        buffer.asFloatBuffer().get(squaredModuli);
+    }
+}
@@ -0,0 +1,208 @@
+package org.mandelbrot.cluster;
+
+import org.mandelbrot.engine.RenderExecutor;
+import org.mandelbrot.engine.Renderer;
+import org.mandelbrot.engine.Viewport;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The worker process of a distributed rendering, computing the tiles requested by coordinators through the same engine as the application.
+ * Each connection is served by its own thread reading the requests, the tiles being computed concurrently on the pool of the worker and answered as soon as they are complete, so that a coordinator keeping several tiles in flight keeps all the threads of the worker busy.
+ * A tile that cannot be computed or answered closes its connection, so that the coordinator sends the tiles in flight on it to the other workers.
+ */
+public class TileWorker implements AutoCloseable {
+    /**
+     * The description of the console arguments of the worker mode.
+     */
+    public static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: java -jar mandelbrot-set.jar --worker <port> [--threads <threads>]",
+            "  --worker <port>       The TCP port on which the coordinators connect, 0 to choose a free one",
+            "  --threads <threads>   The number of threads computing the tiles");
+
+    /**
+     * The socket accepting the connections of the coordinators.
+     */
+    private final ServerSocket server;
+
+    /**
+     * The executor owning the threads computing the tiles.
+     */
+    private final RenderExecutor executor;
+
+    /**
+     * The rendering engine computing the tiles.
+     */
+    private final Renderer renderer = new Renderer();
+
+    /**
+     * The threads serving the connections.
+     */
+    private final ExecutorService connections = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("mandelbrot-worker-", 0).factory());
+
+    /**
+     * The open connections to the coordinators, closed with the worker.
+     */
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The Constructor function of the TileWorker class, listening on all the interfaces.
+     * @param port The TCP port on which the coordinators connect, 0 to choose a free one.
+     * @param parallelism The number of threads computing the tiles.
+     * @throws IOException If the port cannot be listened on.
+     */
+    public TileWorker(int port, int parallelism) throws IOException {
+        this.server = new ServerSocket(port);
+        this.executor = new RenderExecutor(parallelism, true);
+    }
+
+    /**
+     * Function used to get the TCP port on which the coordinators connect.
+     * @return The listened port.
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Function used to accept the connections of the coordinators in the background, until the worker is closed.
+     * The accepting thread is a platform thread, which keeps the worker process alive.
+     * @return The worker, once it accepts connections.
+     */
+    public TileWorker start() {
+        Thread.ofPlatform().name("mandelbrot-worker-accept").start(() -> {
+            while(!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    connections.execute(() -> serve(socket));
+                } catch (IOException e) {
+                    if(!server.isClosed()) System.err.println("Unable to accept a coordinator: " + e.getMessage());
+                }
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Function used to serve the requests of a coordinator until it closes the connection.
+     * @param socket The connection to the coordinator.
+     */
+    private void serve(Socket socket) {
+        sockets.add(socket);
+        try(socket) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            TileProtocol.writeHello(out, executor.getParallelism());
+            while(!socket.isClosed()) {
+                long id;
+                try {
+                    id = in.readLong();
+                } catch (EOFException e) {
+                    return;
+                }
+                Viewport viewport = TileProtocol.readViewport(in);
+                long start = System.nanoTime();
+                renderer.render(viewport, 0, executor.getPool()).whenComplete((result, error) -> {
+                    if(error != null) {
+                        System.err.println("Unable to compute " + viewport + ": " + error);
+                        close(socket);
+                        return;
+                    }
+                    synchronized (out) {
+                        try {
+                            TileProtocol.writeResponse(out, id, System.nanoTime() - start, result.getIterations(), result.getSquaredModuli());
+                        } catch (IOException e) {
+                            close(socket);
+                        }
+                    }
+                });
+            }
+        } catch (SocketException e) {
+            // The coordinator is gone, or the connection has been closed after a failed tile: its tiles are dispatched to the other workers.
+        } catch (IOException e) {
+            System.err.println("Connection with " + socket.getRemoteSocketAddress() + " lost: " + e.getMessage());
+        } finally {
+            sockets.remove(socket);
+        }
+    }
+
+    /**
+     * Function used to close a connection whose tiles cannot be computed or answered, so that the thread reading its requests stops as well.
+     * @param socket The connection to the coordinator.
+     */
+    private static void close(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // The connection is already unusable.
+        }
+    }
+
+    /**
+     * Function used to stop accepting connections and computing tiles, closing the open connections so that their coordinators send the tiles in flight to the other workers.
+     */
+    @Override
+    public void close() {
+        close(server);
+        sockets.forEach(TileWorker::close);
+        connections.shutdownNow();
+        executor.close();
+    }
+
+    /**
+     * Function used to close the listening socket.
+     * @param server The socket accepting the connections.
+     */
+    private static void close(ServerSocket server) {
+        try {
+            server.close();
+        } catch (IOException ignored) {
+            // Nothing is accepted any more either way.
+        }
+    }
+
+    /**
+     * The main execution function of the worker mode, serving coordinators until the process is stopped.
+     * @param args The console arguments, starting with --worker and the port.
+     */
+    public static void main(String[] args) {
+        int port = -1;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        try {
+            for(int i = 0; i < args.length; i += 2) {
+                if(i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + args[i]);
+                switch(args[i]) {
+                    case "--worker" -> port = Integer.parseInt(args[i + 1]);
+                    case "--threads" -> parallelism = Integer.parseInt(args[i + 1]);
+                    default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+                }
+            }
+            if(port < 0 || port > 0xFFFF || parallelism <= 0) throw new IllegalArgumentException("Invalid port or number of threads");
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        try {
+            TileWorker worker = new TileWorker(port, parallelism).start();
+            System.out.printf("Worker listening on port %d with %d threads%n", worker.getPort(), parallelism);
+        } catch (IOException e) {
+            System.err.println("Unable to listen on port " + port + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
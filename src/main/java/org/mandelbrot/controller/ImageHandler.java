@@ -1,11 +1,13 @@
 package org.mandelbrot.controller;
 
 import org.mandelbrot.utils.Constants;
+import org.mandelbrot.utils.Utils;
 import org.mandelbrot.view.container.ImageContainer;
 import org.mandelbrot.view.rectangle.Rectangle;
 
 import javax.swing.*;
 import java.awt.event.*;
+import java.math.BigDecimal;
 
 /**
  * The controller for all user interactions in the image (key press, click, drag, ...).
@@ -111,13 +113,23 @@ public class ImageHandler extends MouseAdapter implements KeyListener {
                 break;
             case 'p':
                 image.incrementColorPalette();
-                break;
+                image.recolorImage();
+                return;
             case 'c':
                 image.incrementNbSteps();
                 break;
             case 't':
                 image.incrementNbThreads();
                 break;
+            case 'g':
+                image.toggleSolidGuessing();
+                break;
+            case 'a':
+                image.toggleAntiAliasing();
+                break;
+            case 'u':
+                image.recalibrate();
+                break;
             default:
                 return;
         }
@@ -140,13 +152,17 @@ public class ImageHandler extends MouseAdapter implements KeyListener {
             switch (e.getKeyCode()) {
                 case KeyEvent.VK_P:
                     image.decrementColorPalette();
-                    break;
+                    image.recolorImage();
+                    return;
                 case KeyEvent.VK_C:
                     image.decrementNbSteps();
                     break;
                 case KeyEvent.VK_T:
                     image.decrementNbThreads();
                     break;
+                case KeyEvent.VK_G:
+                    image.toggleExactGuessing();
+                    break;
                 default:
                     return;
             }
@@ -159,20 +175,31 @@ public class ImageHandler extends MouseAdapter implements KeyListener {
 
     /**
      * Helper function used to get the top position in the image of a certain coordinate.
+     * The position is computed in arbitrary precision, so that it is not lost at deep zooms.
      * @param y The y coordinate from which we want to retrieve the top position.
      * @return The top position in the image of the coordinate.
      */
-    private double getTopPosition(double y) {
-        return image.getTop() + y * image.getZoom();
+    private BigDecimal getTopPosition(double y) {
+        return image.getPreciseTop().add(getOffset(y), Utils.getMathContext(image.getZoom()));
     }
 
     /**
      * Helper function used to get the left position in the image of a certain coordinate.
+     * The position is computed in arbitrary precision, so that it is not lost at deep zooms.
      * @param x The x coordinate from which we want to retrieve the left position.
      * @return The left position in the image of the coordinate.
      */
-    private double getLeftPosition(double x) {
-        return image.getLeft() + x * image.getZoom();
+    private BigDecimal getLeftPosition(double x) {
+        return image.getPreciseLeft().add(getOffset(x), Utils.getMathContext(image.getZoom()));
+    }
+
+    /**
+     * Helper function used to get the distance in the complex plane corresponding to a number of pixels at the current zoom.
+     * @param pixels The number of pixels.
+     * @return The exact distance in the complex plane.
+     */
+    private BigDecimal getOffset(double pixels) {
+        return new BigDecimal(pixels).multiply(new BigDecimal(image.getZoom()));
     }
 
     /**
@@ -0,0 +1,156 @@
+package org.mandelbrot.engine;
+
+import org.mandelbrot.utils.Constants;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.mandelbrot.utils.Constants.*;
+
+/**
+ * The automatic tuning of the number of threads and of the size of the tiles of a renderer.
+ * The calibration renders a small view of the set with every combination of a parallelism and a target tile duration and keeps the fastest one. As the hyper-threads of a core and the shared caches add little to a computation bound by the arithmetic units, the smallest number of threads reaching nearly the best throughput is preferred, leaving the other cores to the rest of the machine.
+ * Once calibrated, the target tile duration keeps being adjusted from the measured load of each rendering: it is halved when the threads are unbalanced, and doubled when they are balanced and the tiles are many, within the range tried by the calibration.
+ */
+public class AutoTuner {
+    /**
+     * The share of the best throughput a smaller number of threads has to reach to be preferred.
+     */
+    private static final double THROUGHPUT_TOLERANCE = 0.95;
+
+    /**
+     * The renderer whose tiles are tuned.
+     */
+    private final Renderer renderer;
+
+    /**
+     * The executor whose parallelism is tuned.
+     */
+    private final RenderExecutor executor;
+
+    /**
+     * The Constructor function of the AutoTuner class.
+     * @param renderer The renderer whose tiles are tuned.
+     * @param executor The executor whose parallelism is tuned.
+     */
+    public AutoTuner(Renderer renderer, RenderExecutor executor) {
+        this.renderer = renderer;
+        this.executor = executor;
+    }
+
+    /**
+     * Function used to get the file in which the profile is kept, given by the {@link Constants#PROFILE_FILE_PROPERTY} system property or in the home directory of the user.
+     * @return The path of the profile file.
+     */
+    public static Path getProfileFile() {
+        String file = System.getProperty(PROFILE_FILE_PROPERTY);
+        return file != null ? Path.of(file) : Path.of(System.getProperty("user.home"), ".mandelbrot", "profile.properties");
+    }
+
+    /**
+     * Function used to render the calibration view with every candidate configuration and to find the fastest one.
+     * No other rendering should run on the executor meanwhile, and its parallelism is restored afterwards.
+     * @return The profile of the chosen configuration, not applied yet.
+     */
+    public TuningProfile calibrate() {
+        Viewport viewport = new Viewport(INITIAL_LEFT, INITIAL_TOP, 4.0 / INITIAL_ZOOM_SCALE, WIDTH / 4, HEIGHT / 4, INITIAL_NB_STEPS);
+        double pixels = (double) viewport.getWidth() * viewport.getHeight();
+        int previous = executor.getParallelism();
+        Renderer probe = new Renderer();
+        List<TuningProfile> profiles = new ArrayList<>();
+        try {
+            measure(probe, viewport);
+            for(int parallelism : getCandidates()) {
+                executor.setParallelism(parallelism);
+                for(long targetTileNanos : CALIBRATION_TILE_NANOS) {
+                    probe.setTargetTileNanos(targetTileNanos);
+                    profiles.add(new TuningProfile(parallelism, targetTileNanos, pixels * 1e9 / measure(probe, viewport)));
+                }
+            }
+        } finally {
+            executor.setParallelism(previous);
+        }
+        double best = profiles.stream().mapToDouble(TuningProfile::getPixelsPerSecond).max().orElseThrow();
+        return profiles.stream()
+                .filter(profile -> profile.getPixelsPerSecond() >= THROUGHPUT_TOLERANCE * best)
+                .min(Comparator.comparingInt(TuningProfile::getParallelism).thenComparing(Comparator.comparingDouble(TuningProfile::getPixelsPerSecond).reversed()))
+                .orElseThrow();
+    }
+
+    /**
+     * Function used to list the numbers of threads tried by the calibration: the powers of two up to the number of processors, and the number of processors itself.
+     * @return The candidate parallelisms, in increasing order.
+     */
+    private static TreeSet<Integer> getCandidates() {
+        TreeSet<Integer> candidates = new TreeSet<>();
+        for(int parallelism = 1; parallelism < MAX_NB_CORES; parallelism *= 2) candidates.add(parallelism);
+        candidates.add(MAX_NB_CORES);
+        return candidates;
+    }
+
+    /**
+     * Function used to measure the fastest of several renderings of the calibration view.
+     * @param probe The renderer, distinct from the tuned one so that the calibration neither fills its cache nor its metrics.
+     * @param viewport The calibration view.
+     * @return The duration of the fastest rendering in nanoseconds.
+     */
+    private long measure(Renderer probe, Viewport viewport) {
+        long fastest = Long.MAX_VALUE;
+        for(int run = 0; run < CALIBRATION_RUNS; run++) {
+            long start = System.nanoTime();
+            probe.render(viewport, 0, executor.getPool()).join();
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        return Math.max(fastest, 1);
+    }
+
+    /**
+     * Function used to read the profile of the current machine from the profile file.
+     * @return The saved profile, or null if the machine has not been calibrated yet.
+     * @throws IOException If the profile file cannot be read.
+     */
+    public TuningProfile load() throws IOException {
+        return TuningProfile.load(getProfileFile());
+    }
+
+    /**
+     * Function used to save a profile to the profile file, so that the next executions skip the calibration.
+     * @param profile The calibrated profile.
+     * @throws IOException If the profile file cannot be written.
+     */
+    public void save(TuningProfile profile) throws IOException {
+        profile.save(getProfileFile());
+    }
+
+    /**
+     * Function used to configure the executor and the renderer with a profile.
+     * @param profile The profile to apply.
+     */
+    public void apply(TuningProfile profile) {
+        executor.setParallelism(profile.getParallelism());
+        renderer.setTargetTileNanos(profile.getTargetTileNanos());
+    }
+
+    /**
+     * Function used to adjust the target tile duration from the measured load of a complete rendering.
+     * The renderings with too few tiles to be balanced, such as the recoloring or the capping of a previous one, are ignored.
+     * @param report The load report of the rendering.
+     */
+    public void observe(LoadReport report) {
+        int threads = report.getBusyNanos().size();
+        if(threads < 2 || report.getTileCount() < 2L * threads) return;
+        long target = renderer.getTargetTileNanos();
+        long min = CALIBRATION_TILE_NANOS[0];
+        long max = CALIBRATION_TILE_NANOS[CALIBRATION_TILE_NANOS.length - 1];
+        double imbalance = report.getImbalance();
+        if(imbalance > TUNING_IMBALANCE && target > min) {
+            renderer.setTargetTileNanos(Math.max(min, target / 2));
+        } else if(imbalance < TUNING_BALANCE && report.getTileCount() > (long) TUNING_TILES_PER_THREAD * threads && target < max) {
+            renderer.setTargetTileNanos(Math.min(max, target * 2));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.mandelbrot.engine;
+
+/**
+ * The token attached to a rendering, checked cooperatively by the tiles so that an obsolete rendering stops as soon as possible.
+ */
+public final class CancellationToken {
+    /**
+     * The token of a rendering that can never be cancelled.
+     */
+    public static final CancellationToken NONE = new CancellationToken(0);
+
+    /**
+     * The generation of the rendering the token is attached to.
+     */
+    private final long generation;
+
+    /**
+     * Whether the rendering has been cancelled.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * The Constructor function of the CancellationToken class.
+     * @param generation The generation of the rendering the token is attached to.
+     */
+    public CancellationToken(long generation) {
+        this.generation = generation;
+    }
+
+    /**
+     * Function used to get the generation of the rendering the token is attached to.
+     * @return The generation of the rendering.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Function used to know if the rendering has been cancelled.
+     * @return true if the rendering has been cancelled, false otherwise.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Function used to cancel the rendering. The tiles that are being computed stop at their next check and the remaining ones are skipped.
+     */
+    public void cancel() {
+        if(this == NONE) return;
+        cancelled = true;
+    }
+}
@@ -0,0 +1,66 @@
+package org.mandelbrot.engine;
+
+import org.mandelbrot.model.EscapeResult;
+import org.mandelbrot.model.EscapeTimeKernel;
+
+/**
+ * The computation of the pixels directly from their coordinates in double precision, used as long as the viewport is within the precision of the doubles.
+ */
+class DirectPixelComputer implements PixelComputer {
+    /**
+     * The real parts of the pixels of a row, reused by each thread.
+     */
+    private static final ThreadLocal<double[]> REALS = ThreadLocal.withInitial(() -> new double[0]);
+
+    /**
+     * The kernel used to compute the escape time of the pixels.
+     */
+    private final EscapeTimeKernel kernel;
+
+    /**
+     * The viewport the pixels belong to.
+     */
+    private final Viewport viewport;
+
+    /**
+     * The Constructor function of the DirectPixelComputer class.
+     * @param kernel The kernel used to compute the escape time of the pixels.
+     * @param viewport The viewport the pixels belong to.
+     */
+    DirectPixelComputer(EscapeTimeKernel kernel, Viewport viewport) {
+        this.kernel = kernel;
+        this.viewport = viewport;
+    }
+
+    @Override
+    public void computePixel(double x, double y, EscapeResult result) {
+        kernel.compute(viewport.getReal(x), viewport.getImaginary(y), viewport.getMaxIterations(), viewport.getPeriodicityTolerance(), result);
+    }
+
+    @Override
+    public void computeRow(int y, int[] columns, int count, int[] iterations, double[] squaredModuli, double[] reals, double[] imaginaries) {
+        double[] points = REALS.get();
+        if(points.length < count) {
+            points = new double[count];
+            REALS.set(points);
+        }
+        for(int i = 0; i < count; i++) points[i] = viewport.getReal(columns[i]);
+        kernel.computeRow(points, viewport.getImaginary(y), count, viewport.getMaxIterations(), viewport.getPeriodicityTolerance(), iterations, squaredModuli, reals, imaginaries);
+    }
+
+    @Override
+    public void computeSamples(double y, double[] columns, int count, int[] iterations, double[] squaredModuli) {
+        double[] points = REALS.get();
+        if(points.length < count) {
+            points = new double[count];
+            REALS.set(points);
+        }
+        for(int i = 0; i < count; i++) points[i] = viewport.getReal(columns[i]);
+        kernel.computeRow(points, viewport.getImaginary(y), count, viewport.getMaxIterations(), viewport.getPeriodicityTolerance(), iterations, squaredModuli);
+    }
+
+    @Override
+    public void resumePixel(int x, int y, double zr, double zi, int start, EscapeResult result) {
+        kernel.resume(viewport.getReal(x), viewport.getImaginary(y), zr, zi, start, viewport.getMaxIterations(), viewport.getPeriodicityTolerance(), result);
+    }
+}
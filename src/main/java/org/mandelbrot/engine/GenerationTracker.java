@@ -0,0 +1,47 @@
+package org.mandelbrot.engine;
+
+/**
+ * The tracker of the successive renderings of a single display. Starting a new rendering cancels all the previous ones, and only the results of the latest one are allowed to be published.
+ */
+public class GenerationTracker {
+    /**
+     * The generation of the latest rendering.
+     */
+    private long generation = 0;
+
+    /**
+     * The token of the latest rendering.
+     */
+    private CancellationToken current = CancellationToken.NONE;
+
+    /**
+     * Function used to start a new generation, cancelling the rendering of the previous one.
+     * @return The token of the new rendering.
+     */
+    public synchronized CancellationToken next() {
+        current.cancel();
+        current = new CancellationToken(++generation);
+        return current;
+    }
+
+    /**
+     * Function used to know if a token belongs to the latest rendering.
+     * @param token The token of the rendering.
+     * @return true if the token is the one of the latest rendering, false otherwise.
+     */
+    public synchronized boolean isCurrent(CancellationToken token) {
+        return token == current && !token.isCancelled();
+    }
+
+    /**
+     * Function used to publish a result of a rendering, only if the rendering is still the latest one. No new generation can start while the publication is running.
+     * @param token The token of the rendering producing the result.
+     * @param publication The action publishing the result.
+     * @return true if the result has been published, false if the rendering is obsolete.
+     */
+    public synchronized boolean publish(CancellationToken token, Runnable publication) {
+        if(!isCurrent(token)) return false;
+        publication.run();
+        return true;
+    }
+}
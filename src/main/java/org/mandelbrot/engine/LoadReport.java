@@ -0,0 +1,170 @@
+package org.mandelbrot.engine;
+
+import org.mandelbrot.utils.Constants;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The report of how the work of a rendering has been distributed among the threads that computed it.
+ */
+public final class LoadReport {
+    /**
+     * The elapsed time between the scheduling of the first tile and the completion of the last one, in nanoseconds.
+     */
+    private final long wallNanos;
+
+    /**
+     * The number of tiles that have been computed.
+     */
+    private final long tileCount;
+
+    /**
+     * The time each thread has spent computing tiles, in nanoseconds, indexed by the name of the thread.
+     */
+    private final Map<String, Long> busyNanos;
+
+    /**
+     * The processor time each thread has used computing tiles, in nanoseconds, indexed by the name of the thread.
+     */
+    private final Map<String, Long> cpuNanos;
+
+    /**
+     * The number of bytes allocated on the heap while computing the tiles.
+     */
+    private final long allocatedBytes;
+
+    /**
+     * The number of tiles by latency, the bucket i counting the tiles computed in [2^i, 2^(i+1)) microseconds, the last bucket counting all the slower ones.
+     */
+    private final long[] tileLatencies;
+
+    /**
+     * The Constructor function of the LoadReport class, without any measure of the resources used.
+     * @param wallNanos The elapsed time of the rendering, in nanoseconds.
+     * @param tileCount The number of tiles that have been computed.
+     * @param busyNanos The time each thread has spent computing tiles, in nanoseconds, indexed by the name of the thread.
+     */
+    public LoadReport(long wallNanos, long tileCount, Map<String, Long> busyNanos) {
+        this(wallNanos, tileCount, busyNanos, Map.of(), 0, new long[Constants.TILE_LATENCY_BUCKETS]);
+    }
+
+    /**
+     * The Constructor function of the LoadReport class.
+     * @param wallNanos The elapsed time of the rendering, in nanoseconds.
+     * @param tileCount The number of tiles that have been computed.
+     * @param busyNanos The time each thread has spent computing tiles, in nanoseconds, indexed by the name of the thread.
+     * @param cpuNanos The processor time each thread has used computing tiles, in nanoseconds, indexed by the name of the thread.
+     * @param allocatedBytes The number of bytes allocated on the heap while computing the tiles.
+     * @param tileLatencies The histogram of the latencies of the tiles, with {@link Constants#TILE_LATENCY_BUCKETS} power-of-two buckets of microseconds.
+     */
+    public LoadReport(long wallNanos, long tileCount, Map<String, Long> busyNanos, Map<String, Long> cpuNanos, long allocatedBytes, long[] tileLatencies) {
+        this.wallNanos = wallNanos;
+        this.tileCount = tileCount;
+        this.busyNanos = Collections.unmodifiableMap(new TreeMap<>(busyNanos));
+        this.cpuNanos = Collections.unmodifiableMap(new TreeMap<>(cpuNanos));
+        this.allocatedBytes = allocatedBytes;
+        this.tileLatencies = tileLatencies.clone();
+    }
+
+    /**
+     * Function used to get the histogram bucket of a tile latency.
+     * @param nanos The time the tile took to compute, in nanoseconds.
+     * @return The index of the bucket counting the latency.
+     */
+    public static int getLatencyBucket(long nanos) {
+        long micros = nanos / 1000;
+        return micros == 0 ? 0 : Math.min(63 - Long.numberOfLeadingZeros(micros), Constants.TILE_LATENCY_BUCKETS - 1);
+    }
+
+    /**
+     * Function used to get the elapsed time of the rendering.
+     * @return The elapsed time, in nanoseconds.
+     */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * Function used to get the number of tiles that have been computed.
+     * @return The number of computed tiles.
+     */
+    public long getTileCount() {
+        return tileCount;
+    }
+
+    /**
+     * Function used to get the time each thread has spent computing tiles.
+     * @return The busy time in nanoseconds, indexed by the name of the thread.
+     */
+    public Map<String, Long> getBusyNanos() {
+        return busyNanos;
+    }
+
+    /**
+     * Function used to get the processor time each thread has used computing tiles, which is lower than the busy time when the threads are preempted.
+     * @return The processor time in nanoseconds, indexed by the name of the thread.
+     */
+    public Map<String, Long> getCpuNanos() {
+        return cpuNanos;
+    }
+
+    /**
+     * Function used to get the number of bytes allocated on the heap while computing the tiles.
+     * @return The allocated bytes, or 0 if the virtual machine does not measure them.
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Function used to get the histogram of the latencies of the tiles.
+     * @return The number of tiles by latency, the bucket i counting the tiles computed in [2^i, 2^(i+1)) microseconds.
+     */
+    public long[] getTileLatencies() {
+        return tileLatencies.clone();
+    }
+
+    /**
+     * Function used to get the cumulated time all threads have spent computing tiles.
+     * @return The total busy time, in nanoseconds.
+     */
+    public long getTotalBusyNanos() {
+        return busyNanos.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Function used to get the ratio between the busiest thread and the average thread. A value of 1 means that the work has been perfectly balanced.
+     * @return The load imbalance of the rendering.
+     */
+    public double getImbalance() {
+        if(busyNanos.isEmpty()) return 1.0;
+        long max = busyNanos.values().stream().mapToLong(Long::longValue).max().orElse(0);
+        double mean = (double) getTotalBusyNanos() / busyNanos.size();
+        return mean == 0 ? 1.0 : max / mean;
+    }
+
+    /**
+     * Function used to merge the report of a rendering performed after this one, such as the next pass of a progressive rendering.
+     * @param next The report of the following rendering.
+     * @return The report covering both renderings.
+     */
+    public LoadReport combine(LoadReport next) {
+        Map<String, Long> merged = new TreeMap<>(busyNanos);
+        next.busyNanos.forEach((thread, nanos) -> merged.merge(thread, nanos, Long::sum));
+        Map<String, Long> mergedCpu = new TreeMap<>(cpuNanos);
+        next.cpuNanos.forEach((thread, nanos) -> mergedCpu.merge(thread, nanos, Long::sum));
+        long[] latencies = tileLatencies.clone();
+        for(int i = 0; i < latencies.length; i++) latencies[i] += next.tileLatencies[i];
+        return new LoadReport(wallNanos + next.wallNanos, tileCount + next.tileCount, merged, mergedCpu, allocatedBytes + next.allocatedBytes, latencies);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(String.format("%d tiles in %dms on %d threads (imbalance %.2f)", tileCount, TimeUnit.NANOSECONDS.toMillis(wallNanos), busyNanos.size(), getImbalance()));
+        busyNanos.forEach((thread, nanos) -> builder.append(String.format("%n  %s: %dms (cpu %dms)", thread, TimeUnit.NANOSECONDS.toMillis(nanos), TimeUnit.NANOSECONDS.toMillis(cpuNanos.getOrDefault(thread, 0L)))));
+        return builder.toString();
+    }
+}
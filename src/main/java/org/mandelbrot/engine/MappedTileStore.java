@@ -0,0 +1,199 @@
+package org.mandelbrot.engine;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The on-disk tier of the tile cache: a fixed-size file mapped in memory, in which the compressed tiles are appended as a ring, the oldest ones being overwritten once the file is full.
+ * Each record starts with its key, so that the index of the tiles is rebuilt by scanning the file when it is opened again, and the cache survives the application.
+ * The last record written is followed by a marker giving the position of the oldest record still valid, so that the records left after the write position by the previous turn of the ring are found again as well.
+ */
+final class MappedTileStore {
+    /**
+     * The value starting each record, used to detect the end of the valid records when scanning the file.
+     */
+    private static final int MAGIC = 0x4D544332;
+
+    /**
+     * The value starting the marker which follows the last record written, before the position of the oldest record still valid.
+     */
+    private static final int SKIP = 0x4D54534B;
+
+    /**
+     * The size in bytes of the marker following the last record written: the skip value and the position of the oldest record.
+     */
+    private static final int MARKER_BYTES = 4 + 4;
+
+    /**
+     * The size in bytes of the header of a record: the magic value, the length of the payload and the fields of the key.
+     */
+    private static final int HEADER_BYTES = 4 + 4 + 5 * 8 + 4 + 4;
+
+    /**
+     * The file mapped in memory.
+     */
+    private final MappedByteBuffer buffer;
+
+    /**
+     * The position and length of the payload of each stored tile.
+     */
+    private final Map<TileKey, int[]> index = new HashMap<>();
+
+    /**
+     * The key of the record starting at each position, used to forget the records overwritten by new ones.
+     */
+    private final TreeMap<Integer, TileKey> records = new TreeMap<>();
+
+    /**
+     * The position at which the next record is written.
+     */
+    private int position = 0;
+
+    /**
+     * The Constructor function of the MappedTileStore class, mapping the file and reading the records it already contains.
+     * @param file The file backing the store, created if needed.
+     * @param capacity The size of the file in bytes.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    MappedTileStore(Path file, int capacity) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+        scan();
+    }
+
+    /**
+     * Function used to rebuild the index from the records of the file: the ones written since the start of the file, then the older ones left after them by the previous turn of the ring.
+     */
+    private void scan() {
+        List<Integer> newest = new ArrayList<>();
+        position = read(0, newest);
+        List<Integer> oldest = new ArrayList<>();
+        if(position + MARKER_BYTES <= buffer.capacity() && buffer.getInt(position) == SKIP) {
+            int next = buffer.getInt(position + 4);
+            if(next >= position + MARKER_BYTES) read(next, oldest);
+        }
+        oldest.forEach(this::register);
+        newest.forEach(this::register);
+    }
+
+    /**
+     * Function used to read the positions of the consecutive valid records of the file, until the first invalid one.
+     * @param start The position of the first record.
+     * @param starts The list in which the position of each record is added, from the oldest to the newest.
+     * @return The position following the last valid record.
+     */
+    private int read(int start, List<Integer> starts) {
+        int current = start;
+        while(current + HEADER_BYTES <= buffer.capacity() && buffer.getInt(current) == MAGIC) {
+            int length = buffer.getInt(current + 4);
+            if(length <= 0 || current + HEADER_BYTES + length > buffer.capacity()) break;
+            starts.add(current);
+            current += HEADER_BYTES + length;
+        }
+        return current;
+    }
+
+    /**
+     * Function used to add a record read from the file to the index, replacing the older record of the same tile if any.
+     * @param start The position of the record.
+     */
+    private void register(int start) {
+        TileKey key = new TileKey(buffer.getLong(start + 8), buffer.getLong(start + 16), buffer.getLong(start + 24),
+                buffer.getLong(start + 32), buffer.getLong(start + 40), buffer.getInt(start + 48), buffer.getInt(start + 52));
+        forget(key);
+        index.put(key, new int[] {start + HEADER_BYTES, buffer.getInt(start + 4)});
+        records.put(start, key);
+    }
+
+    /**
+     * Function used to get the compressed content of a tile.
+     * @param key The key of the tile.
+     * @return The compressed content, or null if the tile is not stored.
+     */
+    synchronized byte[] get(TileKey key) {
+        int[] location = index.get(key);
+        if(location == null) return null;
+        byte[] data = new byte[location[1]];
+        buffer.get(location[0], data);
+        return data;
+    }
+
+    /**
+     * Function used to store the compressed content of a tile, overwriting the oldest records if needed.
+     * @param key The key of the tile.
+     * @param data The compressed content of the tile.
+     */
+    synchronized void put(TileKey key, byte[] data) {
+        int size = HEADER_BYTES + data.length;
+        if(size > buffer.capacity()) return;
+        if(position + size > buffer.capacity()) {
+            forget(position, buffer.capacity());
+            if(position + 4 <= buffer.capacity()) buffer.putInt(position, 0);
+            position = 0;
+        }
+        forget(position, position + size);
+        forget(key);
+        buffer.putInt(position, MAGIC);
+        buffer.putInt(position + 4, data.length);
+        buffer.putLong(position + 8, key.getScaleBits());
+        buffer.putLong(position + 16, key.getPhaseX());
+        buffer.putLong(position + 24, key.getPhaseY());
+        buffer.putLong(position + 32, key.getColumn());
+        buffer.putLong(position + 40, key.getRow());
+        buffer.putInt(position + 48, key.getMaxIterations());
+        buffer.putInt(position + 52, key.getFlags());
+        buffer.put(position + HEADER_BYTES, data);
+        index.put(key, new int[] {position + HEADER_BYTES, data.length});
+        records.put(position, key);
+        position += size;
+        if(position + MARKER_BYTES <= buffer.capacity()) {
+            forget(position, position + MARKER_BYTES);
+            Integer oldest = records.ceilingKey(position + MARKER_BYTES);
+            buffer.putInt(position, oldest == null ? 0 : SKIP);
+            buffer.putInt(position + 4, oldest == null ? 0 : oldest);
+        } else if(position + 4 <= buffer.capacity()) {
+            buffer.putInt(position, 0);
+        }
+    }
+
+    /**
+     * Function used to forget the records overlapping a range of the file, which is about to be overwritten.
+     * @param start The first byte of the range, included.
+     * @param end The last byte of the range, excluded.
+     */
+    private void forget(int start, int end) {
+        Map.Entry<Integer, TileKey> previous = records.lowerEntry(start);
+        if(previous != null && index.get(previous.getValue())[0] + index.get(previous.getValue())[1] > start) {
+            forget(previous.getValue());
+        }
+        while(!records.subMap(start, end).isEmpty()) {
+            forget(records.subMap(start, end).firstEntry().getValue());
+        }
+    }
+
+    /**
+     * Function used to forget the record of a tile.
+     * @param key The key of the tile.
+     */
+    private void forget(TileKey key) {
+        int[] location = index.remove(key);
+        if(location != null) records.remove(location[0] - HEADER_BYTES);
+    }
+
+    /**
+     * Function used to get the number of stored tiles.
+     * @return The number of tiles in the file.
+     */
+    synchronized int size() {
+        return index.size();
+    }
+}
@@ -0,0 +1,108 @@
+package org.mandelbrot.engine;
+
+import java.util.Arrays;
+
+/**
+ * The orbits of the pixels of a tile that have reached the maximal number of iterations without escaping nor being proven to belong to the set.
+ * Their last values are stored in compact primitive arrays, so that a rendering with a higher maximal number of iterations only continues these orbits instead of computing the whole image again.
+ */
+final class PendingOrbits {
+    /**
+     * The initial capacity of the arrays.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The tile the pixels belong to.
+     */
+    private final Tile tile;
+
+    /**
+     * The index in the image of each pixel.
+     */
+    private int[] indices = new int[INITIAL_CAPACITY];
+
+    /**
+     * The real part of the last value of the orbit of each pixel.
+     */
+    private double[] reals = new double[INITIAL_CAPACITY];
+
+    /**
+     * The imaginary part of the last value of the orbit of each pixel.
+     */
+    private double[] imaginaries = new double[INITIAL_CAPACITY];
+
+    /**
+     * The number of stored pixels.
+     */
+    private int size;
+
+    /**
+     * The Constructor function of the PendingOrbits class.
+     * @param tile The tile the pixels belong to.
+     */
+    PendingOrbits(Tile tile) {
+        this.tile = tile;
+    }
+
+    /**
+     * Function used to store the orbit of a pixel.
+     * @param index The index of the pixel in the image.
+     * @param real The real part of the last value of the orbit.
+     * @param imaginary The imaginary part of the last value of the orbit.
+     */
+    void add(int index, double real, double imaginary) {
+        if(size == indices.length) {
+            indices = Arrays.copyOf(indices, size * 2);
+            reals = Arrays.copyOf(reals, size * 2);
+            imaginaries = Arrays.copyOf(imaginaries, size * 2);
+        }
+        indices[size] = index;
+        reals[size] = real;
+        imaginaries[size] = imaginary;
+        size++;
+    }
+
+    /**
+     * Function used to get the tile the pixels belong to.
+     * @return The tile of the pixels.
+     */
+    Tile getTile() {
+        return tile;
+    }
+
+    /**
+     * Function used to get the index in the image of a stored pixel.
+     * @param i The position of the pixel in the stored ones.
+     * @return The index of the pixel in the image.
+     */
+    int getIndex(int i) {
+        return indices[i];
+    }
+
+    /**
+     * Function used to get the real part of the last value of the orbit of a stored pixel.
+     * @param i The position of the pixel in the stored ones.
+     * @return The real part of the last value.
+     */
+    double getReal(int i) {
+        return reals[i];
+    }
+
+    /**
+     * Function used to get the imaginary part of the last value of the orbit of a stored pixel.
+     * @param i The position of the pixel in the stored ones.
+     * @return The imaginary part of the last value.
+     */
+    double getImaginary(int i) {
+        return imaginaries[i];
+    }
+
+    /**
+     * Function used to get the number of stored pixels.
+     * @return The number of stored pixels.
+     */
+    int size() {
+        return size;
+    }
+}
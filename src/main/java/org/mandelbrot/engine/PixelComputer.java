@@ -0,0 +1,49 @@
+package org.mandelbrot.engine;
+
+import org.mandelbrot.model.EscapeResult;
+
+/**
+ * The computation of the escape time of the pixels of a viewport, abstracting the arithmetic used to locate them in the complex plane.
+ */
+interface PixelComputer {
+    /**
+     * Function used to compute the escape time of a single pixel, or of a sample inside a pixel.
+     * @param x The column of the pixel, with a fractional part to sample a point inside the pixel.
+     * @param y The row of the pixel, with a fractional part to sample a point inside the pixel.
+     * @param result The reusable result in which the number of iterations and the final squared modulus are stored.
+     */
+    void computePixel(double x, double y, EscapeResult result);
+
+    /**
+     * Function used to compute the escape time of several pixels of a row.
+     * @param y The row of the pixels.
+     * @param columns The columns of the pixels, from index 0 to count - 1.
+     * @param count The number of pixels we want to compute.
+     * @param iterations The array in which the number of iterations of each pixel is stored.
+     * @param squaredModuli The array in which the final squared modulus of each pixel is stored.
+     * @param reals The array in which the real part of the last value of each orbit is stored, NaN if the orbit cannot be resumed.
+     * @param imaginaries The array in which the imaginary part of the last value of each orbit is stored, NaN if the orbit cannot be resumed.
+     */
+    void computeRow(int y, int[] columns, int count, int[] iterations, double[] squaredModuli, double[] reals, double[] imaginaries);
+
+    /**
+     * Function used to compute the escape time of several samples sharing the same row, at fractional positions inside the pixels.
+     * @param y The row of the samples, with a fractional part to sample points inside the pixels.
+     * @param columns The columns of the samples, with a fractional part to sample points inside the pixels, from index 0 to count - 1.
+     * @param count The number of samples we want to compute.
+     * @param iterations The array in which the number of iterations of each sample is stored.
+     * @param squaredModuli The array in which the final squared modulus of each sample is stored.
+     */
+    void computeSamples(double y, double[] columns, int count, int[] iterations, double[] squaredModuli);
+
+    /**
+     * Function used to continue the orbit of a pixel that has reached a lower maximal number of iterations, until it escapes or reaches the maximal number of iterations of the viewport.
+     * @param x The column of the pixel.
+     * @param y The row of the pixel.
+     * @param zr The real part of the last value of the orbit.
+     * @param zi The imaginary part of the last value of the orbit.
+     * @param start The number of iterations already performed.
+     * @param result The reusable result in which the number of iterations and the final squared modulus are stored.
+     */
+    void resumePixel(int x, int y, double zr, double zi, int start, EscapeResult result);
+}
@@ -0,0 +1,132 @@
+package org.mandelbrot.engine;
+
+import org.mandelbrot.model.DoubleDouble;
+import org.mandelbrot.model.EscapeTimeKernel;
+import org.mandelbrot.utils.Constants;
+import org.mandelbrot.utils.Utils;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * The orbit of a single reference point computed in extended precision, and stored rounded to doubles for the perturbation of the neighbouring pixels.
+ */
+final class ReferenceOrbit {
+    /**
+     * The real parts of the values of the orbit, from Z0 = 0.
+     */
+    private final double[] real;
+
+    /**
+     * The imaginary parts of the values of the orbit, from Z0 = 0.
+     */
+    private final double[] imaginary;
+
+    /**
+     * The number of stored values of the orbit.
+     */
+    private final int length;
+
+    /**
+     * The Constructor function of the ReferenceOrbit class, computing the orbit until it escapes or reaches the maximal number of iterations.
+     * The orbit is iterated in double-double arithmetic when its precision is enough for the scale of the viewport, and in BigDecimal otherwise.
+     * @param cr The real part of the reference point.
+     * @param ci The imaginary part of the reference point.
+     * @param maxIterations The maximal number of iterations.
+     * @param scale The distance between two adjacent pixels around the reference point.
+     * @param token The token checked at each iteration to stop the computation of a cancelled rendering.
+     */
+    ReferenceOrbit(BigDecimal cr, BigDecimal ci, int maxIterations, double scale, CancellationToken token) {
+        int capacity = Math.max(maxIterations, 0) + 1;
+        this.real = new double[capacity];
+        this.imaginary = new double[capacity];
+        this.length = scale >= Constants.DOUBLE_DOUBLE_SCALE
+                ? iterateDoubleDouble(cr, ci, token)
+                : iterateBigDecimal(cr, ci, Utils.getMathContext(scale), token);
+    }
+
+    /**
+     * Function used to iterate the orbit in double-double arithmetic, without any allocation per iteration.
+     * @param cr The real part of the reference point.
+     * @param ci The imaginary part of the reference point.
+     * @param token The token checked at each iteration.
+     * @return The number of stored values of the orbit.
+     */
+    private int iterateDoubleDouble(BigDecimal cr, BigDecimal ci, CancellationToken token) {
+        DoubleDouble pr = new DoubleDouble(cr);
+        DoubleDouble pi = new DoubleDouble(ci);
+        DoubleDouble zr = new DoubleDouble();
+        DoubleDouble zi = new DoubleDouble();
+        DoubleDouble zr2 = new DoubleDouble();
+        DoubleDouble zi2 = new DoubleDouble();
+        int n = 1;
+        while(n < real.length && !token.isCancelled()) {
+            zr2.set(zr).square();
+            zi2.set(zi).square();
+            zi.multiply(zr).twice().add(pi);
+            zr.set(zr2).subtract(zi2).add(pr);
+            if(store(n++, zr.doubleValue(), zi.doubleValue())) break;
+        }
+        return n;
+    }
+
+    /**
+     * Function used to iterate the orbit in BigDecimal arithmetic, for the scales beyond the precision of the double-double numbers.
+     * @param cr The real part of the reference point.
+     * @param ci The imaginary part of the reference point.
+     * @param context The precision of the computation.
+     * @param token The token checked at each iteration.
+     * @return The number of stored values of the orbit.
+     */
+    private int iterateBigDecimal(BigDecimal cr, BigDecimal ci, MathContext context, CancellationToken token) {
+        BigDecimal two = BigDecimal.valueOf(2);
+        BigDecimal zr = BigDecimal.ZERO;
+        BigDecimal zi = BigDecimal.ZERO;
+        int n = 1;
+        while(n < real.length && !token.isCancelled()) {
+            BigDecimal zr2 = zr.multiply(zr, context);
+            BigDecimal zi2 = zi.multiply(zi, context);
+            zi = two.multiply(zr).multiply(zi, context).add(ci, context);
+            zr = zr2.subtract(zi2, context).add(cr, context);
+            if(store(n++, zr.doubleValue(), zi.doubleValue())) break;
+        }
+        return n;
+    }
+
+    /**
+     * Function used to store a value of the orbit rounded to doubles.
+     * @param n The index of the value.
+     * @param zr The real part of the value.
+     * @param zi The imaginary part of the value.
+     * @return true if the value has escaped, false otherwise.
+     */
+    private boolean store(int n, double zr, double zi) {
+        real[n] = zr;
+        imaginary[n] = zi;
+        return zr * zr + zi * zi >= EscapeTimeKernel.ESCAPE_RADIUS_SQUARED;
+    }
+
+    /**
+     * Function used to get the real parts of the values of the orbit.
+     * @return The real parts, valid up to the length of the orbit.
+     */
+    double[] getReal() {
+        return real;
+    }
+
+    /**
+     * Function used to get the imaginary parts of the values of the orbit.
+     * @return The imaginary parts, valid up to the length of the orbit.
+     */
+    double[] getImaginary() {
+        return imaginary;
+    }
+
+    /**
+     * Function used to get the number of stored values of the orbit.
+     * @return The length of the orbit, Z0 included.
+     */
+    int getLength() {
+        return length;
+    }
+}
@@ -0,0 +1,103 @@
+package org.mandelbrot.engine;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The single owner of the threads of the application. The tiles are computed on a {@link ForkJoinPool} whose parallelism is changed in place, so that a new number of threads takes effect immediately without a second pool competing for the cores while the first one drains.
+ * The stages waiting on input and output, such as the encoding of the frames and the disk tier of the tile cache, run on a separate executor, on virtual threads when requested, so that they never take a computing thread.
+ */
+public class RenderExecutor implements AutoCloseable {
+    /**
+     * The pool computing the tiles.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The executor of the input and output stages.
+     */
+    private final ExecutorService ioExecutor;
+
+    /**
+     * The Constructor function of the RenderExecutor class.
+     * @param parallelism The number of threads computing the tiles.
+     * @param virtualThreads Whether the input and output stages run on virtual threads instead of a cached pool of platform threads.
+     */
+    public RenderExecutor(int parallelism, boolean virtualThreads) {
+        if(parallelism <= 0) {
+            throw new IllegalArgumentException("Invalid number of threads: " + parallelism);
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.ioExecutor = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("mandelbrot-io-", 0).factory())
+                : Executors.newCachedThreadPool(Thread.ofPlatform().name("mandelbrot-io-", 0).daemon(true).factory());
+    }
+
+    /**
+     * Function used to get the pool computing the tiles, to be handed to the renderer.
+     * @return The computing pool.
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Function used to get the executor of the input and output stages.
+     * @return The input and output executor.
+     */
+    public ExecutorService getIoExecutor() {
+        return ioExecutor;
+    }
+
+    /**
+     * Function used to get the number of threads computing the tiles.
+     * @return The parallelism of the computing pool.
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Function used to change the number of threads computing the tiles, without replacing the pool.
+     * The tiles already running complete on their thread; beyond the new parallelism, the idle threads are retired instead of taking new tiles.
+     * @param parallelism The new number of threads computing the tiles.
+     */
+    public void setParallelism(int parallelism) {
+        if(parallelism <= 0) {
+            throw new IllegalArgumentException("Invalid number of threads: " + parallelism);
+        }
+        pool.setParallelism(parallelism);
+    }
+
+    /**
+     * Function used to stop accepting new work and to wait for the submitted work to drain, cancelling whatever is still running after the timeout.
+     * The renderings in progress should be cancelled through their token beforehand, so that their tiles stop early.
+     * @param timeout The longest time to wait for the work to drain.
+     * @param unit The unit of the timeout.
+     * @return true if all the work has drained, false if some of it had to be interrupted.
+     * @throws InterruptedException If the current thread is interrupted while waiting.
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        pool.shutdown();
+        ioExecutor.shutdown();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean drained = pool.awaitTermination(timeout, unit)
+                && ioExecutor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        if(!drained) {
+            pool.shutdownNow();
+            ioExecutor.shutdownNow();
+        }
+        return drained;
+    }
+
+    /**
+     * Function used to stop accepting new work and to wait until all the submitted work has completed.
+     */
+    @Override
+    public void close() {
+        pool.close();
+        ioExecutor.close();
+    }
+}
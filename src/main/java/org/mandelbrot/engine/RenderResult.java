@@ -0,0 +1,295 @@
+package org.mandelbrot.engine;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The output of a rendering: the number of iterations and the final squared modulus computed for each pixel, and the associated colored raster.
+ * The iteration buffers, and the samples of the pixels refined by the anti-aliasing, are kept so that the raster can be colored again without iterating the pixels (see {@link #recolor(int)}), and the orbits of the pixels that reached the maximal number of iterations are kept so that a deeper rendering can resume them.
+ * All the buffers are stored row by row, the pixel (x, y) being located at the index y * width + x.
+ */
+public final class RenderResult {
+    /**
+     * The viewport that has been rendered.
+     */
+    private final Viewport viewport;
+
+    /**
+     * The number of iterations performed for each pixel.
+     */
+    private final int[] iterations;
+
+    /**
+     * The squared modulus of the last computed value of the orbit of each pixel, rounded up to a float.
+     */
+    private final float[] squaredModuli;
+
+    /**
+     * The ARGB color of each pixel.
+     */
+    private final int[] raster;
+
+    /**
+     * The orbits of the pixels that have reached the maximal number of iterations without escaping nor being proven to belong to the set, grouped by tile.
+     */
+    private final Queue<PendingOrbits> pendingOrbits = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The pixels refined by the adaptive anti-aliasing, grouped by tile.
+     */
+    private final Queue<SupersampledPixels> supersampledPixels = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Whether the orbits of all the pixels that reached the maximal number of iterations have been kept.
+     */
+    private volatile boolean resumable;
+
+    /**
+     * Whether each pixel has been copied from a previous rendering before the computation started, or null if no pixel has.
+     */
+    private boolean[] seeded;
+
+    /**
+     * The deepest rendering of the same area this result has been derived from, holding the iterations beyond the maximal number of iterations of this one.
+     */
+    private final RenderResult depthSource;
+
+    /**
+     * The report of how the work has been distributed among the threads, available once the rendering is complete.
+     */
+    private volatile LoadReport loadReport;
+
+    /**
+     * The Constructor function of the RenderResult class, allocating empty buffers for the viewport.
+     * @param viewport The viewport that will be rendered.
+     */
+    public RenderResult(Viewport viewport) {
+        this(viewport, null);
+    }
+
+    /**
+     * The Constructor function of the RenderResult class, allocating empty buffers for a viewport derived from a deeper rendering of the same area.
+     * @param viewport The viewport that will be rendered.
+     * @param depthSource The deeper rendering the result is derived from, or null if the result is computed.
+     */
+    RenderResult(Viewport viewport, RenderResult depthSource) {
+        this.viewport = viewport;
+        this.depthSource = depthSource == null ? this : depthSource;
+        int size = viewport.getWidth() * viewport.getHeight();
+        this.iterations = new int[size];
+        this.squaredModuli = new float[size];
+        this.raster = new int[size];
+    }
+
+    /**
+     * Function used to get the viewport that has been rendered.
+     * @return The rendered viewport.
+     */
+    public Viewport getViewport() {
+        return viewport;
+    }
+
+    /**
+     * Function used to get the number of iterations performed for each pixel.
+     * @return The iteration buffer of the image.
+     */
+    public int[] getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Function used to get the squared modulus of the last computed value of the orbit of each pixel.
+     * @return The squared modulus buffer of the image.
+     */
+    public float[] getSquaredModuli() {
+        return squaredModuli;
+    }
+
+    /**
+     * Function used to get the ARGB color of each pixel.
+     * @return The colored raster of the image.
+     */
+    public int[] getRaster() {
+        return raster;
+    }
+
+    /**
+     * Function used to store the outcome of the computation of a pixel and its color.
+     * The squared modulus is rounded up to a float, which preserves its comparison with the escape radius.
+     * @param index The index of the pixel in the image.
+     * @param iterations The number of iterations performed for the pixel.
+     * @param squaredModulus The squared modulus of the last computed value of the orbit.
+     * @param activePalette The color palette used to color the pixel.
+     * @return The ARGB color of the pixel.
+     */
+    int store(int index, int iterations, double squaredModulus, int activePalette) {
+        float rounded = (float) squaredModulus;
+        if(rounded < squaredModulus) rounded = Math.nextUp(rounded);
+        this.iterations[index] = iterations;
+        this.squaredModuli[index] = rounded;
+        return raster[index] = Renderer.toArgb(iterations, rounded, activePalette);
+    }
+
+    /**
+     * Function used to store the outcome of a tile computed apart from this rendering, such as by another process, and to color its pixels.
+     * @param tile The tile of the image.
+     * @param iterations The numbers of iterations of the pixels of the tile, row by row.
+     * @param squaredModuli The squared moduli of the last computed values of the orbits of the pixels of the tile, row by row.
+     * @param activePalette The color palette used to color the pixels.
+     */
+    public void storeTile(Tile tile, int[] iterations, float[] squaredModuli, int activePalette) {
+        int width = viewport.getWidth();
+        for(int row = 0; row < tile.getHeight(); row++) {
+            for(int column = 0; column < tile.getWidth(); column++) {
+                int source = row * tile.getWidth() + column;
+                store((tile.getY() + row) * width + tile.getX() + column, iterations[source], squaredModuli[source], activePalette);
+            }
+        }
+    }
+
+    /**
+     * Function used to copy the outcome of a pixel onto another one.
+     * @param index The index of the pixel we want to set.
+     * @param source The index of the pixel we want to copy.
+     */
+    void copyPixel(int index, int source) {
+        iterations[index] = iterations[source];
+        squaredModuli[index] = squaredModuli[source];
+        raster[index] = raster[source];
+    }
+
+    /**
+     * Function used to mark a pixel as copied from a previous rendering, so that it is not computed again. It must be called before the computation starts.
+     * @param index The index of the pixel in the image.
+     */
+    void markSeeded(int index) {
+        if(seeded == null) seeded = new boolean[raster.length];
+        seeded[index] = true;
+    }
+
+    /**
+     * Function used to know if a pixel has been copied from a previous rendering.
+     * @param index The index of the pixel in the image.
+     * @return true if the pixel is already known, false if it must be computed.
+     */
+    boolean isSeeded(int index) {
+        return seeded != null && seeded[index];
+    }
+
+    /**
+     * Function used to know if some pixels have been copied from a previous rendering.
+     * @return true if some pixels are already known, false otherwise.
+     */
+    boolean hasSeeds() {
+        return seeded != null;
+    }
+
+    /**
+     * Function used to color again the whole raster from the stored iterations, without iterating any pixel.
+     * It must only be called on a complete rendering, the pixels left to a finer pass not being stored yet.
+     * @param activePalette The color palette used to color the raster.
+     */
+    public void recolor(int activePalette) {
+        for(int i = 0; i < raster.length; i++) {
+            raster[i] = Renderer.toArgb(iterations[i], squaredModuli[i], activePalette);
+        }
+        for(SupersampledPixels pixels : supersampledPixels) {
+            for(int i = 0; i < pixels.size(); i++) {
+                raster[pixels.getIndex(i)] = pixels.getColor(i, activePalette);
+            }
+        }
+    }
+
+    /**
+     * Function used to copy the colors of the whole image into a raster of the same size, such as the data buffer of an image.
+     * @param destination The raster in which the colors are copied.
+     */
+    public void copyRaster(int[] destination) {
+        System.arraycopy(raster, 0, destination, 0, raster.length);
+    }
+
+    /**
+     * Function used to copy the colors of a tile into a raster of the same width, such as the data buffer of an image.
+     * @param tile The tile we want to copy.
+     * @param destination The raster in which the colors are copied.
+     */
+    public void copyTile(Tile tile, int[] destination) {
+        int width = viewport.getWidth();
+        for(int y = tile.getY(); y < tile.getY() + tile.getHeight(); y++) {
+            int offset = y * width + tile.getX();
+            System.arraycopy(raster, offset, destination, offset, tile.getWidth());
+        }
+    }
+
+    /**
+     * Function used to keep the orbits of the pixels of a tile that can be resumed.
+     * @param orbits The orbits of the pixels of the tile.
+     */
+    void addPendingOrbits(PendingOrbits orbits) {
+        pendingOrbits.add(orbits);
+    }
+
+    /**
+     * Function used to get the orbits of the pixels that can be resumed.
+     * @return The orbits of the pixels, grouped by tile.
+     */
+    Queue<PendingOrbits> getPendingOrbits() {
+        return pendingOrbits;
+    }
+
+    /**
+     * Function used to keep the samples of the pixels of a tile refined by the anti-aliasing.
+     * @param pixels The refined pixels of the tile.
+     */
+    void addSupersampledPixels(SupersampledPixels pixels) {
+        supersampledPixels.add(pixels);
+    }
+
+    /**
+     * Function used to get the number of pixels refined by the adaptive anti-aliasing.
+     * @return The number of supersampled pixels.
+     */
+    public int getRefinedPixels() {
+        return supersampledPixels.stream().mapToInt(SupersampledPixels::size).sum();
+    }
+
+    /**
+     * Function used to know if a deeper rendering can resume the orbits of this one instead of computing the whole image again.
+     * @return true if the orbits of all the pixels that reached the maximal number of iterations have been kept, false otherwise.
+     */
+    public boolean isResumable() {
+        return resumable;
+    }
+
+    /**
+     * Function used to mark whether the orbits of all the pixels that reached the maximal number of iterations have been kept.
+     * @param resumable true if the result can be resumed, false otherwise.
+     */
+    void setResumable(boolean resumable) {
+        this.resumable = resumable;
+    }
+
+    /**
+     * Function used to get the deepest rendering of the same area this result has been derived from.
+     * @return The deeper rendering, or this result if it has been computed.
+     */
+    RenderResult getDepthSource() {
+        return depthSource;
+    }
+
+    /**
+     * Function used to get the report of how the work has been distributed among the threads.
+     * @return The load report of the rendering, or null if the rendering is not complete.
+     */
+    public LoadReport getLoadReport() {
+        return loadReport;
+    }
+
+    /**
+     * Function used to attach the load report to the result once the rendering is complete.
+     * @param loadReport The load report of the rendering.
+     */
+    public void setLoadReport(LoadReport loadReport) {
+        this.loadReport = loadReport;
+    }
+}
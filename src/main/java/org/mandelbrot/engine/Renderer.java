@@ -0,0 +1,887 @@
+package org.mandelbrot.engine;
+
+import org.mandelbrot.metrics.FrameEvent;
+import org.mandelbrot.metrics.FrameMetrics;
+import org.mandelbrot.metrics.RenderMetrics;
+import org.mandelbrot.model.EscapeResult;
+import org.mandelbrot.model.EscapeTimeKernel;
+import org.mandelbrot.utils.Constants;
+import org.mandelbrot.utils.Utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * The headless rendering engine of the mandelbrot set. It splits a viewport into tiles and computes them on a caller-supplied executor, without depending on any graphical component.
+ * On a {@link ForkJoinPool}, the tiles are recursively split according to their measured cost, otherwise the viewport is split into fixed-size tiles.
+ * In progressive mode, the image is computed in successive passes of increasing resolution: the first one computes one pixel out of {@link Constants#COARSEST_STRIDE} in each direction, and each following pass only computes the pixels missing from the previous ones. Each sample fills the block of pixels it stands for until a finer pass replaces them.
+ * In solid guessing mode, which takes precedence over the progressive one, the uniform regions of each tile are filled from their border without being iterated (see {@link SolidGuessingTile}).
+ * The iterations of each pixel are kept in the result, so that a complete rendering can be colored again with another palette without being computed (see {@link RenderResult#recolor(int)}).
+ * A translation by a whole number of pixels only computes the exposed strips, and a zoom by a power of two only computes the pixels not shared with the previous rendering. The orbits of the pixels reaching the maximal number of iterations are kept as well, so that raising it only resumes them (see {@link #render(Viewport, int, Executor, TileListener, CancellationToken, RenderResult)}).
+ * Once the viewport is beyond the precision of the doubles, the pixels are computed by perturbation of a single reference orbit computed in arbitrary precision (see {@link PerturbationPixelComputer}).
+ * In anti-aliasing mode, once the image is complete, the pixels on the edges are supersampled (see {@link SupersamplingTile}), the uniform regions keeping a single sample per pixel.
+ * When a {@link TileCache} is set, the complete renderings are stored in it and the pixels already cached are copied into the new renderings instead of being computed.
+ * Each rendering requested through a public function is measured from its request to its completion and recorded in the {@link RenderMetrics} of the renderer, along with a Flight Recorder event.
+ */
+public class Renderer {
+    /**
+     * The opaque alpha channel added to the palette colors to build ARGB values.
+     */
+    private static final int OPAQUE = 0xFF000000;
+
+    /**
+     * The largest power of two between the scales of two renderings for the pixels of one to be reused in the other.
+     */
+    private static final int MAX_ZOOM_EXPONENT = 8;
+
+    /**
+     * The kernel used to compute the escape time of the pixels.
+     */
+    private final EscapeTimeKernel kernel;
+
+    /**
+     * The size in pixels of the side of the tiles the viewport is split into.
+     */
+    private final int tileSize;
+
+    /**
+     * The scheduler distributing the tiles on the threads of the executor.
+     */
+    private final TileScheduler scheduler;
+
+    /**
+     * Whether the image is computed in successive passes of increasing resolution.
+     */
+    private boolean progressive = false;
+
+    /**
+     * Whether the tiles are computed by solid guessing instead of computing every pixel.
+     */
+    private boolean solidGuessing = false;
+
+    /**
+     * Whether the solid guessing only fills the regions proven to be inside the set, instead of every region bordered by a single number of iterations.
+     */
+    private boolean exactGuessing = true;
+
+    /**
+     * Whether the pixels on the edges are supersampled once the image is complete.
+     */
+    private boolean antiAliasing = false;
+
+    /**
+     * The cache in which the complete renderings are stored and from which the new ones are seeded, or null if the tiles are not cached.
+     */
+    private volatile TileCache tileCache = null;
+
+    /**
+     * The registry in which the metrics of the complete and cancelled renderings are recorded.
+     */
+    private volatile RenderMetrics metrics = new RenderMetrics();
+
+    /**
+     * The executor on which the complete renderings are stored in the tile cache, or null to store them on the executor of the rendering.
+     */
+    private volatile Executor ioExecutor = null;
+
+    /**
+     * The Constructor function of the Renderer class, using the default tile size.
+     */
+    public Renderer() {
+        this(Constants.TILE_SIZE);
+    }
+
+    /**
+     * The Constructor function of the Renderer class.
+     * @param tileSize The size in pixels of the side of the tiles the viewport is split into.
+     */
+    public Renderer(int tileSize) {
+        if(tileSize <= 0) {
+            throw new IllegalArgumentException("Invalid tile size: " + tileSize);
+        }
+        this.kernel = EscapeTimeKernel.create();
+        this.tileSize = tileSize;
+        this.scheduler = new TileScheduler();
+    }
+
+    /**
+     * Function used to render a viewport asynchronously.
+     * @param viewport The viewport we want to render.
+     * @param activePalette The color palette used to color the raster.
+     * @param executor The executor on which the tiles are computed.
+     * @return A future completed with the result once all the tiles have been computed.
+     */
+    public CompletableFuture<RenderResult> render(Viewport viewport, int activePalette, Executor executor) {
+        return render(viewport, activePalette, executor, (tile, result) -> {});
+    }
+
+    /**
+     * Function used to render a viewport asynchronously, notifying a listener each time a tile is complete.
+     * @param viewport The viewport we want to render.
+     * @param activePalette The color palette used to color the raster.
+     * @param executor The executor on which the tiles are computed.
+     * @param listener The listener notified each time a tile has been computed.
+     * @return A future completed with the result once all the tiles have been computed.
+     */
+    public CompletableFuture<RenderResult> render(Viewport viewport, int activePalette, Executor executor, TileListener listener) {
+        return render(viewport, activePalette, executor, listener, CancellationToken.NONE);
+    }
+
+    /**
+     * Function used to render a cancellable viewport asynchronously, notifying a listener each time a tile is complete.
+     * Once the token is cancelled, the remaining tiles are skipped, the listener is no longer notified and the future completes with a {@link CancellationException}.
+     * @param viewport The viewport we want to render.
+     * @param activePalette The color palette used to color the raster.
+     * @param executor The executor on which the tiles are computed.
+     * @param listener The listener notified each time a tile has been computed.
+     * @param token The token checked by the tiles to stop the rendering.
+     * @return A future completed with the result once all the tiles have been computed.
+     */
+    public CompletableFuture<RenderResult> render(Viewport viewport, int activePalette, Executor executor, TileListener listener, CancellationToken token) {
+        return measure(viewport, () -> renderFresh(viewport, activePalette, executor, listener, token));
+    }
+
+    /**
+     * Function used to render a cancellable viewport from scratch, the pixels already cached excepted.
+     * @param viewport The viewport we want to render.
+     * @param activePalette The color palette used to color the raster.
+     * @param executor The executor on which the tiles are computed.
+     * @param listener The listener notified each time a tile has been computed.
+     * @param token The token checked by the tiles to stop the rendering.
+     * @return A future completed with the result once all the tiles have been computed.
+     */
+    private CompletableFuture<RenderResult> renderFresh(Viewport viewport, int activePalette, Executor executor, TileListener listener, CancellationToken token) {
+        RenderResult result = new RenderResult(viewport);
+        Tile full = new Tile(0, 0, viewport.getWidth(), viewport.getHeight());
+        TileCache cache = tileCache;
+        if(cache == null) {
+            return renderRegions(result, List.of(full), activePalette, executor, listener, token, true);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            if(cache.seed(result, activePalette, TileKey.flags(kernel)) > 0 && !token.isCancelled()) listener.tileCompleted(full, result);
+            return result;
+        }, executor).thenCompose(seeded -> renderRegions(seeded, List.of(full), activePalette, executor, listener, token, !seeded.hasSeeds()));
+    }
+
+    /**
+     * Function used to render a cancellable viewport asynchronously, reusing a previous complete rendering when possible.
+     * When the previous rendering covers the same area with another maximal number of iterations, a lower maximal number of iterations is obtained by capping the previous iterations without computing anything, and a higher one only resumes the orbits of the pixels that had reached the previous maximal number of iterations.
+     * When the viewport is the previous one translated by a whole number of pixels, the overlapping pixels are copied and only the exposed strips are computed.
+     * When the viewport is the previous one zoomed by a power of two with aligned pixels, the pixels shared by both are copied and only the other ones are computed. Otherwise, the viewport is rendered from scratch.
+     * @param viewport The viewport we want to render.
+     * @param activePalette The color palette used to color the raster.
+     * @param executor The executor on which the tiles are computed.
+     * @param listener The listener notified each time a tile has been computed.
+     * @param token The token checked by the tiles to stop the rendering.
+     * @param previous The previous complete rendering, or null if there is none.
+     * @return A future completed with the result once all the tiles have been computed.
+     */
+    public CompletableFuture<RenderResult> render(Viewport viewport, int activePalette, Executor executor, TileListener listener, CancellationToken token, RenderResult previous) {
+        return measure(viewport, () -> renderFrom(viewport, activePalette, executor, listener, token, previous));
+    }
+
+    /**
+     * Function used to render a cancellable viewport, reusing a previous complete rendering when possible.
+     * @param viewport The viewport we want to render.
+     * @param activePalette The color palette used to color the raster.
+     * @param executor The executor on which the tiles are computed.
+     * @param listener The listener notified each time a tile has been computed.
+     * @param token The token checked by the tiles to stop the rendering.
+     * @param previous The previous complete rendering, or null if there is none.
+     * @return A future completed with the result once all the tiles have been computed.
+     */
+    private CompletableFuture<RenderResult> renderFrom(Viewport viewport, int activePalette, Executor executor, TileListener listener, CancellationToken token, RenderResult previous) {
+        if(previous != null && previous.getViewport().hasSameArea(viewport)) {
+            RenderResult source = previous.getDepthSource();
+            if(viewport.getMaxIterations() <= source.getViewport().getMaxIterations()) {
+                CompletableFuture<RenderResult> capped = CompletableFuture.supplyAsync(() -> cap(source, viewport, activePalette, listener, token), executor);
+                if(!antiAliasing) return capped;
+                return capped.thenCompose(result -> createComputer(viewport, executor, token)
+                        .thenCompose(computer -> antiAlias(result, computer, activePalette, executor, listener, token))
+                        .thenApply(report -> result));
+            }
+            if(source.isResumable()) {
+                return deepen(source, viewport, activePalette, executor, listener, token);
+            }
+        }
+        if(previous != null && isTranslation(previous.getViewport(), viewport)) {
+            return shift(previous, viewport, activePalette, executor, listener, token);
+        }
+        if(previous != null && isAlignedZoom(previous.getViewport(), viewport)) {
+            return zoom(previous, viewport, activePalette, executor, listener, token);
+        }
+        return renderFresh(viewport, activePalette, executor, listener, token);
+    }
+
+    /**
+     * Function used to measure a rendering from its request to its completion, and to record its metrics once it is complete or cancelled.
+     * @param viewport The viewport we want to render.
+     * @param rendering The function starting the rendering.
+     * @return A future completed with the result once its metrics have been recorded.
+     */
+    private CompletableFuture<RenderResult> measure(Viewport viewport, Supplier<CompletableFuture<RenderResult>> rendering) {
+        RenderMetrics registry = metrics;
+        FrameEvent event = new FrameEvent(viewport.getWidth(), viewport.getHeight(), viewport.getMaxIterations());
+        long start = System.nanoTime();
+        event.begin();
+        return rendering.get().whenComplete((result, error) -> {
+            if(result != null) {
+                registry.record(measure(result, System.nanoTime() - start), event);
+            } else if(error instanceof CancellationException || error.getCause() instanceof CancellationException) {
+                registry.recordCancelled(event);
+            }
+        });
+    }
+
+    /**
+     * Function used to compute the metrics of a complete rendering.
+     * The total number of iterations is the sum of the iterations of the pixels, including those copied from a previous rendering or from the cache, so that the throughput compares renderings of the same image.
+     * @param result The complete result of the rendering.
+     * @param wallNanos The elapsed time between the request of the rendering and its completion, in nanoseconds.
+     * @return The metrics of the rendering.
+     */
+    private static FrameMetrics measure(RenderResult result, long wallNanos) {
+        Viewport viewport = result.getViewport();
+        int maxIterations = viewport.getMaxIterations();
+        long[] iterationHistogram = new long[Constants.ITERATION_BUCKETS];
+        long totalIterations = 0;
+        long maxedPixels = 0;
+        for(int iterations : result.getIterations()) {
+            totalIterations += iterations;
+            if(iterations >= maxIterations) maxedPixels++;
+            iterationHistogram[FrameMetrics.getIterationBucket(iterations)]++;
+        }
+        LoadReport report = result.getLoadReport();
+        return new FrameMetrics(viewport.getWidth(), viewport.getHeight(), maxIterations, wallNanos, report.getCpuNanos(), totalIterations,
+                maxedPixels, report.getTileCount(), report.getTileLatencies(), iterationHistogram, report.getAllocatedBytes(), result.getRefinedPixels());
+    }
+
+    /**
+     * Function used to know if a viewport is another one zoomed in or out by a power of two, with borders falling on whole pixels so that the pixels of the coarser one coincide with pixels of the finer one.
+     * @param previous The viewport of the previous rendering.
+     * @param viewport The viewport we want to render.
+     * @return true if some pixels of the previous viewport can be copied into the new one, false otherwise.
+     */
+    private static boolean isAlignedZoom(Viewport previous, Viewport viewport) {
+        if(previous.getWidth() != viewport.getWidth() || previous.getHeight() != viewport.getHeight() || previous.getMaxIterations() != viewport.getMaxIterations()) {
+            return false;
+        }
+        double ratio = previous.getScale() / viewport.getScale();
+        int exponent = Math.getExponent(ratio);
+        if(exponent == 0 || Math.abs(exponent) > MAX_ZOOM_EXPONENT || ratio != Math.scalb(1.0, exponent)) {
+            return false;
+        }
+        return viewport.getColumnOffset(previous).isPresent() && viewport.getRowOffset(previous).isPresent();
+    }
+
+    /**
+     * Function used to render a viewport zoomed by a power of two from a previous rendering, by copying the pixels shared by both and computing the other ones.
+     * When zooming in, the pixels left to compute first show the previous pixel they fall into, as a preview of the new image.
+     * @param previous The previous complete rendering.
+     * @param viewport The viewport we want to render.
+     * @param activePalette The color palette used to color the raster.
+     * @param executor The executor on which the tiles are computed.
+     * @param listener The listener notified once the shared pixels have been copied, then each time a tile has been computed.
+     * @param token The token checked by the tiles to stop the rendering.
+     * @return A future completed with the result once the missing pixels have been computed.
+     */
+    private CompletableFuture<RenderResult> zoom(RenderResult previous, Viewport viewport, int activePalette, Executor executor, TileListener listener, CancellationToken token) {
+        RenderResult result = new RenderResult(viewport);
+        int width = viewport.getWidth();
+        int height = viewport.getHeight();
+        int dx = viewport.getColumnOffset(previous.getViewport()).getAsInt();
+        int dy = viewport.getRowOffset(previous.getViewport()).getAsInt();
+        double ratio = viewport.getScale() / previous.getViewport().getScale();
+        return CompletableFuture.supplyAsync(() -> {
+            int[] sourceColumns = new int[width];
+            boolean[] alignedColumns = new boolean[width];
+            for(int x = 0; x < width; x++) {
+                double source = (x + dx) * ratio;
+                sourceColumns[x] = source >= 0 && source < width ? (int) source : -1;
+                alignedColumns[x] = source == sourceColumns[x];
+            }
+            int[] iterations = previous.getIterations();
+            float[] squaredModuli = previous.getSquaredModuli();
+            int[] raster = result.getRaster();
+            for(int y = 0; y < height; y++) {
+                double sourceRow = (y + dy) * ratio;
+                if(sourceRow < 0 || sourceRow >= height) continue;
+                boolean alignedRow = sourceRow == (int) sourceRow;
+                for(int x = 0; x < width; x++) {
+                    if(sourceColumns[x] < 0) continue;
+                    int index = y * width + x;
+                    int source = (int) sourceRow * width + sourceColumns[x];
+                    if(alignedRow && alignedColumns[x]) {
+                        result.store(index, iterations[source], squaredModuli[source], activePalette);
+                        result.markSeeded(index);
+                    } else {
+                        raster[index] = toArgb(iterations[source], squaredModuli[source], activePalette);
+                    }
+                }
+            }
+            for(PendingOrbits orbits : previous.getPendingOrbits()) {
+                PendingOrbits moved = scaleOrbits(orbits, ratio, dx, dy, width, height);
+                if(moved.size() > 0) result.addPendingOrbits(moved);
+            }
+            if(!token.isCancelled()) listener.tileCompleted(new Tile(0, 0, width, height), result);
+            return result;
+        }, executor).thenCompose(seeded -> renderRegions(seeded, List.of(new Tile(0, 0, width, height)), activePalette, executor, listener, token, previous.isResumable()));
+    }
+
+    /**
+     * Function used to move the orbits of a tile of a previous rendering into a zoomed one, dropping the pixels that do not coincide with a pixel of the new rendering.
+     * @param orbits The orbits of the tile in the previous rendering.
+     * @param ratio The size of the pixels of the new rendering in pixels of the previous one.
+     * @param dx The offset in columns of the new rendering, in its own pixels.
+     * @param dy The offset in rows of the new rendering, in its own pixels.
+     * @param width The width of both renderings.
+     * @param height The height of both renderings.
+     * @return The orbits of the still visible pixels, indexed in the new rendering.
+     */
+    private static PendingOrbits scaleOrbits(PendingOrbits orbits, double ratio, int dx, int dy, int width, int height) {
+        Tile tile = orbits.getTile();
+        int left = Math.max((int) Math.ceil(tile.getX() / ratio) - dx, 0);
+        int top = Math.max((int) Math.ceil(tile.getY() / ratio) - dy, 0);
+        int right = Math.min((int) Math.ceil((tile.getX() + tile.getWidth()) / ratio) - dx, width);
+        int bottom = Math.min((int) Math.ceil((tile.getY() + tile.getHeight()) / ratio) - dy, height);
+        PendingOrbits moved = new PendingOrbits(new Tile(left, top, Math.max(right - left, 0), Math.max(bottom - top, 0)));
+        for(int i = 0; i < orbits.size(); i++) {
+            double x = (orbits.getIndex(i) % width) / ratio - dx;
+            double y = (orbits.getIndex(i) / width) / ratio - dy;
+            if(x == (int) x && y == (int) y && x >= 0 && x < width && y >= 0 && y < height) {
+                moved.add((int) y * width + (int) x, orbits.getReal(i), orbits.getImaginary(i));
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Function used to know if a viewport is another one translated by a whole number of pixels, with enough pixels in common to be worth reusing.
+     * @param previous The viewport of the previous rendering.
+     * @param viewport The viewport we want to render.
+     * @return true if the pixels of the previous viewport can be copied into the new one, false otherwise.
+     */
+    private static boolean isTranslation(Viewport previous, Viewport viewport) {
+        if(Double.compare(previous.getScale(), viewport.getScale()) != 0 || previous.getWidth() != viewport.getWidth()
+                || previous.getHeight() != viewport.getHeight() || previous.getMaxIterations() != viewport.getMaxIterations()) {
+            return false;
+        }
+        OptionalInt dx = viewport.getColumnOffset(previous);
+        OptionalInt dy = viewport.getRowOffset(previous);
+        return dx.isPresent() && dy.isPresent() && Math.abs(dx.getAsInt()) < viewport.getWidth() && Math.abs(dy.getAsInt()) < viewport.getHeight();
+    }
+
+    /**
+     * Function used to render a viewport translated by a whole number of pixels from a previous rendering, by copying the overlapping pixels and only computing the exposed strips.
+     * The orbits kept by the previous rendering for the copied pixels are moved as well, so that the result stays resumable.
+     * @param previous The previous complete rendering.
+     * @param viewport The viewport we want to render.
+     * @param activePalette The color palette used to color the raster.
+     * @param executor The executor on which the tiles are computed.
+     * @param listener The listener notified once the overlapping pixels have been copied, then each time a tile has been computed.
+     * @param token The token checked by the tiles to stop the rendering.
+     * @return A future completed with the result once the exposed strips have been computed.
+     */
+    private CompletableFuture<RenderResult> shift(RenderResult previous, Viewport viewport, int activePalette, Executor executor, TileListener listener, CancellationToken token) {
+        RenderResult result = new RenderResult(viewport);
+        int width = viewport.getWidth();
+        int height = viewport.getHeight();
+        int dx = viewport.getColumnOffset(previous.getViewport()).getAsInt();
+        int dy = viewport.getRowOffset(previous.getViewport()).getAsInt();
+        Tile overlap = new Tile(Math.max(0, -dx), Math.max(0, -dy), width - Math.abs(dx), height - Math.abs(dy));
+        List<Tile> exposed = new ArrayList<>();
+        if(dx != 0) exposed.add(new Tile(dx > 0 ? width - dx : 0, 0, Math.abs(dx), height));
+        if(dy != 0) exposed.add(new Tile(overlap.getX(), dy > 0 ? height - dy : 0, overlap.getWidth(), Math.abs(dy)));
+        return CompletableFuture.supplyAsync(() -> {
+            int[] iterations = previous.getIterations();
+            float[] squaredModuli = previous.getSquaredModuli();
+            for(int y = overlap.getY(); y < overlap.getY() + overlap.getHeight(); y++) {
+                for(int x = overlap.getX(); x < overlap.getX() + overlap.getWidth(); x++) {
+                    int source = (y + dy) * width + x + dx;
+                    result.store(y * width + x, iterations[source], squaredModuli[source], activePalette);
+                }
+            }
+            for(PendingOrbits orbits : previous.getPendingOrbits()) {
+                PendingOrbits moved = moveOrbits(orbits, overlap, dx, dy, width);
+                if(moved.size() > 0) result.addPendingOrbits(moved);
+            }
+            if(!token.isCancelled()) listener.tileCompleted(new Tile(0, 0, width, height), result);
+            return result;
+        }, executor).thenCompose(copied -> renderRegions(copied, exposed, activePalette, executor, listener, token, previous.isResumable()));
+    }
+
+    /**
+     * Function used to move the orbits of a tile of a previous rendering into a translated one, dropping the pixels no longer visible.
+     * @param orbits The orbits of the tile in the previous rendering.
+     * @param overlap The region of the new rendering shared with the previous one.
+     * @param dx The number of columns the new rendering is shifted by.
+     * @param dy The number of rows the new rendering is shifted by.
+     * @param width The width of both renderings.
+     * @return The orbits of the still visible pixels, indexed in the new rendering.
+     */
+    private static PendingOrbits moveOrbits(PendingOrbits orbits, Tile overlap, int dx, int dy, int width) {
+        Tile tile = orbits.getTile();
+        int left = Math.max(tile.getX() - dx, overlap.getX());
+        int top = Math.max(tile.getY() - dy, overlap.getY());
+        int right = Math.min(tile.getX() + tile.getWidth() - dx, overlap.getX() + overlap.getWidth());
+        int bottom = Math.min(tile.getY() + tile.getHeight() - dy, overlap.getY() + overlap.getHeight());
+        PendingOrbits moved = new PendingOrbits(new Tile(left, top, Math.max(right - left, 0), Math.max(bottom - top, 0)));
+        for(int i = 0; i < orbits.size(); i++) {
+            int x = orbits.getIndex(i) % width - dx;
+            int y = orbits.getIndex(i) / width - dy;
+            if(x >= left && x < right && y >= top && y < bottom) {
+                moved.add(y * width + x, orbits.getReal(i), orbits.getImaginary(i));
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Function used to compute some regions of a rendering, in one pass or in progressive passes, and complete the result once they are all computed.
+     * @param result The result in which the iterations and colors are written.
+     * @param regions The disjoint regions of the image we want to compute.
+     * @param activePalette The color palette used to color the raster.
+     * @param executor The executor on which the tiles are computed.
+     * @param listener The listener notified each time a tile has been computed.
+     * @param token The token checked by the tiles to stop the rendering.
+     * @param resumable Whether the orbits of the pixels outside the regions have been kept, so that the result can be resumed.
+     * @return A future completed with the result once all the regions have been computed.
+     */
+    private CompletableFuture<RenderResult> renderRegions(RenderResult result, List<Tile> regions, int activePalette, Executor executor, TileListener listener, CancellationToken token, boolean resumable) {
+        Viewport viewport = result.getViewport();
+        int coarsest = progressive && !solidGuessing && !result.hasSeeds() ? Constants.COARSEST_STRIDE : 1;
+        CompletableFuture<PixelComputer> pixels = createComputer(viewport, executor, token);
+        CompletableFuture<LoadReport> report = pixels.thenCompose(computer -> renderPass(result, regions, computer, activePalette, executor, listener, token, coarsest, coarsest));
+        for(int stride = coarsest / 2; stride >= 1; stride /= 2) {
+            int pass = stride;
+            report = report.thenCompose(previous -> renderPass(result, regions, pixels.join(), activePalette, executor, listener, token, pass, coarsest).thenApply(previous::combine));
+        }
+        if(antiAliasing) {
+            report = report.thenCompose(previous -> antiAlias(result, pixels.join(), activePalette, executor, listener, token).thenApply(previous::combine));
+        }
+        return report.thenApply(loadReport -> {
+            if(token.isCancelled()) {
+                throw new CancellationException("Rendering of generation " + token.getGeneration() + " cancelled");
+            }
+            result.setLoadReport(loadReport);
+            result.setResumable(resumable && !solidGuessing && !viewport.isDeepZoom());
+            if(!solidGuessing || exactGuessing) cache(result, executor);
+            return result;
+        });
+    }
+
+    /**
+     * Function used to create the computation of the escape time of the pixels of a viewport, the reference orbit of a deep zoom being computed on the executor.
+     * @param viewport The viewport the pixels belong to.
+     * @param executor The executor on which the reference orbit is computed.
+     * @param token The token checked to stop the computation of the reference orbit.
+     * @return A future completed with the computation of the pixels.
+     */
+    private CompletableFuture<PixelComputer> createComputer(Viewport viewport, Executor executor, CancellationToken token) {
+        return viewport.isDeepZoom()
+                ? CompletableFuture.supplyAsync(() -> new PerturbationPixelComputer(viewport, token), executor)
+                : CompletableFuture.completedFuture(new DirectPixelComputer(kernel, viewport));
+    }
+
+    /**
+     * Function used to supersample the pixels on the edges of a complete rendering, in parallel on the executor.
+     * @param result The complete result whose edge pixels are refined.
+     * @param computer The computation of the escape time of the samples.
+     * @param activePalette The color palette used to color the raster.
+     * @param executor The executor on which the tiles are refined.
+     * @param listener The listener notified each time a tile has been refined.
+     * @param token The token checked by the tiles to stop the refinement.
+     * @return A future completed with the load report once all the tiles have been refined.
+     */
+    private CompletableFuture<LoadReport> antiAlias(RenderResult result, PixelComputer computer, int activePalette, Executor executor, TileListener listener, CancellationToken token) {
+        Tile image = new Tile(0, 0, result.getViewport().getWidth(), result.getViewport().getHeight());
+        ToLongFunction<Tile> work = tile -> {
+            long samples = new SupersamplingTile(tile, result, computer, activePalette, Constants.ANTI_ALIASING_GRID, Constants.ANTI_ALIASING_THRESHOLD, token).render();
+            if(!token.isCancelled()) listener.tileCompleted(tile, result);
+            return samples;
+        };
+        return executor instanceof ForkJoinPool pool
+                ? scheduler.schedule(image, pool, work, token, TileScheduler.Pass.SUPERSAMPLING, 1.0)
+                : scheduler.schedule(getTiles(image), executor, work, token);
+    }
+
+    /**
+     * Function used to derive the rendering of a viewport from a deeper rendering of the same area, by capping its iterations to the maximal number of iterations of the viewport.
+     * The pixels that escaped after this maximal number of iterations are reported as not escaped, as they would be by a computation.
+     * @param source The deeper rendering of the same area.
+     * @param viewport The viewport we want to render.
+     * @param activePalette The color palette used to color the raster.
+     * @param listener The listener notified once the whole image is complete.
+     * @param token The token of the rendering.
+     * @return The result of the rendering.
+     */
+    private RenderResult cap(RenderResult source, Viewport viewport, int activePalette, TileListener listener, CancellationToken token) {
+        RenderResult result = new RenderResult(viewport, source);
+        int maxIterations = viewport.getMaxIterations();
+        int[] iterations = source.getIterations();
+        float[] squaredModuli = source.getSquaredModuli();
+        for(int i = 0; i < iterations.length; i++) {
+            if(iterations[i] > maxIterations) result.store(i, maxIterations, 0, activePalette);
+            else result.store(i, iterations[i], squaredModuli[i], activePalette);
+        }
+        if(token.isCancelled()) {
+            throw new CancellationException("Rendering of generation " + token.getGeneration() + " cancelled");
+        }
+        listener.tileCompleted(new Tile(0, 0, viewport.getWidth(), viewport.getHeight()), result);
+        result.setLoadReport(new LoadReport(0, 0, Map.of()));
+        return result;
+    }
+
+    /**
+     * Function used to render a viewport from a rendering of the same area with a lower maximal number of iterations, by only resuming the orbits of the pixels that had reached it.
+     * @param source The rendering of the same area with a lower maximal number of iterations.
+     * @param viewport The viewport we want to render.
+     * @param activePalette The color palette used to color the raster.
+     * @param executor The executor on which the orbits are resumed.
+     * @param listener The listener notified once the whole image has been copied, then each time the orbits of a tile have been resumed.
+     * @param token The token checked by the tiles to stop the rendering.
+     * @return A future completed with the result once all the orbits have been resumed.
+     */
+    private CompletableFuture<RenderResult> deepen(RenderResult source, Viewport viewport, int activePalette, Executor executor, TileListener listener, CancellationToken token) {
+        RenderResult result = new RenderResult(viewport);
+        int start = source.getViewport().getMaxIterations();
+        int maxIterations = viewport.getMaxIterations();
+        PixelComputer computer = new DirectPixelComputer(kernel, viewport);
+        Map<Tile, PendingOrbits> pending = new IdentityHashMap<>();
+        for(PendingOrbits orbits : source.getPendingOrbits()) pending.put(orbits.getTile(), orbits);
+        return CompletableFuture.supplyAsync(() -> {
+            int[] iterations = source.getIterations();
+            float[] squaredModuli = source.getSquaredModuli();
+            for(int i = 0; i < iterations.length; i++) {
+                boolean bounded = iterations[i] == start && squaredModuli[i] < EscapeTimeKernel.ESCAPE_RADIUS_SQUARED;
+                result.store(i, bounded ? maxIterations : iterations[i], squaredModuli[i], activePalette);
+            }
+            if(!token.isCancelled()) listener.tileCompleted(new Tile(0, 0, viewport.getWidth(), viewport.getHeight()), result);
+            return new ArrayList<>(pending.keySet());
+        }, executor).thenCompose(tiles -> scheduler.schedule(tiles, executor, tile -> {
+            long pixels = resumeTile(pending.get(tile), result, computer, activePalette, start);
+            if(!token.isCancelled()) listener.tileCompleted(tile, result);
+            return pixels;
+        }, token)).thenCompose(loadReport -> antiAliasing
+                ? antiAlias(result, computer, activePalette, executor, listener, token).thenApply(loadReport::combine)
+                : CompletableFuture.completedFuture(loadReport)).thenApply(loadReport -> {
+            if(token.isCancelled()) {
+                throw new CancellationException("Rendering of generation " + token.getGeneration() + " cancelled");
+            }
+            result.setLoadReport(loadReport);
+            result.setResumable(true);
+            cache(result, executor);
+            return result;
+        });
+    }
+
+    /**
+     * Function used to resume the orbits of the pixels of a tile, keeping those that reach the new maximal number of iterations for a deeper rendering.
+     * @param orbits The orbits of the pixels of the tile.
+     * @param result The result in which the iterations and colors are written.
+     * @param computer The computation of the escape time of the pixels.
+     * @param activePalette The color palette used to color the raster.
+     * @param start The number of iterations already performed by the orbits.
+     * @return The number of resumed pixels.
+     */
+    private long resumeTile(PendingOrbits orbits, RenderResult result, PixelComputer computer, int activePalette, int start) {
+        int width = result.getViewport().getWidth();
+        int maxIterations = result.getViewport().getMaxIterations();
+        EscapeResult escape = new EscapeResult();
+        PendingOrbits remaining = new PendingOrbits(orbits.getTile());
+        for(int i = 0; i < orbits.size(); i++) {
+            int index = orbits.getIndex(i);
+            computer.resumePixel(index % width, index / width, orbits.getReal(i), orbits.getImaginary(i), start, escape);
+            result.store(index, escape.getIterations(), escape.getSquaredModulus(), activePalette);
+            if(escape.isResumable(maxIterations)) remaining.add(index, escape.getReal(), escape.getImaginary());
+        }
+        if(remaining.size() > 0) result.addPendingOrbits(remaining);
+        return orbits.size();
+    }
+
+    /**
+     * Function used to store a complete rendering in the tile cache, in the background.
+     * @param result The complete result of a rendering.
+     * @param executor The executor on which the tiles are stored.
+     */
+    private void cache(RenderResult result, Executor executor) {
+        TileCache cache = tileCache;
+        Executor io = ioExecutor;
+        int flags = TileKey.flags(kernel);
+        if(cache != null) (io != null ? io : executor).execute(() -> cache.store(result, flags));
+    }
+
+    /**
+     * Function used to get the cache in which the renderings are stored.
+     * @return The tile cache, or null if the tiles are not cached.
+     */
+    public TileCache getTileCache() {
+        return tileCache;
+    }
+
+    /**
+     * Function used to set the cache in which the complete renderings are stored and from which the new ones are seeded.
+     * @param tileCache The tile cache, or null to stop caching the tiles.
+     */
+    public void setTileCache(TileCache tileCache) {
+        this.tileCache = tileCache;
+    }
+
+    /**
+     * Function used to get the duration a single tile should take to compute on a fork/join pool.
+     * @return The target tile duration in nanoseconds.
+     */
+    public long getTargetTileNanos() {
+        return scheduler.getTargetTileNanos();
+    }
+
+    /**
+     * Function used to change the duration a single tile should take to compute on a fork/join pool, which sets the size of the tiles the viewport is split into.
+     * @param targetTileNanos The target tile duration in nanoseconds.
+     */
+    public void setTargetTileNanos(long targetTileNanos) {
+        scheduler.setTargetTileNanos(targetTileNanos);
+    }
+
+    /**
+     * Function used to get the executor on which the complete renderings are stored in the tile cache.
+     * @return The input and output executor, or null if the renderings are stored on the executor of the rendering.
+     */
+    public Executor getIoExecutor() {
+        return ioExecutor;
+    }
+
+    /**
+     * Function used to set the executor on which the complete renderings are stored in the tile cache, so that writing its disk tier does not take a computing thread.
+     * @param ioExecutor The input and output executor, or null to store the renderings on the executor of the rendering.
+     */
+    public void setIoExecutor(Executor ioExecutor) {
+        this.ioExecutor = ioExecutor;
+    }
+
+    /**
+     * Function used to get the registry in which the metrics of the renderings are recorded.
+     * @return The metrics of the renderer.
+     */
+    public RenderMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Function used to set the registry in which the metrics of the renderings are recorded, in order to share it between renderers.
+     * @param metrics The metrics of the renderer.
+     */
+    public void setMetrics(RenderMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    /**
+     * Function used to get the kernel computing the escape time of the pixels, in order to configure its cardioid and periodicity checks.
+     * @return The kernel of the renderer.
+     */
+    public EscapeTimeKernel getKernel() {
+        return kernel;
+    }
+
+    /**
+     * Function used to know if the image is computed in successive passes of increasing resolution.
+     * @return true if the rendering is progressive, false otherwise.
+     */
+    public boolean isProgressive() {
+        return progressive;
+    }
+
+    /**
+     * Function used to enable or disable the computation of the image in successive passes of increasing resolution.
+     * @param progressive true to render progressively, false to compute each pixel in a single pass.
+     */
+    public void setProgressive(boolean progressive) {
+        this.progressive = progressive;
+    }
+
+    /**
+     * Function used to know if the tiles are computed by solid guessing.
+     * @return true if the uniform regions are guessed, false if every pixel is computed.
+     */
+    public boolean isSolidGuessing() {
+        return solidGuessing;
+    }
+
+    /**
+     * Function used to enable or disable the computation of the tiles by solid guessing.
+     * @param solidGuessing true to guess the uniform regions, false to compute every pixel.
+     */
+    public void setSolidGuessing(boolean solidGuessing) {
+        this.solidGuessing = solidGuessing;
+    }
+
+    /**
+     * Function used to know if the pixels on the edges are supersampled.
+     * @return true if the adaptive anti-aliasing is enabled, false otherwise.
+     */
+    public boolean isAntiAliasing() {
+        return antiAliasing;
+    }
+
+    /**
+     * Function used to enable or disable the supersampling of the pixels on the edges once the image is complete.
+     * @param antiAliasing true to refine the edge pixels, false to keep a single sample per pixel.
+     */
+    public void setAntiAliasing(boolean antiAliasing) {
+        this.antiAliasing = antiAliasing;
+    }
+
+    /**
+     * Function used to know if the solid guessing only fills the regions proven to lie inside the set, giving the same result as computing every pixel.
+     * @return true if only the regions proven inside the set are guessed, false if every region with a uniform border is guessed.
+     */
+    public boolean isExactGuessing() {
+        return exactGuessing;
+    }
+
+    /**
+     * Function used to choose which regions the solid guessing is allowed to fill.
+     * @param exactGuessing true to only guess the regions proven inside the set, false to guess every region with a uniform border.
+     */
+    public void setExactGuessing(boolean exactGuessing) {
+        this.exactGuessing = exactGuessing;
+    }
+
+    /**
+     * Function used to schedule a single pass of a rendering on the executor, the regions being computed one after the other.
+     * @param result The result in which the iterations and colors are written.
+     * @param regions The disjoint regions of the image we want to compute.
+     * @param computer The computation of the escape time of the pixels.
+     * @param activePalette The color palette used to color the raster.
+     * @param executor The executor on which the tiles are computed.
+     * @param listener The listener notified each time a tile has been computed.
+     * @param token The token checked by the tiles to stop the rendering.
+     * @param stride The distance in pixels between two samples of the pass.
+     * @param coarsest The distance in pixels between two samples of the first pass.
+     * @return A future completed with the load report once all the tiles of the pass have been computed.
+     */
+    private CompletableFuture<LoadReport> renderPass(RenderResult result, List<Tile> regions, PixelComputer computer, int activePalette, Executor executor, TileListener listener, CancellationToken token, int stride, int coarsest) {
+        ToLongFunction<Tile> work = tile -> {
+            long pixels = solidGuessing
+                    ? new SolidGuessingTile(tile, result, computer, activePalette, exactGuessing, token).render()
+                    : renderTile(tile, result, computer, activePalette, token, stride, coarsest);
+            if(!token.isCancelled()) listener.tileCompleted(tile, result);
+            return pixels;
+        };
+        TileScheduler.Pass kind = stride > 1 ? TileScheduler.Pass.COARSE : TileScheduler.Pass.FULL;
+        double density = (stride == coarsest ? 1.0 : 3.0) / (stride * stride);
+        CompletableFuture<LoadReport> report = CompletableFuture.completedFuture(new LoadReport(0, 0, Map.of()));
+        for(Tile region : regions) {
+            report = report.thenCompose(previous -> (executor instanceof ForkJoinPool pool
+                    ? scheduler.schedule(region, pool, work, token, kind, density)
+                    : scheduler.schedule(getTiles(region), executor, work, token)).thenApply(previous::combine));
+        }
+        return report;
+    }
+
+    /**
+     * Function used to split a viewport into tiles of the renderer's tile size. The tiles on the right and bottom edges are truncated to the viewport size.
+     * @param viewport The viewport we want to split.
+     * @return The list of tiles covering the viewport.
+     */
+    public List<Tile> getTiles(Viewport viewport) {
+        return getTiles(new Tile(0, 0, viewport.getWidth(), viewport.getHeight()));
+    }
+
+    /**
+     * Function used to split a region of an image into tiles of the renderer's tile size. The tiles on the right and bottom edges are truncated to the region.
+     * @param region The region we want to split.
+     * @return The list of tiles covering the region.
+     */
+    private List<Tile> getTiles(Tile region) {
+        List<Tile> tiles = new ArrayList<>();
+        int right = region.getX() + region.getWidth();
+        int bottom = region.getY() + region.getHeight();
+        for(int y = region.getY(); y < bottom; y += tileSize) {
+            for(int x = region.getX(); x < right; x += tileSize) {
+                tiles.add(new Tile(x, y, Math.min(tileSize, right - x), Math.min(tileSize, bottom - y)));
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Function used to compute the iterations and colors of the pixels of a tile belonging to a pass.
+     * A pixel belongs to a pass if both its coordinates are multiples of the stride, and it has not already been computed by a coarser pass. Unless the stride is 1, the color of each computed pixel is also written on the block of pixels it stands for.
+     * @param tile The tile we want to compute.
+     * @param result The result in which the iterations and colors are written.
+     * @param computer The computation of the escape time of the pixels.
+     * @param activePalette The color palette used to color the raster.
+     * @param token The token checked before each row to stop the computation.
+     * @param stride The distance in pixels between two samples of the pass.
+     * @param coarsest The distance in pixels between two samples of the first pass.
+     * @return The number of pixels computed in the tile.
+     */
+    private long renderTile(Tile tile, RenderResult result, PixelComputer computer, int activePalette, CancellationToken token, int stride, int coarsest) {
+        Viewport viewport = result.getViewport();
+        int[] raster = result.getRaster();
+        int width = viewport.getWidth();
+        int right = tile.getX() + tile.getWidth();
+        int bottom = tile.getY() + tile.getHeight();
+        int startX = (tile.getX() + stride - 1) / stride * stride;
+        int startY = (tile.getY() + stride - 1) / stride * stride;
+        int[] columns = new int[tile.getWidth()];
+        int[] rowIterations = new int[tile.getWidth()];
+        double[] rowModuli = new double[tile.getWidth()];
+        double[] rowReals = new double[tile.getWidth()];
+        double[] rowImaginaries = new double[tile.getWidth()];
+        PendingOrbits pending = new PendingOrbits(tile);
+        int maxIterations = viewport.getMaxIterations();
+        long computed = 0;
+        for(int y = startY; y < bottom; y += stride) {
+            if(token.isCancelled()) break;
+            boolean newRow = stride == coarsest || (y / stride) % 2 != 0;
+            int count = 0;
+            for(int x = startX; x < right; x += stride) {
+                if(!newRow && (x / stride) % 2 == 0) continue;
+                if(result.isSeeded(y * width + x)) continue;
+                columns[count++] = x;
+            }
+            computer.computeRow(y, columns, count, rowIterations, rowModuli, rowReals, rowImaginaries);
+            int offset = y * width;
+            for(int i = 0; i < count; i++) {
+                int x = columns[i];
+                int color = result.store(offset + x, rowIterations[i], rowModuli[i], activePalette);
+                if(rowIterations[i] == maxIterations && rowModuli[i] < EscapeTimeKernel.ESCAPE_RADIUS_SQUARED && !Double.isNaN(rowReals[i])) {
+                    pending.add(offset + x, rowReals[i], rowImaginaries[i]);
+                }
+                if(stride > 1) {
+                    int blockRight = Math.min(x + stride, right);
+                    for(int blockY = y; blockY < Math.min(y + stride, bottom); blockY++) {
+                        Arrays.fill(raster, blockY * width + x, blockY * width + blockRight, color);
+                    }
+                }
+            }
+            computed += count;
+        }
+        if(pending.size() > 0) result.addPendingOrbits(pending);
+        return computed;
+    }
+
+    /**
+     * Function used to get the opaque ARGB color of a pixel from the outcome of the kernel.
+     * @param iterations The number of iterations performed before the orbit escaped.
+     * @param squaredModulus The squared modulus of the last computed value of the orbit.
+     * @param activePalette The color palette used to color the raster.
+     * @return The ARGB color of the pixel.
+     */
+    static int toArgb(int iterations, double squaredModulus, int activePalette) {
+        return OPAQUE | Utils.getPixelColor(iterations, squaredModulus, activePalette);
+    }
+}
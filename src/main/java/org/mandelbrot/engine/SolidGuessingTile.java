@@ -0,0 +1,252 @@
+package org.mandelbrot.engine;
+
+import org.mandelbrot.model.EscapeResult;
+import org.mandelbrot.model.EscapeTimeKernel;
+
+import static org.mandelbrot.model.EscapeTimeKernel.isInMainCardioid;
+import static org.mandelbrot.model.EscapeTimeKernel.isInPeriod2Bulb;
+
+/**
+ * The computation of a tile by solid guessing (Mariani-Silver algorithm): only the border of a rectangle is computed, and if all its pixels have the same value, the interior is filled with it without iterating. Otherwise, the rectangle is split in four and each quarter is processed the same way.
+ * In exact mode, the result is the one of computing every pixel: a rectangle bordered by pixels of the set is only filled if it lies entirely inside the main cardioid or the period-2 bulb, whose points never escape. A border of pixels of the set does not prove that the interior belongs to the set, as an escaping filament can cross the border between two pixels. Otherwise, the rectangles whose border is uniform are filled, including the uniform escape bands, which is faster but may miss such filaments.
+ */
+class SolidGuessingTile {
+    /**
+     * The side in pixels under which a rectangle is computed pixel by pixel instead of being split.
+     */
+    private static final int MIN_SIDE = 4;
+
+    /**
+     * The state of a pixel that has not been computed yet.
+     */
+    private static final byte UNKNOWN = 0;
+
+    /**
+     * The state of a pixel whose orbit stayed bounded.
+     */
+    private static final byte BOUNDED = 1;
+
+    /**
+     * The state of a pixel whose orbit escaped.
+     */
+    private static final byte ESCAPED = 2;
+
+    /**
+     * The tile we want to compute.
+     */
+    private final Tile tile;
+
+    /**
+     * The result in which the iterations and colors are written.
+     */
+    private final RenderResult result;
+
+    /**
+     * The computation of the escape time of the pixels.
+     */
+    private final PixelComputer computer;
+
+    /**
+     * The color palette used to color the raster.
+     */
+    private final int activePalette;
+
+    /**
+     * Whether only the rectangles proven to lie inside the set are filled.
+     */
+    private final boolean exact;
+
+    /**
+     * The token checked to stop the computation.
+     */
+    private final CancellationToken token;
+
+    /**
+     * The state of each pixel of the tile, indexed relatively to the tile.
+     */
+    private final byte[] states;
+
+    /**
+     * The reusable result of the computation of a pixel.
+     */
+    private final EscapeResult escape = new EscapeResult();
+
+    /**
+     * The number of pixels actually computed.
+     */
+    private long computed = 0;
+
+    /**
+     * The Constructor function of the SolidGuessingTile class.
+     * @param tile The tile we want to compute.
+     * @param result The result in which the iterations and colors are written.
+     * @param computer The computation of the escape time of the pixels.
+     * @param activePalette The color palette used to color the raster.
+     * @param exact Whether only the rectangles proven to lie inside the set are filled.
+     * @param token The token checked to stop the computation.
+     */
+    SolidGuessingTile(Tile tile, RenderResult result, PixelComputer computer, int activePalette, boolean exact, CancellationToken token) {
+        this.tile = tile;
+        this.result = result;
+        this.computer = computer;
+        this.activePalette = activePalette;
+        this.exact = exact;
+        this.token = token;
+        this.states = new byte[tile.getArea()];
+    }
+
+    /**
+     * Function used to compute the whole tile.
+     * @return The number of pixels actually computed, the other ones having been guessed.
+     */
+    long render() {
+        guess(tile.getX(), tile.getY(), tile.getX() + tile.getWidth() - 1, tile.getY() + tile.getHeight() - 1);
+        return computed;
+    }
+
+    /**
+     * Function used to compute a rectangle of the tile, guessing its interior if its border is uniform.
+     * @param x0 The left column of the rectangle, included.
+     * @param y0 The top row of the rectangle, included.
+     * @param x1 The right column of the rectangle, included.
+     * @param y1 The bottom row of the rectangle, included.
+     */
+    private void guess(int x0, int y0, int x1, int y1) {
+        if(token.isCancelled()) return;
+        if(x1 - x0 < MIN_SIDE || y1 - y0 < MIN_SIDE) {
+            for(int y = y0; y <= y1; y++) {
+                for(int x = x0; x <= x1; x++) compute(x, y);
+            }
+            return;
+        }
+        for(int x = x0; x <= x1; x++) {
+            compute(x, y0);
+            compute(x, y1);
+        }
+        for(int y = y0 + 1; y < y1; y++) {
+            compute(x0, y);
+            compute(x1, y);
+        }
+        if(isUniform(x0, y0, x1, y1)) {
+            fill(x0, y0, x1, y1);
+            return;
+        }
+        int mx = (x0 + x1) / 2;
+        int my = (y0 + y1) / 2;
+        guess(x0, y0, mx, my);
+        guess(mx, y0, x1, my);
+        guess(x0, my, mx, y1);
+        guess(mx, my, x1, y1);
+    }
+
+    /**
+     * Function used to know if all pixels on the border of a rectangle have the same value and can be used to fill its interior.
+     * @param x0 The left column of the rectangle, included.
+     * @param y0 The top row of the rectangle, included.
+     * @param x1 The right column of the rectangle, included.
+     * @param y1 The bottom row of the rectangle, included.
+     * @return true if the interior of the rectangle can be filled, false otherwise.
+     */
+    private boolean isUniform(int x0, int y0, int x1, int y1) {
+        int[] iterations = result.getIterations();
+        int width = result.getViewport().getWidth();
+        int reference = y0 * width + x0;
+        byte state = states[localIndex(x0, y0)];
+        if(exact && (state != BOUNDED || !isInMainComponents(x0, y0, x1, y1))) return false;
+        for(int x = x0; x <= x1; x++) {
+            if(!matches(x, y0, reference, state, iterations) || !matches(x, y1, reference, state, iterations)) return false;
+        }
+        for(int y = y0 + 1; y < y1; y++) {
+            if(!matches(x0, y, reference, state, iterations) || !matches(x1, y, reference, state, iterations)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Function used to prove that a rectangle lies entirely inside the main cardioid or the period-2 bulb.
+     * The bulb is a disc and each half of the cardioid on either side of the real axis is convex, so a rectangle belongs to them if the corners of its parts on either side of the axis do. The rectangle is widened by a pixel on each side, so that the rounding of the coordinates of its pixels cannot take them out.
+     * The coordinates of a deep zoom are not precise enough for the proof, and its rectangles are never proven inside.
+     * @param x0 The left column of the rectangle, included.
+     * @param y0 The top row of the rectangle, included.
+     * @param x1 The right column of the rectangle, included.
+     * @param y1 The bottom row of the rectangle, included.
+     * @return true if every pixel of the rectangle belongs to the set, false if it cannot be proven.
+     */
+    private boolean isInMainComponents(int x0, int y0, int x1, int y1) {
+        Viewport viewport = result.getViewport();
+        if(viewport.isDeepZoom()) return false;
+        double left = viewport.getReal(x0 - 1);
+        double right = viewport.getReal(x1 + 1);
+        double top = viewport.getImaginary(y0 - 1);
+        double bottom = viewport.getImaginary(y1 + 1);
+        if(isInPeriod2Bulb(left, top) && isInPeriod2Bulb(right, top) && isInPeriod2Bulb(left, bottom) && isInPeriod2Bulb(right, bottom)) return true;
+        boolean corners = isInMainCardioid(left, top) && isInMainCardioid(right, top) && isInMainCardioid(left, bottom) && isInMainCardioid(right, bottom);
+        boolean crossesAxis = Math.min(top, bottom) < 0 && Math.max(top, bottom) > 0;
+        return corners && (!crossesAxis || isInMainCardioid(left, 0) && isInMainCardioid(right, 0));
+    }
+
+    /**
+     * Function used to know if a pixel has the same value as the reference pixel.
+     * @param x The column of the pixel.
+     * @param y The row of the pixel.
+     * @param reference The index of the reference pixel in the image.
+     * @param state The state of the reference pixel.
+     * @param iterations The iteration buffer of the image.
+     * @return true if both pixels have the same state and number of iterations, false otherwise.
+     */
+    private boolean matches(int x, int y, int reference, byte state, int[] iterations) {
+        return states[localIndex(x, y)] == state && iterations[y * result.getViewport().getWidth() + x] == iterations[reference];
+    }
+
+    /**
+     * Function used to fill the interior of a rectangle with the value of its top left pixel.
+     * @param x0 The left column of the rectangle, included.
+     * @param y0 The top row of the rectangle, included.
+     * @param x1 The right column of the rectangle, included.
+     * @param y1 The bottom row of the rectangle, included.
+     */
+    private void fill(int x0, int y0, int x1, int y1) {
+        int width = result.getViewport().getWidth();
+        int reference = y0 * width + x0;
+        byte state = states[localIndex(x0, y0)];
+        for(int y = y0 + 1; y < y1; y++) {
+            for(int x = x0 + 1; x < x1; x++) {
+                if(result.isSeeded(y * width + x)) {
+                    compute(x, y);
+                    continue;
+                }
+                result.copyPixel(y * width + x, reference);
+                states[localIndex(x, y)] = state;
+            }
+        }
+    }
+
+    /**
+     * Function used to compute a pixel, unless it has already been computed or guessed. The pixels seeded from a previous rendering are not computed, their state being read from the result.
+     * @param x The column of the pixel.
+     * @param y The row of the pixel.
+     */
+    private void compute(int x, int y) {
+        int local = localIndex(x, y);
+        if(states[local] != UNKNOWN) return;
+        int index = y * result.getViewport().getWidth() + x;
+        if(result.isSeeded(index)) {
+            states[local] = result.getSquaredModuli()[index] > EscapeTimeKernel.ESCAPE_RADIUS_SQUARED ? ESCAPED : BOUNDED;
+            return;
+        }
+        computer.computePixel(x, y, escape);
+        result.store(index, escape.getIterations(), escape.getSquaredModulus(), activePalette);
+        states[local] = escape.hasEscaped() ? ESCAPED : BOUNDED;
+        computed++;
+    }
+
+    /**
+     * Function used to get the index of a pixel relatively to the tile.
+     * @param x The column of the pixel in the image.
+     * @param y The row of the pixel in the image.
+     * @return The index of the pixel in the tile.
+     */
+    private int localIndex(int x, int y) {
+        return (y - tile.getY()) * tile.getWidth() + (x - tile.getX());
+    }
+}
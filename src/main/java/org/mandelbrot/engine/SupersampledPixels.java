@@ -0,0 +1,110 @@
+package org.mandelbrot.engine;
+
+import java.util.Arrays;
+
+/**
+ * The pixels of a tile refined by the adaptive anti-aliasing, with the outcome of each of their samples.
+ * The samples are kept so that the averaged colors can be computed again with another palette without iterating the pixels.
+ */
+final class SupersampledPixels {
+    /**
+     * The initial number of pixels the arrays can hold.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The number of samples of each pixel.
+     */
+    private final int samples;
+
+    /**
+     * The index in the image of each pixel.
+     */
+    private int[] indices = new int[INITIAL_CAPACITY];
+
+    /**
+     * The number of iterations of each sample, the samples of a pixel being consecutive.
+     */
+    private int[] iterations;
+
+    /**
+     * The squared modulus of the last computed value of the orbit of each sample, rounded up to a float.
+     */
+    private float[] squaredModuli;
+
+    /**
+     * The number of stored pixels.
+     */
+    private int size;
+
+    /**
+     * The Constructor function of the SupersampledPixels class.
+     * @param samples The number of samples of each pixel.
+     */
+    SupersampledPixels(int samples) {
+        this.samples = samples;
+        this.iterations = new int[INITIAL_CAPACITY * samples];
+        this.squaredModuli = new float[INITIAL_CAPACITY * samples];
+    }
+
+    /**
+     * Function used to store the samples of a pixel.
+     * @param index The index of the pixel in the image.
+     * @param sampleIterations The number of iterations of each sample.
+     * @param sampleModuli The final squared modulus of each sample.
+     * @param offset The position of the first sample of the pixel in the arrays.
+     */
+    void add(int index, int[] sampleIterations, double[] sampleModuli, int offset) {
+        if(size == indices.length) {
+            indices = Arrays.copyOf(indices, size * 2);
+            iterations = Arrays.copyOf(iterations, size * 2 * samples);
+            squaredModuli = Arrays.copyOf(squaredModuli, size * 2 * samples);
+        }
+        indices[size] = index;
+        for(int s = 0; s < samples; s++) {
+            double squaredModulus = sampleModuli[offset + s];
+            float rounded = (float) squaredModulus;
+            if(rounded < squaredModulus) rounded = Math.nextUp(rounded);
+            iterations[size * samples + s] = sampleIterations[offset + s];
+            squaredModuli[size * samples + s] = rounded;
+        }
+        size++;
+    }
+
+    /**
+     * Function used to get the index in the image of a stored pixel.
+     * @param i The position of the pixel in the stored ones.
+     * @return The index of the pixel in the image.
+     */
+    int getIndex(int i) {
+        return indices[i];
+    }
+
+    /**
+     * Function used to get the color of a stored pixel, the average of the colors of its samples.
+     * @param i The position of the pixel in the stored ones.
+     * @param activePalette The color palette used to color the samples.
+     * @return The opaque ARGB color of the pixel.
+     */
+    int getColor(int i, int activePalette) {
+        int red = 0;
+        int green = 0;
+        int blue = 0;
+        for(int s = i * samples; s < (i + 1) * samples; s++) {
+            int color = Renderer.toArgb(iterations[s], squaredModuli[s], activePalette);
+            red += (color >> 16) & 0xFF;
+            green += (color >> 8) & 0xFF;
+            blue += color & 0xFF;
+        }
+        int half = samples / 2;
+        return 0xFF000000 | (red + half) / samples << 16 | (green + half) / samples << 8 | (blue + half) / samples;
+    }
+
+    /**
+     * Function used to get the number of stored pixels.
+     * @return The number of refined pixels.
+     */
+    int size() {
+        return size;
+    }
+}
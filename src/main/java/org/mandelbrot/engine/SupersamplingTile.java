@@ -0,0 +1,130 @@
+package org.mandelbrot.engine;
+
+/**
+ * The adaptive anti-aliasing of a tile of a complete rendering: the pixels whose number of iterations differs from one of their neighbors by more than a threshold lie on an edge of the set or of a band, and are supersampled on a regular grid, their color becoming the average of the colors of their samples.
+ * The iterations of the image are left untouched, so that the edges are detected on the single-sample image whatever the order in which the tiles are refined.
+ */
+class SupersamplingTile {
+    /**
+     * The tile we want to refine.
+     */
+    private final Tile tile;
+
+    /**
+     * The complete result whose edge pixels are refined.
+     */
+    private final RenderResult result;
+
+    /**
+     * The computation of the escape time of the samples.
+     */
+    private final PixelComputer computer;
+
+    /**
+     * The color palette used to color the raster.
+     */
+    private final int activePalette;
+
+    /**
+     * The number of samples along each axis of a refined pixel.
+     */
+    private final int grid;
+
+    /**
+     * The largest difference of iterations between two neighbors for which they are not refined.
+     */
+    private final int threshold;
+
+    /**
+     * The token checked to stop the computation.
+     */
+    private final CancellationToken token;
+
+    /**
+     * The Constructor function of the SupersamplingTile class.
+     * @param tile The tile we want to refine.
+     * @param result The complete result whose edge pixels are refined.
+     * @param computer The computation of the escape time of the samples.
+     * @param activePalette The color palette used to color the raster.
+     * @param grid The number of samples along each axis of a refined pixel.
+     * @param threshold The largest difference of iterations between two neighbors for which they are not refined.
+     * @param token The token checked before each row to stop the computation.
+     */
+    SupersamplingTile(Tile tile, RenderResult result, PixelComputer computer, int activePalette, int grid, int threshold, CancellationToken token) {
+        this.tile = tile;
+        this.result = result;
+        this.computer = computer;
+        this.activePalette = activePalette;
+        this.grid = grid;
+        this.threshold = threshold;
+        this.token = token;
+    }
+
+    /**
+     * Function used to refine the edge pixels of the tile. The first sample of each pixel is the one already computed at its top left corner.
+     * The samples of the edge pixels of a row are computed row of samples by row of samples, so that they go through the row computation of the kernel.
+     * @return The number of samples computed in the tile.
+     */
+    long render() {
+        int[] iterations = result.getIterations();
+        float[] squaredModuli = result.getSquaredModuli();
+        int[] raster = result.getRaster();
+        int width = result.getViewport().getWidth();
+        int samples = grid * grid;
+        int[] edges = new int[tile.getWidth()];
+        double[] columns = new double[tile.getWidth() * grid];
+        int[] rowIterations = new int[columns.length];
+        double[] rowModuli = new double[columns.length];
+        int[] sampleIterations = new int[tile.getWidth() * samples];
+        double[] sampleModuli = new double[tile.getWidth() * samples];
+        SupersampledPixels refined = new SupersampledPixels(samples);
+        for(int y = tile.getY(); y < tile.getY() + tile.getHeight(); y++) {
+            if(token.isCancelled()) break;
+            int count = 0;
+            for(int x = tile.getX(); x < tile.getX() + tile.getWidth(); x++) {
+                if(isEdge(x, y)) edges[count++] = x;
+            }
+            if(count == 0) continue;
+            for(int j = 0; j < grid; j++) {
+                int points = 0;
+                for(int e = 0; e < count; e++) {
+                    for(int i = j == 0 ? 1 : 0; i < grid; i++) columns[points++] = edges[e] + (double) i / grid;
+                }
+                computer.computeSamples(y + (double) j / grid, columns, points, rowIterations, rowModuli);
+                points = 0;
+                for(int e = 0; e < count; e++) {
+                    for(int i = j == 0 ? 1 : 0; i < grid; i++) {
+                        sampleIterations[e * samples + j * grid + i] = rowIterations[points];
+                        sampleModuli[e * samples + j * grid + i] = rowModuli[points++];
+                    }
+                }
+            }
+            for(int e = 0; e < count; e++) {
+                int index = y * width + edges[e];
+                sampleIterations[e * samples] = iterations[index];
+                sampleModuli[e * samples] = squaredModuli[index];
+                refined.add(index, sampleIterations, sampleModuli, e * samples);
+                raster[index] = refined.getColor(refined.size() - 1, activePalette);
+            }
+        }
+        if(refined.size() > 0) result.addSupersampledPixels(refined);
+        return (long) refined.size() * (samples - 1);
+    }
+
+    /**
+     * Function used to know if a pixel lies on an edge, its number of iterations differing from one of its four neighbors by more than the threshold.
+     * @param x The column of the pixel.
+     * @param y The row of the pixel.
+     * @return true if the pixel must be refined, false otherwise.
+     */
+    private boolean isEdge(int x, int y) {
+        Viewport viewport = result.getViewport();
+        int[] iterations = result.getIterations();
+        int index = y * viewport.getWidth() + x;
+        int value = iterations[index];
+        return (x > 0 && Math.abs(iterations[index - 1] - value) > threshold)
+                || (x < viewport.getWidth() - 1 && Math.abs(iterations[index + 1] - value) > threshold)
+                || (y > 0 && Math.abs(iterations[index - viewport.getWidth()] - value) > threshold)
+                || (y < viewport.getHeight() - 1 && Math.abs(iterations[index + viewport.getWidth()] - value) > threshold);
+    }
+}
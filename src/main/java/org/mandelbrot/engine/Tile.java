@@ -0,0 +1,85 @@
+package org.mandelbrot.engine;
+
+/**
+ * A rectangular block of pixels of an image, computed as a single unit of work by the renderer.
+ */
+public final class Tile {
+    /**
+     * The column of the top left pixel of the tile.
+     */
+    private final int x;
+
+    /**
+     * The row of the top left pixel of the tile.
+     */
+    private final int y;
+
+    /**
+     * The width of the tile in pixels.
+     */
+    private final int width;
+
+    /**
+     * The height of the tile in pixels.
+     */
+    private final int height;
+
+    /**
+     * The Constructor function of the Tile class.
+     * @param x The column of the top left pixel of the tile.
+     * @param y The row of the top left pixel of the tile.
+     * @param width The width of the tile in pixels.
+     * @param height The height of the tile in pixels.
+     */
+    public Tile(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Function used to get the column of the top left pixel of the tile.
+     * @return The column of the top left pixel.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Function used to get the row of the top left pixel of the tile.
+     * @return The row of the top left pixel.
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Function used to get the width of the tile in pixels.
+     * @return The width of the tile.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Function used to get the height of the tile in pixels.
+     * @return The height of the tile.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Function used to get the number of pixels covered by the tile.
+     * @return The number of pixels of the tile.
+     */
+    public int getArea() {
+        return width * height;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Tile[x=%d, y=%d, size=%dx%d]", x, y, width, height);
+    }
+}
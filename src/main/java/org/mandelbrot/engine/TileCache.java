@@ -0,0 +1,511 @@
+package org.mandelbrot.engine;
+
+import org.mandelbrot.utils.Constants;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The cache of the computed iterations, shared by the renderings so that the areas already seen are not computed again.
+ * The pixels of the complex plane are grouped in square tiles of {@link Constants#TILE_SIZE} pixels on a grid depending on the scale (see {@link TileKey}), so that the tiles of two viewports at the same scale and phase match whatever their corners.
+ * Each tile stores the iterations and final squared moduli of its pixels, compressed with Deflate, the pixels outside every rendered viewport being marked by a negative number of iterations.
+ * The tiles are kept in memory up to a number of bytes, the least recently used ones being evicted first, and can be written through to a file mapped in memory which keeps them across the executions of the application.
+ */
+public class TileCache {
+    /**
+     * The side in pixels of the tiles of the cache.
+     */
+    private static final int SIDE = Constants.TILE_SIZE;
+
+    /**
+     * The number of iterations marking a pixel that has never been computed.
+     */
+    private static final int MISSING = -1;
+
+    /**
+     * The number of quanta a pixel is split into to compute the phase of the grid.
+     */
+    private static final long PHASE_QUANTA = Math.round(1 / Constants.PIXEL_ALIGNMENT_TOLERANCE);
+
+    /**
+     * The number of locks guarding the merge of the tiles.
+     */
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * The maximal number of bytes of compressed tiles kept in memory.
+     */
+    private final long maxBytes;
+
+    /**
+     * The compressed tiles kept in memory, from the least recently used to the most recently used.
+     */
+    private final LinkedHashMap<TileKey, byte[]> tiles = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The on-disk tier of the cache, or null if the cache only lives in memory.
+     */
+    private final MappedTileStore disk;
+
+    /**
+     * The number of bytes of compressed tiles kept in memory.
+     */
+    private long bytes = 0;
+
+    /**
+     * The number of tiles found in the cache.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * The number of tiles found in the on-disk tier only.
+     */
+    private final LongAdder diskHits = new LongAdder();
+
+    /**
+     * The number of tiles looked up but not found in the cache.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * The number of tiles evicted from memory to respect the maximal number of bytes.
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * The locks guarding the read-merge-write of the tiles, shared by the tiles of the same hash modulo their number.
+     */
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    /**
+     * The Constructor function of the TileCache class, keeping the tiles in memory only.
+     * @param maxBytes The maximal number of bytes of compressed tiles kept in memory.
+     */
+    public TileCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.disk = null;
+        Arrays.setAll(locks, i -> new Object());
+    }
+
+    /**
+     * The Constructor function of the TileCache class, writing the tiles through to a file mapped in memory.
+     * @param maxBytes The maximal number of bytes of compressed tiles kept in memory.
+     * @param file The file storing the tiles, created if needed and reloaded otherwise.
+     * @param fileBytes The size of the file in bytes.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    public TileCache(long maxBytes, Path file, int fileBytes) throws IOException {
+        this.maxBytes = maxBytes;
+        this.disk = new MappedTileStore(file, fileBytes);
+        Arrays.setAll(locks, i -> new Object());
+    }
+
+    /**
+     * Function used to copy into a result the pixels of the cached tiles covering its viewport, marking them as seeded so that they are not computed.
+     * @param result The result of the rendering, before its computation.
+     * @param activePalette The color palette used to color the copied pixels.
+     * @param flags The checks of the kernel computing the pixels (see {@link TileKey#flags}).
+     * @return The number of pixels copied from the cache.
+     */
+    int seed(RenderResult result, int activePalette, int flags) {
+        Viewport viewport = result.getViewport();
+        Grid grid = Grid.of(viewport, flags);
+        if(grid == null) return 0;
+        int[] iterations = new int[SIDE * SIDE];
+        float[] squaredModuli = new float[SIDE * SIDE];
+        int seeded = 0;
+        for(long row = Math.floorDiv(grid.originY, SIDE); row <= Math.floorDiv(grid.originY + viewport.getHeight() - 1, SIDE); row++) {
+            for(long column = Math.floorDiv(grid.originX, SIDE); column <= Math.floorDiv(grid.originX + viewport.getWidth() - 1, SIDE); column++) {
+                if(!get(grid.key(column, row), iterations, squaredModuli)) continue;
+                int left = (int) (column * SIDE - grid.originX);
+                int top = (int) (row * SIDE - grid.originY);
+                for(int y = Math.max(top, 0); y < Math.min(top + SIDE, viewport.getHeight()); y++) {
+                    for(int x = Math.max(left, 0); x < Math.min(left + SIDE, viewport.getWidth()); x++) {
+                        int local = (y - top) * SIDE + x - left;
+                        if(iterations[local] == MISSING) continue;
+                        int index = y * viewport.getWidth() + x;
+                        result.store(index, iterations[local], squaredModuli[local], activePalette);
+                        result.markSeeded(index);
+                        seeded++;
+                    }
+                }
+            }
+        }
+        return seeded;
+    }
+
+    /**
+     * Function used to store the tiles covering a complete rendering. The tiles partially covered by the viewport are merged with the cached ones.
+     * @param result The complete result of a rendering.
+     * @param flags The checks of the kernel which computed the pixels (see {@link TileKey#flags}).
+     */
+    void store(RenderResult result, int flags) {
+        Viewport viewport = result.getViewport();
+        Grid grid = Grid.of(viewport, flags);
+        if(grid == null) return;
+        int[] iterations = new int[SIDE * SIDE];
+        float[] squaredModuli = new float[SIDE * SIDE];
+        for(long row = Math.floorDiv(grid.originY, SIDE); row <= Math.floorDiv(grid.originY + viewport.getHeight() - 1, SIDE); row++) {
+            for(long column = Math.floorDiv(grid.originX, SIDE); column <= Math.floorDiv(grid.originX + viewport.getWidth() - 1, SIDE); column++) {
+                TileKey key = grid.key(column, row);
+                int left = (int) (column * SIDE - grid.originX);
+                int top = (int) (row * SIDE - grid.originY);
+                synchronized(lock(key)) {
+                    store(result, key, left, top, iterations, squaredModuli);
+                }
+            }
+        }
+    }
+
+    /**
+     * Function used to store a tile covered by a complete rendering, merging it with the cached one if the viewport only covers part of it.
+     * The caller holds the lock of the tile, so that two renderings covering different parts of it do not overwrite each other's pixels.
+     * @param result The complete result of a rendering.
+     * @param key The key of the tile.
+     * @param left The column of the viewport at which the tile starts, negative if it starts before the viewport.
+     * @param top The row of the viewport at which the tile starts, negative if it starts before the viewport.
+     * @param iterations The reusable array in which the iterations of the pixels of the tile are merged.
+     * @param squaredModuli The reusable array in which the squared moduli of the pixels of the tile are merged.
+     */
+    private void store(RenderResult result, TileKey key, int left, int top, int[] iterations, float[] squaredModuli) {
+        Viewport viewport = result.getViewport();
+        boolean partial = left < 0 || top < 0 || left + SIDE > viewport.getWidth() || top + SIDE > viewport.getHeight();
+        if(partial) {
+            if(!peek(key, iterations, squaredModuli)) Arrays.fill(iterations, MISSING);
+            else if(isComplete(iterations)) return;
+        } else if(contains(key)) {
+            return;
+        }
+        for(int y = Math.max(top, 0); y < Math.min(top + SIDE, viewport.getHeight()); y++) {
+            for(int x = Math.max(left, 0); x < Math.min(left + SIDE, viewport.getWidth()); x++) {
+                int local = (y - top) * SIDE + x - left;
+                int index = y * viewport.getWidth() + x;
+                iterations[local] = result.getIterations()[index];
+                squaredModuli[local] = result.getSquaredModuli()[index];
+            }
+        }
+        put(key, compress(iterations, squaredModuli));
+    }
+
+    /**
+     * Function used to get the lock guarding the merge of a tile. The tiles share a fixed number of locks, chosen by their hash.
+     * @param key The key of the tile.
+     * @return The lock of the tile.
+     */
+    private Object lock(TileKey key) {
+        return locks[Math.floorMod(key.hashCode(), locks.length)];
+    }
+
+    /**
+     * Function used to get the number of tiles found in the cache.
+     * @return The number of hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Function used to get the number of tiles found in the on-disk tier after missing the memory.
+     * @return The number of hits of the on-disk tier.
+     */
+    public long getDiskHits() {
+        return diskHits.sum();
+    }
+
+    /**
+     * Function used to get the number of tiles looked up but not found in the cache.
+     * @return The number of misses.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Function used to get the number of tiles evicted from memory.
+     * @return The number of evictions.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Function used to get the ratio of the looked up tiles found in the cache.
+     * @return The hit ratio, between 0 and 1.
+     */
+    public double getHitRatio() {
+        long lookups = getHits() + getMisses();
+        return lookups == 0 ? 0 : (double) getHits() / lookups;
+    }
+
+    /**
+     * Function used to get the number of tiles kept in memory.
+     * @return The number of tiles in memory.
+     */
+    public synchronized int size() {
+        return tiles.size();
+    }
+
+    /**
+     * Function used to get the number of bytes of compressed tiles kept in memory.
+     * @return The memory used by the tiles.
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d tiles (%d KB) - %d hits (%d from disk) - %d misses - %d evictions%s",
+                size(), getBytes() / 1024, getHits(), getDiskHits(), getMisses(), getEvictions(), disk == null ? "" : " - " + disk.size() + " tiles on disk");
+    }
+
+    /**
+     * Function used to look up a tile in memory then on disk, counting the hits and misses.
+     * @param key The key of the tile.
+     * @param iterations The array in which the iterations of the pixels are decompressed.
+     * @param squaredModuli The array in which the squared moduli of the pixels are decompressed.
+     * @return true if the tile has been found, false otherwise.
+     */
+    private boolean get(TileKey key, int[] iterations, float[] squaredModuli) {
+        byte[] data;
+        synchronized(this) {
+            data = tiles.get(key);
+        }
+        if(data == null && disk != null && (data = disk.get(key)) != null) {
+            diskHits.increment();
+            promote(key, data);
+        }
+        if(data == null || !decompress(data, iterations, squaredModuli)) {
+            misses.increment();
+            return false;
+        }
+        hits.increment();
+        return true;
+    }
+
+    /**
+     * Function used to look up a tile without counting it in the metrics nor changing its recency.
+     * @param key The key of the tile.
+     * @param iterations The array in which the iterations of the pixels are decompressed.
+     * @param squaredModuli The array in which the squared moduli of the pixels are decompressed.
+     * @return true if the tile has been found, false otherwise.
+     */
+    private boolean peek(TileKey key, int[] iterations, float[] squaredModuli) {
+        byte[] data;
+        synchronized(this) {
+            data = tiles.get(key);
+        }
+        if(data == null && disk != null) data = disk.get(key);
+        return data != null && decompress(data, iterations, squaredModuli);
+    }
+
+    /**
+     * Function used to know if a tile is cached.
+     * @param key The key of the tile.
+     * @return true if the tile is in memory or on disk, false otherwise.
+     */
+    private boolean contains(TileKey key) {
+        synchronized(this) {
+            if(tiles.containsKey(key)) return true;
+        }
+        return disk != null && disk.get(key) != null;
+    }
+
+    /**
+     * Function used to store a tile in memory and on disk.
+     * @param key The key of the tile.
+     * @param data The compressed content of the tile.
+     */
+    private void put(TileKey key, byte[] data) {
+        promote(key, data);
+        if(disk != null) disk.put(key, data);
+    }
+
+    /**
+     * Function used to store a tile in memory, evicting the least recently used ones beyond the maximal number of bytes.
+     * @param key The key of the tile.
+     * @param data The compressed content of the tile.
+     */
+    private synchronized void promote(TileKey key, byte[] data) {
+        byte[] previous = tiles.put(key, data);
+        bytes += data.length - (previous == null ? 0 : previous.length);
+        var eldest = tiles.entrySet().iterator();
+        while(bytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<TileKey, byte[]> entry = eldest.next();
+            bytes -= entry.getValue().length;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Function used to know if all the pixels of a tile have been computed.
+     * @param iterations The iterations of the pixels of the tile.
+     * @return true if no pixel is missing, false otherwise.
+     */
+    private static boolean isComplete(int[] iterations) {
+        for(int iteration : iterations) {
+            if(iteration == MISSING) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Function used to compress the content of a tile.
+     * @param iterations The iterations of the pixels of the tile.
+     * @param squaredModuli The squared moduli of the pixels of the tile.
+     * @return The compressed content.
+     */
+    private static byte[] compress(int[] iterations, float[] squaredModuli) {
+        ByteBuffer raw = ByteBuffer.allocate(SIDE * SIDE * 8);
+        raw.asIntBuffer().put(iterations);
+        raw.position(SIDE * SIDE * 4);
+        raw.asFloatBuffer().put(squaredModuli);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw.array());
+            deflater.finish();
+            byte[] buffer = new byte[raw.capacity() + 64];
+            int length = 0;
+            while(!deflater.finished()) {
+                if(length == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Function used to decompress the content of a tile.
+     * @param data The compressed content.
+     * @param iterations The array in which the iterations of the pixels are decompressed.
+     * @param squaredModuli The array in which the squared moduli of the pixels are decompressed.
+     * @return true if the content is valid, false if it is corrupted.
+     */
+    private static boolean decompress(byte[] data, int[] iterations, float[] squaredModuli) {
+        byte[] raw = new byte[SIDE * SIDE * 8];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            if(inflater.inflate(raw) != raw.length || !inflater.finished()) return false;
+        } catch (DataFormatException e) {
+            return false;
+        } finally {
+            inflater.end();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(raw);
+        buffer.asIntBuffer().get(iterations);
+        buffer.position(SIDE * SIDE * 4);
+        buffer.asFloatBuffer().get(squaredModuli);
+        return true;
+    }
+
+    /**
+     * The position of the pixels of a viewport on the grid of its scale.
+     */
+    private static final class Grid {
+        /**
+         * The bits of the scale of the viewport.
+         */
+        private final long scaleBits;
+
+        /**
+         * The column on the grid of the left pixels of the viewport.
+         */
+        private final long originX;
+
+        /**
+         * The row on the grid of the top pixels of the viewport.
+         */
+        private final long originY;
+
+        /**
+         * The horizontal phase of the grid, in quanta of a pixel.
+         */
+        private final long phaseX;
+
+        /**
+         * The vertical phase of the grid, in quanta of a pixel.
+         */
+        private final long phaseY;
+
+        /**
+         * The maximal number of iterations of the viewport.
+         */
+        private final int maxIterations;
+
+        /**
+         * The checks of the kernel computing the pixels.
+         */
+        private final int flags;
+
+        /**
+         * The Constructor function of the Grid class.
+         * @param scaleBits The bits of the scale of the viewport.
+         * @param originX The column on the grid of the left pixels of the viewport.
+         * @param originY The row on the grid of the top pixels of the viewport.
+         * @param phaseX The horizontal phase of the grid, in quanta of a pixel.
+         * @param phaseY The vertical phase of the grid, in quanta of a pixel.
+         * @param maxIterations The maximal number of iterations of the viewport.
+         * @param flags The checks of the kernel computing the pixels.
+         */
+        private Grid(long scaleBits, long originX, long originY, long phaseX, long phaseY, int maxIterations, int flags) {
+            this.scaleBits = scaleBits;
+            this.originX = originX;
+            this.originY = originY;
+            this.phaseX = phaseX;
+            this.phaseY = phaseY;
+            this.maxIterations = maxIterations;
+            this.flags = flags;
+        }
+
+        /**
+         * Function used to locate a viewport on the grid of its scale.
+         * @param viewport The viewport we want to locate.
+         * @param flags The checks of the kernel computing the pixels.
+         * @return The position of the viewport, or null if its corner is too far from the origin to be represented on the grid.
+         */
+        static Grid of(Viewport viewport, int flags) {
+            BigDecimal scale = new BigDecimal(viewport.getScale());
+            long[] x = split(viewport.getPreciseLeft().divide(scale, MathContext.DECIMAL128));
+            long[] y = split(viewport.getPreciseTop().divide(scale, MathContext.DECIMAL128));
+            if(x == null || y == null) return null;
+            return new Grid(Double.doubleToLongBits(viewport.getScale()), x[0], y[0], x[1], y[1], viewport.getMaxIterations(), flags);
+        }
+
+        /**
+         * Function used to split a position in pixels into its whole number of pixels and its quantized fraction.
+         * @param pixels The position in pixels.
+         * @return The whole number of pixels and the fraction in quanta, or null if the position is too large.
+         */
+        private static long[] split(BigDecimal pixels) {
+            BigDecimal quanta = pixels.multiply(BigDecimal.valueOf(PHASE_QUANTA)).setScale(0, RoundingMode.HALF_EVEN);
+            if(quanta.abs().compareTo(BigDecimal.valueOf(Long.MAX_VALUE / 2)) > 0) return null;
+            long value = quanta.longValue();
+            return new long[] {Math.floorDiv(value, PHASE_QUANTA), Math.floorMod(value, PHASE_QUANTA)};
+        }
+
+        /**
+         * Function used to get the key of a tile of the grid.
+         * @param column The column of the tile.
+         * @param row The row of the tile.
+         * @return The key of the tile.
+         */
+        TileKey key(long column, long row) {
+            return new TileKey(scaleBits, phaseX, phaseY, column, row, maxIterations, flags);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.mandelbrot.engine;
+
+import org.mandelbrot.model.EscapeTimeKernel;
+
+/**
+ * The key of a tile of the cache: a square of pixels on the grid of all the pixels of the complex plane at a given scale.
+ * The grid of a scale is the lattice of points (i + phase) * scale, the phase being the offset of the viewport pixels from the multiples of the scale, quantized to a millionth of a pixel.
+ * The checks of the kernel are part of the key, as they change the results of the pixels they stop early.
+ */
+final class TileKey {
+    /**
+     * The flag of the tiles computed with the cardioid check.
+     */
+    static final int CARDIOID_CHECK = 1;
+
+    /**
+     * The flag of the tiles computed with the periodicity check.
+     */
+    static final int PERIODICITY_CHECK = 2;
+
+    /**
+     * The bits of the distance between two adjacent pixels.
+     */
+    private final long scaleBits;
+
+    /**
+     * The horizontal offset of the pixels from the multiples of the scale, in millionths of a pixel.
+     */
+    private final long phaseX;
+
+    /**
+     * The vertical offset of the pixels from the multiples of the scale, in millionths of a pixel.
+     */
+    private final long phaseY;
+
+    /**
+     * The column of the tile on the grid.
+     */
+    private final long column;
+
+    /**
+     * The row of the tile on the grid.
+     */
+    private final long row;
+
+    /**
+     * The maximal number of iterations of the pixels.
+     */
+    private final int maxIterations;
+
+    /**
+     * The checks of the kernel enabled when computing the pixels, as a combination of {@link #CARDIOID_CHECK} and {@link #PERIODICITY_CHECK}.
+     */
+    private final int flags;
+
+    /**
+     * The Constructor function of the TileKey class.
+     * @param scaleBits The bits of the distance between two adjacent pixels.
+     * @param phaseX The horizontal offset of the pixels from the multiples of the scale, in millionths of a pixel.
+     * @param phaseY The vertical offset of the pixels from the multiples of the scale, in millionths of a pixel.
+     * @param column The column of the tile on the grid.
+     * @param row The row of the tile on the grid.
+     * @param maxIterations The maximal number of iterations of the pixels.
+     * @param flags The checks of the kernel enabled when computing the pixels.
+     */
+    TileKey(long scaleBits, long phaseX, long phaseY, long column, long row, int maxIterations, int flags) {
+        this.scaleBits = scaleBits;
+        this.phaseX = phaseX;
+        this.phaseY = phaseY;
+        this.column = column;
+        this.row = row;
+        this.maxIterations = maxIterations;
+        this.flags = flags;
+    }
+
+    /**
+     * Function used to get the flags of the checks currently enabled in a kernel.
+     * @param kernel The kernel computing the pixels.
+     * @return The combination of {@link #CARDIOID_CHECK} and {@link #PERIODICITY_CHECK} enabled in the kernel.
+     */
+    static int flags(EscapeTimeKernel kernel) {
+        return (kernel.isCardioidCheck() ? CARDIOID_CHECK : 0) | (kernel.isPeriodicityCheck() ? PERIODICITY_CHECK : 0);
+    }
+
+    /**
+     * Function used to get the bits of the distance between two adjacent pixels.
+     * @return The bits of the scale.
+     */
+    long getScaleBits() {
+        return scaleBits;
+    }
+
+    /**
+     * Function used to get the horizontal offset of the pixels from the multiples of the scale.
+     * @return The horizontal phase, in millionths of a pixel.
+     */
+    long getPhaseX() {
+        return phaseX;
+    }
+
+    /**
+     * Function used to get the vertical offset of the pixels from the multiples of the scale.
+     * @return The vertical phase, in millionths of a pixel.
+     */
+    long getPhaseY() {
+        return phaseY;
+    }
+
+    /**
+     * Function used to get the column of the tile on the grid.
+     * @return The column of the tile.
+     */
+    long getColumn() {
+        return column;
+    }
+
+    /**
+     * Function used to get the row of the tile on the grid.
+     * @return The row of the tile.
+     */
+    long getRow() {
+        return row;
+    }
+
+    /**
+     * Function used to get the maximal number of iterations of the pixels.
+     * @return The maximal number of iterations.
+     */
+    int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Function used to get the checks of the kernel enabled when computing the pixels.
+     * @return The combination of {@link #CARDIOID_CHECK} and {@link #PERIODICITY_CHECK}.
+     */
+    int getFlags() {
+        return flags;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof TileKey other)) return false;
+        return scaleBits == other.scaleBits && phaseX == other.phaseX && phaseY == other.phaseY
+                && column == other.column && row == other.row && maxIterations == other.maxIterations && flags == other.flags;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Long.hashCode(scaleBits);
+        hash = 31 * hash + Long.hashCode(phaseX);
+        hash = 31 * hash + Long.hashCode(phaseY);
+        hash = 31 * hash + Long.hashCode(column);
+        hash = 31 * hash + Long.hashCode(row);
+        hash = 31 * hash + maxIterations;
+        return 31 * hash + flags;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TileKey[scale=%s, phase=(%d, %d), tile=(%d, %d), maxIterations=%d, flags=%d]", Double.longBitsToDouble(scaleBits), phaseX, phaseY, column, row, maxIterations, flags);
+    }
+}
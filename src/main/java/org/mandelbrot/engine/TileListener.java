@@ -0,0 +1,14 @@
+package org.mandelbrot.engine;
+
+/**
+ * The listener notified each time a tile of a rendering has been computed, used to publish partial results before the whole image is complete.
+ */
+@FunctionalInterface
+public interface TileListener {
+    /**
+     * Function called, on the thread that computed it, once all pixels of a tile have been written in the result.
+     * @param tile The tile that has been computed.
+     * @param result The result containing the iterations and colors of the tile.
+     */
+    void tileCompleted(Tile tile, RenderResult result);
+}
@@ -0,0 +1,343 @@
+package org.mandelbrot.engine;
+
+import org.mandelbrot.metrics.ThreadMeter;
+import org.mandelbrot.metrics.TileEvent;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+import static org.mandelbrot.utils.Constants.*;
+
+/**
+ * The scheduler distributing the tiles of a rendering on the threads of an executor.
+ * On a {@link ForkJoinPool}, the region is recursively split in halves, on multiples of {@link org.mandelbrot.utils.Constants#COARSEST_STRIDE}, until the estimated cost of a tile, derived from the measured cost of the previous tiles, reaches a target duration. The idle workers then steal the remaining halves from the busy ones, so that expensive regions of the image are spread among all threads.
+ * The cost is estimated per scheduled sample, separately for each kind of {@link Pass}, so that the cost of a pass never sets the granularity of a very different one.
+ */
+public class TileScheduler {
+    /**
+     * The weight of the last measured tile in the estimation of the cost of a pixel.
+     */
+    private static final double SMOOTHING = 0.2;
+
+    /**
+     * The duration a single tile should take to compute, in nanoseconds.
+     */
+    private volatile long targetTileNanos;
+
+    /**
+     * The estimated cost of a sample in nanoseconds for each kind of pass, or 0 if no tile of the pass has been measured yet.
+     */
+    private final double[] nanosPerSample = new double[Pass.values().length];
+
+    /**
+     * The kinds of passes whose costs are estimated separately.
+     */
+    public enum Pass {
+        /**
+         * A progressive pass computing one pixel out of several, whose samples are scattered.
+         */
+        COARSE,
+
+        /**
+         * A pass computing every pixel of the tiles, or every pixel the solid guessing does not fill.
+         */
+        FULL,
+
+        /**
+         * A pass supersampling the pixels on the edges of a complete rendering.
+         */
+        SUPERSAMPLING
+    }
+
+    /**
+     * The Constructor function of the TileScheduler class, using the default target tile duration.
+     */
+    public TileScheduler() {
+        this(TARGET_TILE_NANOS);
+    }
+
+    /**
+     * The Constructor function of the TileScheduler class.
+     * @param targetTileNanos The duration a single tile should take to compute, in nanoseconds.
+     */
+    public TileScheduler(long targetTileNanos) {
+        setTargetTileNanos(targetTileNanos);
+    }
+
+    /**
+     * Function used to get the duration a single tile should take to compute.
+     * @return The target tile duration in nanoseconds.
+     */
+    public long getTargetTileNanos() {
+        return targetTileNanos;
+    }
+
+    /**
+     * Function used to change the duration a single tile should take to compute, which sets the size of the tiles the regions are split into.
+     * Shorter tiles balance the load better between the threads, longer ones spend less time splitting and scheduling. The change applies to the tiles not split yet.
+     * @param targetTileNanos The target tile duration in nanoseconds.
+     */
+    public void setTargetTileNanos(long targetTileNanos) {
+        if(targetTileNanos <= 0) {
+            throw new IllegalArgumentException("Invalid target tile duration: " + targetTileNanos);
+        }
+        this.targetTileNanos = targetTileNanos;
+    }
+
+    /**
+     * Function used to compute a region by recursively splitting it on a fork/join pool.
+     * @param region The region we want to compute.
+     * @param pool The pool on which the tiles are computed.
+     * @param work The computation performed on each tile, returning the number of pixels it has computed.
+     * @param token The token checked before each tile to skip the remaining work of a cancelled rendering.
+     * @param pass The kind of pass, whose cost is estimated apart from the other ones.
+     * @param density The fraction of the pixels of a tile actually computed by the work, used to estimate the cost of a tile.
+     * @return A future completed with the load report once the whole region has been computed or skipped.
+     */
+    public CompletableFuture<LoadReport> schedule(Tile region, ForkJoinPool pool, ToLongFunction<Tile> work, CancellationToken token, Pass pass, double density) {
+        LoadRecorder recorder = new LoadRecorder(token);
+        TileTask root = new TileTask(region, work, recorder, pass, density);
+        return CompletableFuture.runAsync(root::invoke, pool).thenApply(ignored -> recorder.report());
+    }
+
+    /**
+     * Function used to compute a fixed list of tiles on an executor, one task per tile.
+     * @param tiles The tiles we want to compute.
+     * @param executor The executor on which the tiles are computed.
+     * @param work The computation performed on each tile, returning the number of pixels it has computed.
+     * @param token The token checked before each tile to skip the remaining work of a cancelled rendering.
+     * @return A future completed with the load report once all tiles have been computed or skipped.
+     */
+    public CompletableFuture<LoadReport> schedule(List<Tile> tiles, Executor executor, ToLongFunction<Tile> work, CancellationToken token) {
+        LoadRecorder recorder = new LoadRecorder(token);
+        CompletableFuture<?>[] futures = tiles.stream()
+                .map(tile -> CompletableFuture.runAsync(() -> recorder.run(tile, work), executor))
+                .toArray(CompletableFuture<?>[]::new);
+        return CompletableFuture.allOf(futures).thenApply(ignored -> recorder.report());
+    }
+
+    /**
+     * Function used to get the estimated cost of a sample of a kind of pass.
+     * @param pass The kind of pass.
+     * @return The estimated cost of a sample in nanoseconds, or 0 if no tile of the pass has been measured yet.
+     */
+    public synchronized double getNanosPerSample(Pass pass) {
+        return nanosPerSample[pass.ordinal()];
+    }
+
+    /**
+     * Function used to update the estimated cost of a sample of a kind of pass with the measured duration of a tile.
+     * The cost is spread over the samples scheduled in the tile, the area times the density, rather than over the pixels the work reports, so that the estimate is used as it is measured.
+     * @param pass The kind of pass.
+     * @param samples The number of samples scheduled in the tile.
+     * @param nanos The time it took to compute the tile, in nanoseconds.
+     */
+    private synchronized void record(Pass pass, double samples, long nanos) {
+        if(samples <= 0) return;
+        double sample = nanos / samples;
+        double estimate = nanosPerSample[pass.ordinal()];
+        nanosPerSample[pass.ordinal()] = estimate == 0 ? sample : estimate + SMOOTHING * (sample - estimate);
+    }
+
+    /**
+     * Function used to know if a tile should be split before being computed.
+     * @param tile The tile we want to compute.
+     * @param pass The kind of pass.
+     * @param density The fraction of the pixels of the tile actually computed.
+     * @return true if the tile should be split in two halves, false otherwise.
+     */
+    private boolean shouldSplit(Tile tile, Pass pass, double density) {
+        int side = Math.max(tile.getWidth(), tile.getHeight());
+        if(side <= MIN_TILE_SIZE) return false;
+        if(side > MAX_TILE_SIZE) return true;
+        double estimate = getNanosPerSample(pass);
+        if(estimate == 0) return side > TILE_SIZE;
+        return estimate * tile.getArea() * density > targetTileNanos;
+    }
+
+    /**
+     * Function used to round a split position down to a multiple of the coarsest progressive stride, so that the blocks filled by a progressive pass never cross the border of a tile.
+     * @param half The exact half of the side of the tile.
+     * @return The aligned split position.
+     */
+    private static int align(int half) {
+        int aligned = half - half % COARSEST_STRIDE;
+        return aligned == 0 ? half : aligned;
+    }
+
+    /**
+     * The fork/join task computing a tile, or splitting it in two halves along its longest side.
+     */
+    private class TileTask extends RecursiveAction {
+        /**
+         * The tile computed by the task.
+         */
+        private final Tile tile;
+
+        /**
+         * The computation performed on each tile.
+         */
+        private final ToLongFunction<Tile> work;
+
+        /**
+         * The recorder of the time spent by each thread.
+         */
+        private final LoadRecorder recorder;
+
+        /**
+         * The kind of pass the tile belongs to.
+         */
+        private final Pass pass;
+
+        /**
+         * The fraction of the pixels of a tile actually computed by the work.
+         */
+        private final double density;
+
+        /**
+         * The Constructor function of the TileTask class.
+         * @param tile The tile computed by the task.
+         * @param work The computation performed on each tile, returning the number of pixels it has computed.
+         * @param recorder The recorder of the time spent by each thread.
+         * @param pass The kind of pass the tile belongs to.
+         * @param density The fraction of the pixels of a tile actually computed by the work.
+         */
+        TileTask(Tile tile, ToLongFunction<Tile> work, LoadRecorder recorder, Pass pass, double density) {
+            this.tile = tile;
+            this.work = work;
+            this.recorder = recorder;
+            this.pass = pass;
+            this.density = density;
+        }
+
+        @Override
+        protected void compute() {
+            if(recorder.isCancelled()) return;
+            if(!shouldSplit(tile, pass, density)) {
+                long start = System.nanoTime();
+                recorder.run(tile, work);
+                if(!recorder.isCancelled()) record(pass, tile.getArea() * density, System.nanoTime() - start);
+                return;
+            }
+            int x = tile.getX();
+            int y = tile.getY();
+            int width = tile.getWidth();
+            int height = tile.getHeight();
+            if(width >= height) {
+                int half = align(width / 2);
+                invokeAll(new TileTask(new Tile(x, y, half, height), work, recorder, pass, density),
+                        new TileTask(new Tile(x + half, y, width - half, height), work, recorder, pass, density));
+            } else {
+                int half = align(height / 2);
+                invokeAll(new TileTask(new Tile(x, y, width, half), work, recorder, pass, density),
+                        new TileTask(new Tile(x, y + half, width, height - half), work, recorder, pass, density));
+            }
+        }
+    }
+
+    /**
+     * The accumulator of the time spent by each thread computing the tiles of a single rendering.
+     */
+    private static class LoadRecorder {
+        /**
+         * The moment the rendering has been scheduled, in nanoseconds.
+         */
+        private final long start = System.nanoTime();
+
+        /**
+         * The number of computed tiles.
+         */
+        private final LongAdder tiles = new LongAdder();
+
+        /**
+         * The time spent computing tiles, indexed by thread.
+         */
+        private final Map<Thread, LongAdder> busy = new ConcurrentHashMap<>();
+
+        /**
+         * The processor time used computing tiles, indexed by thread.
+         */
+        private final Map<Thread, LongAdder> cpu = new ConcurrentHashMap<>();
+
+        /**
+         * The number of bytes allocated while computing tiles.
+         */
+        private final LongAdder allocated = new LongAdder();
+
+        /**
+         * The number of tiles in each latency bucket (see {@link LoadReport#getLatencyBucket(long)}).
+         */
+        private final AtomicLongArray latencies = new AtomicLongArray(TILE_LATENCY_BUCKETS);
+
+        /**
+         * The token of the rendering.
+         */
+        private final CancellationToken token;
+
+        /**
+         * The Constructor function of the LoadRecorder class.
+         * @param token The token of the rendering.
+         */
+        LoadRecorder(CancellationToken token) {
+            this.token = token;
+        }
+
+        /**
+         * Function used to know if the rendering has been cancelled.
+         * @return true if the rendering has been cancelled, false otherwise.
+         */
+        boolean isCancelled() {
+            return token.isCancelled();
+        }
+
+        /**
+         * Function used to compute a tile while measuring the time, processor time and memory it takes, and emitting its Flight Recorder event.
+         * @param tile The tile we want to compute.
+         * @param work The computation performed on the tile.
+         * @return The number of pixels computed in the tile.
+         */
+        long run(Tile tile, ToLongFunction<Tile> work) {
+            if(isCancelled()) return 0;
+            TileEvent event = new TileEvent();
+            event.begin();
+            long cpuStart = ThreadMeter.getCpuNanos();
+            long allocatedStart = ThreadMeter.getAllocatedBytes();
+            long tileStart = System.nanoTime();
+            long pixels = work.applyAsLong(tile);
+            long nanos = System.nanoTime() - tileStart;
+            allocated.add(ThreadMeter.getAllocatedBytes() - allocatedStart);
+            cpu.computeIfAbsent(Thread.currentThread(), thread -> new LongAdder()).add(ThreadMeter.getCpuNanos() - cpuStart);
+            busy.computeIfAbsent(Thread.currentThread(), thread -> new LongAdder()).add(nanos);
+            latencies.incrementAndGet(LoadReport.getLatencyBucket(nanos));
+            tiles.increment();
+            if(event.shouldCommit()) {
+                event.set(tile.getX(), tile.getY(), tile.getWidth(), tile.getHeight(), pixels);
+                event.commit();
+            }
+            return pixels;
+        }
+
+        /**
+         * Function used to build the load report of the rendering.
+         * @return The report of the time spent by each thread.
+         */
+        LoadReport report() {
+            Map<String, Long> busyNanos = new HashMap<>();
+            busy.forEach((thread, nanos) -> busyNanos.merge(thread.getName(), nanos.sum(), Long::sum));
+            Map<String, Long> cpuNanos = new HashMap<>();
+            cpu.forEach((thread, nanos) -> cpuNanos.merge(thread.getName(), nanos.sum(), Long::sum));
+            long[] histogram = new long[latencies.length()];
+            for(int i = 0; i < histogram.length; i++) histogram[i] = latencies.get(i);
+            return new LoadReport(System.nanoTime() - start, tiles.sum(), busyNanos, cpuNanos, allocated.sum(), histogram);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.mandelbrot.engine;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * The configuration of the rendering calibrated for a machine: the number of threads computing the tiles and the duration each tile should take.
+ * It is kept in a properties file along with a description of the machine, so that a profile copied to another machine or left over from another virtual machine is not reused.
+ */
+public final class TuningProfile {
+    /**
+     * The description of the machine the profile has been calibrated on.
+     */
+    private final String machine;
+
+    /**
+     * The number of threads computing the tiles.
+     */
+    private final int parallelism;
+
+    /**
+     * The duration a single tile should take to compute, in nanoseconds.
+     */
+    private final long targetTileNanos;
+
+    /**
+     * The throughput measured by the calibration, in pixels per second.
+     */
+    private final double pixelsPerSecond;
+
+    /**
+     * The Constructor function of the TuningProfile class, for the current machine.
+     * @param parallelism The number of threads computing the tiles.
+     * @param targetTileNanos The duration a single tile should take to compute, in nanoseconds.
+     * @param pixelsPerSecond The throughput measured by the calibration, in pixels per second.
+     */
+    public TuningProfile(int parallelism, long targetTileNanos, double pixelsPerSecond) {
+        this(currentMachine(), parallelism, targetTileNanos, pixelsPerSecond);
+    }
+
+    /**
+     * The Constructor function of the TuningProfile class.
+     * @param machine The description of the machine the profile has been calibrated on.
+     * @param parallelism The number of threads computing the tiles.
+     * @param targetTileNanos The duration a single tile should take to compute, in nanoseconds.
+     * @param pixelsPerSecond The throughput measured by the calibration, in pixels per second.
+     */
+    private TuningProfile(String machine, int parallelism, long targetTileNanos, double pixelsPerSecond) {
+        if(parallelism <= 0 || targetTileNanos <= 0) {
+            throw new IllegalArgumentException("Invalid profile: " + parallelism + " threads, " + targetTileNanos + "ns tiles");
+        }
+        this.machine = machine;
+        this.parallelism = parallelism;
+        this.targetTileNanos = targetTileNanos;
+        this.pixelsPerSecond = pixelsPerSecond;
+    }
+
+    /**
+     * Function used to describe the current machine by the properties the best configuration depends on.
+     * @return The description of the machine.
+     */
+    public static String currentMachine() {
+        return Runtime.getRuntime().availableProcessors() + " cpus/" + System.getProperty("os.arch") + "/" + System.getProperty("java.vm.name") + " " + Runtime.version().feature();
+    }
+
+    /**
+     * Function used to read the profile of the current machine from a file.
+     * @param file The file the profile has been saved to.
+     * @return The profile, or null if the file does not exist or has been calibrated on another machine.
+     * @throws IOException If the file cannot be read or is not a valid profile.
+     */
+    public static TuningProfile load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try(Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if(!currentMachine().equals(properties.getProperty("machine"))) {
+            return null;
+        }
+        try {
+            return new TuningProfile(currentMachine(),
+                    Integer.parseInt(properties.getProperty("parallelism")),
+                    Long.parseLong(properties.getProperty("targetTileNanos")),
+                    Double.parseDouble(properties.getProperty("pixelsPerSecond")));
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new IOException("Invalid profile " + file + ": " + e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Function used to save the profile to a file, replacing any previous one.
+     * @param file The file the profile is saved to.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("machine", machine);
+        properties.setProperty("parallelism", Integer.toString(parallelism));
+        properties.setProperty("targetTileNanos", Long.toString(targetTileNanos));
+        properties.setProperty("pixelsPerSecond", Double.toString(pixelsPerSecond));
+        Path parent = file.toAbsolutePath().getParent();
+        if(parent != null) Files.createDirectories(parent);
+        try(Writer writer = Files.newBufferedWriter(file)) {
+            properties.store(writer, "Rendering configuration calibrated for this machine");
+        }
+    }
+
+    /**
+     * Function used to get the number of threads computing the tiles.
+     * @return The parallelism of the profile.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Function used to get the duration a single tile should take to compute.
+     * @return The target tile duration in nanoseconds.
+     */
+    public long getTargetTileNanos() {
+        return targetTileNanos;
+    }
+
+    /**
+     * Function used to get the throughput measured by the calibration.
+     * @return The throughput in pixels per second.
+     */
+    public double getPixelsPerSecond() {
+        return pixelsPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d threads, %dus tiles (%.1f Mpixels/s)", parallelism, targetTileNanos / 1000, pixelsPerSecond / 1e6);
+    }
+}
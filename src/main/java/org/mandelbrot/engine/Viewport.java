@@ -0,0 +1,336 @@
+package org.mandelbrot.engine;
+
+import org.mandelbrot.utils.Constants;
+import org.mandelbrot.utils.Utils;
+
+import java.math.BigDecimal;
+import java.util.OptionalInt;
+
+/**
+ * The immutable description of the region of the complex plane we want to render and of the resolution of the rendering.
+ * The top left corner is also kept in arbitrary precision, so that the viewports zoomed beyond the precision of the doubles can still be located.
+ * A viewport cut from a larger image (see {@link #getStrip} and {@link #getRegion}) locates its pixels from the corner of that image, so that they are exactly the pixels of the image it covers.
+ */
+public final class Viewport {
+    /**
+     * The real part of the complex number located at the top left corner of the image this viewport has been cut from, or of this viewport if it is a whole image.
+     */
+    private final double left;
+
+    /**
+     * The imaginary part of the complex number located at the top left corner of the image this viewport has been cut from, or of this viewport if it is a whole image.
+     */
+    private final double top;
+
+    /**
+     * The column of the image this viewport has been cut from at which its left pixels are, 0 for a whole image.
+     */
+    private final int column;
+
+    /**
+     * The row of the image this viewport has been cut from at which its top pixels are, 0 for a whole image.
+     */
+    private final int row;
+
+    /**
+     * The real part of the top left corner, in arbitrary precision.
+     */
+    private final BigDecimal preciseLeft;
+
+    /**
+     * The imaginary part of the top left corner, in arbitrary precision.
+     */
+    private final BigDecimal preciseTop;
+
+    /**
+     * The distance in the complex plane between two adjacent pixels.
+     */
+    private final double scale;
+
+    /**
+     * The width of the image in pixels.
+     */
+    private final int width;
+
+    /**
+     * The height of the image in pixels.
+     */
+    private final int height;
+
+    /**
+     * The maximal number of iterations performed for each pixel.
+     */
+    private final int maxIterations;
+
+    /**
+     * The Constructor function of the Viewport class.
+     * @param left The real part of the complex number located at the top left corner of the image.
+     * @param top The imaginary part of the complex number located at the top left corner of the image.
+     * @param scale The distance in the complex plane between two adjacent pixels.
+     * @param width The width of the image in pixels.
+     * @param height The height of the image in pixels.
+     * @param maxIterations The maximal number of iterations performed for each pixel.
+     */
+    public Viewport(double left, double top, double scale, int width, int height, int maxIterations) {
+        this(new BigDecimal(left), new BigDecimal(top), scale, width, height, maxIterations);
+    }
+
+    /**
+     * The Constructor function of the Viewport class, locating the top left corner in arbitrary precision.
+     * @param left The real part of the complex number located at the top left corner of the image.
+     * @param top The imaginary part of the complex number located at the top left corner of the image.
+     * @param scale The distance in the complex plane between two adjacent pixels.
+     * @param width The width of the image in pixels.
+     * @param height The height of the image in pixels.
+     * @param maxIterations The maximal number of iterations performed for each pixel.
+     */
+    public Viewport(BigDecimal left, BigDecimal top, double scale, int width, int height, int maxIterations) {
+        this(left, top, left.doubleValue(), top.doubleValue(), 0, 0, scale, width, height, maxIterations);
+    }
+
+    /**
+     * The Constructor function of the Viewport class, for a viewport cut from a larger image, such as the viewport of a tile received by a worker process.
+     * @param left The real part of the complex number located at the top left corner of the viewport, in arbitrary precision.
+     * @param top The imaginary part of the complex number located at the top left corner of the viewport, in arbitrary precision.
+     * @param imageLeft The real part of the complex number located at the top left corner of the image.
+     * @param imageTop The imaginary part of the complex number located at the top left corner of the image.
+     * @param column The column of the image at which the left pixels of the viewport are.
+     * @param row The row of the image at which the top pixels of the viewport are.
+     * @param scale The distance in the complex plane between two adjacent pixels.
+     * @param width The width of the viewport in pixels.
+     * @param height The height of the viewport in pixels.
+     * @param maxIterations The maximal number of iterations performed for each pixel.
+     */
+    public Viewport(BigDecimal left, BigDecimal top, double imageLeft, double imageTop, int column, int row, double scale, int width, int height, int maxIterations) {
+        if(width <= 0 || height <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid viewport size: %dx%d", width, height));
+        }
+        this.preciseLeft = left;
+        this.preciseTop = top;
+        this.left = imageLeft;
+        this.top = imageTop;
+        this.column = column;
+        this.row = row;
+        this.scale = scale;
+        this.width = width;
+        this.height = height;
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Function used to get the real part of the complex number located at the top left corner of the image.
+     * @return The real part of the top left corner.
+     */
+    public double getLeft() {
+        return getReal(0);
+    }
+
+    /**
+     * Function used to get the imaginary part of the complex number located at the top left corner of the image.
+     * @return The imaginary part of the top left corner.
+     */
+    public double getTop() {
+        return getImaginary(0);
+    }
+
+    /**
+     * Function used to get the real part of the complex number located at the top left corner of the image this viewport has been cut from.
+     * @return The real part of the corner of the image, the one of this viewport if it is a whole image.
+     */
+    public double getImageLeft() {
+        return left;
+    }
+
+    /**
+     * Function used to get the imaginary part of the complex number located at the top left corner of the image this viewport has been cut from.
+     * @return The imaginary part of the corner of the image, the one of this viewport if it is a whole image.
+     */
+    public double getImageTop() {
+        return top;
+    }
+
+    /**
+     * Function used to get the column of the image this viewport has been cut from at which its left pixels are.
+     * @return The column of the left pixels in the image, 0 for a whole image.
+     */
+    public int getImageColumn() {
+        return column;
+    }
+
+    /**
+     * Function used to get the row of the image this viewport has been cut from at which its top pixels are.
+     * @return The row of the top pixels in the image, 0 for a whole image.
+     */
+    public int getImageRow() {
+        return row;
+    }
+
+    /**
+     * Function used to get the real part of the complex number located at the top left corner of the image, in arbitrary precision.
+     * @return The real part of the top left corner.
+     */
+    public BigDecimal getPreciseLeft() {
+        return preciseLeft;
+    }
+
+    /**
+     * Function used to get the imaginary part of the complex number located at the top left corner of the image, in arbitrary precision.
+     * @return The imaginary part of the top left corner.
+     */
+    public BigDecimal getPreciseTop() {
+        return preciseTop;
+    }
+
+    /**
+     * Function used to get the distance in the complex plane between two adjacent pixels.
+     * @return The distance between two adjacent pixels.
+     */
+    public double getScale() {
+        return scale;
+    }
+
+    /**
+     * Function used to get the width of the image in pixels.
+     * @return The width of the image.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Function used to get the height of the image in pixels.
+     * @return The height of the image.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Function used to get the maximal number of iterations performed for each pixel.
+     * @return The maximal number of iterations.
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Function used to get the real part of the complex number associated to a column of the image.
+     * @param x The column of the image.
+     * @return The real part of the associated complex number.
+     */
+    public double getReal(double x) {
+        return (x + column) * scale + left;
+    }
+
+    /**
+     * Function used to get the imaginary part of the complex number associated to a row of the image.
+     * @param y The row of the image.
+     * @return The imaginary part of the associated complex number.
+     */
+    public double getImaginary(double y) {
+        return (y + row) * scale + top;
+    }
+
+    /**
+     * Function used to get the tolerance of the periodicity check at the resolution of the viewport.
+     * @return The distance under which two values of an orbit are considered equal.
+     */
+    public double getPeriodicityTolerance() {
+        return scale * Constants.PERIODICITY_TOLERANCE;
+    }
+
+    /**
+     * Function used to know if the distance between two adjacent pixels is too small to be represented by doubles at the coordinates of the viewport, in which case the deep zoom engine is required.
+     * @return true if the viewport is beyond the precision of the doubles, false otherwise.
+     */
+    public boolean isDeepZoom() {
+        double magnitude = Math.max(Math.max(Math.abs(getLeft()), Math.abs(getReal(width))), Math.max(Math.abs(getTop()), Math.abs(getImaginary(height))));
+        return scale < Constants.DEEP_ZOOM_ULPS * Math.ulp(magnitude);
+    }
+
+    /**
+     * Function used to get the viewport of a horizontal strip of the image, with the same pixels as the rows of the image it covers.
+     * @param y The first row of the strip.
+     * @param rows The number of rows of the strip.
+     * @return The viewport of the strip.
+     */
+    public Viewport getStrip(int y, int rows) {
+        return getRegion(new Tile(0, y, width, rows));
+    }
+
+    /**
+     * Function used to get the viewport of a tile of the image, with the same pixels as the part of the image it covers.
+     * @param tile The tile of the image.
+     * @return The viewport of the tile.
+     */
+    public Viewport getRegion(Tile tile) {
+        BigDecimal preciseScale = new BigDecimal(scale);
+        BigDecimal regionLeft = preciseLeft.add(preciseScale.multiply(BigDecimal.valueOf(tile.getX())), Utils.getMathContext(scale));
+        BigDecimal regionTop = preciseTop.add(preciseScale.multiply(BigDecimal.valueOf(tile.getY())), Utils.getMathContext(scale));
+        return new Viewport(regionLeft, regionTop, left, top, column + tile.getX(), row + tile.getY(), scale, tile.getWidth(), tile.getHeight(), maxIterations);
+    }
+
+    /**
+     * Function used to know if another viewport covers the same area of the complex plane with the same pixels, whatever their maximal number of iterations.
+     * @param other The viewport we want to compare.
+     * @return true if both viewports have the same corner, scale and size, false otherwise.
+     */
+    public boolean hasSameArea(Viewport other) {
+        return preciseLeft.compareTo(other.preciseLeft) == 0 && preciseTop.compareTo(other.preciseTop) == 0
+                && Double.compare(scale, other.scale) == 0 && width == other.width && height == other.height;
+    }
+
+    /**
+     * Function used to get the number of columns, in pixels of this viewport, between the left border of another viewport and the left border of this one. At the same scale, the column x of this viewport shows the column x + offset of the other one.
+     * @param other The viewport we want to compare.
+     * @return The offset in columns, or nothing if it is not a whole number of pixels.
+     */
+    public OptionalInt getColumnOffset(Viewport other) {
+        return getPixelOffset(preciseLeft.subtract(other.preciseLeft));
+    }
+
+    /**
+     * Function used to get the number of rows, in pixels of this viewport, between the top border of another viewport and the top border of this one. At the same scale, the row y of this viewport shows the row y + offset of the other one.
+     * @param other The viewport we want to compare.
+     * @return The offset in rows, or nothing if it is not a whole number of pixels.
+     */
+    public OptionalInt getRowOffset(Viewport other) {
+        return getPixelOffset(preciseTop.subtract(other.preciseTop));
+    }
+
+    /**
+     * Function used to convert a distance in the complex plane into a whole number of pixels, if it is close enough to one.
+     * @param distance The distance in the complex plane.
+     * @return The number of pixels, or nothing if the distance is not a whole number of pixels.
+     */
+    private OptionalInt getPixelOffset(BigDecimal distance) {
+        double pixels = distance.doubleValue() / scale;
+        double rounded = Math.rint(pixels);
+        if(Math.abs(pixels - rounded) > Constants.PIXEL_ALIGNMENT_TOLERANCE || Math.abs(rounded) > Integer.MAX_VALUE) {
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of((int) rounded);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof Viewport other)) return false;
+        return hasSameArea(other) && maxIterations == other.maxIterations;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Double.hashCode(preciseLeft.doubleValue());
+        hash = 31 * hash + Double.hashCode(preciseTop.doubleValue());
+        hash = 31 * hash + Double.hashCode(scale);
+        hash = 31 * hash + width;
+        hash = 31 * hash + height;
+        return 31 * hash + maxIterations;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Viewport[left=%s, top=%s, scale=%s, size=%dx%d, maxIterations=%d]", preciseLeft.round(Utils.getMathContext(scale)), preciseTop.round(Utils.getMathContext(scale)), scale, width, height, maxIterations);
+    }
+}
@@ -0,0 +1,134 @@
+package org.mandelbrot.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Percentage;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * The Flight Recorder event of a rendering, from its request to its completion or cancellation.
+ */
+@Name("org.mandelbrot.Frame")
+@Label("Frame Rendered")
+@Category({"Mandelbrot", "Rendering"})
+@Description("A complete or cancelled rendering of a viewport")
+@StackTrace(false)
+public class FrameEvent extends Event {
+    /**
+     * The width of the rendered image in pixels.
+     */
+    @Label("Width")
+    private int width;
+
+    /**
+     * The height of the rendered image in pixels.
+     */
+    @Label("Height")
+    private int height;
+
+    /**
+     * The maximal number of iterations of the pixels.
+     */
+    @Label("Max Iterations")
+    private int maxIterations;
+
+    /**
+     * Whether the rendering has been cancelled before its completion.
+     */
+    @Label("Cancelled")
+    private boolean cancelled;
+
+    /**
+     * The processor time used by all the worker threads.
+     */
+    @Label("CPU Time")
+    @Timespan(Timespan.NANOSECONDS)
+    private long cpuTime;
+
+    /**
+     * The sum of the numbers of iterations of all the pixels.
+     */
+    @Label("Total Iterations")
+    private long totalIterations;
+
+    /**
+     * The number of iterations per second of wall time.
+     */
+    @Label("Iterations Per Second")
+    private double iterationsPerSecond;
+
+    /**
+     * The share of the pixels that reached the maximal number of iterations.
+     */
+    @Label("Pixels At Max Iterations")
+    @Percentage
+    private double maxedRatio;
+
+    /**
+     * The histogram of the iterations of the pixels, as the comma separated counts of its power-of-two buckets.
+     */
+    @Label("Iteration Histogram")
+    @Description("The number of pixels which took [2^i, 2^(i+1)) iterations, for each bucket i")
+    private String iterationHistogram;
+
+    /**
+     * The number of tiles computed.
+     */
+    @Label("Tiles")
+    private long tileCount;
+
+    /**
+     * The number of bytes allocated by the worker threads.
+     */
+    @Label("Allocated")
+    @DataAmount
+    private long allocatedBytes;
+
+    /**
+     * The number of pixels supersampled by the anti-aliasing.
+     */
+    @Label("Refined Pixels")
+    private long refinedPixels;
+
+    /**
+     * The Constructor function of the FrameEvent class, describing the image before its rendering starts.
+     * @param width The width of the image in pixels.
+     * @param height The height of the image in pixels.
+     * @param maxIterations The maximal number of iterations of the pixels.
+     */
+    public FrameEvent(int width, int height, int maxIterations) {
+        this.width = width;
+        this.height = height;
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Function used to describe the complete rendering before committing the event.
+     * @param metrics The metrics of the rendering.
+     */
+    void set(FrameMetrics metrics) {
+        cpuTime = metrics.getTotalCpuNanos();
+        totalIterations = metrics.getTotalIterations();
+        iterationsPerSecond = metrics.getIterationsPerSecond();
+        maxedRatio = metrics.getMaxedRatio();
+        iterationHistogram = Arrays.stream(metrics.getIterationHistogram()).mapToObj(Long::toString).collect(Collectors.joining(","));
+        tileCount = metrics.getTileCount();
+        allocatedBytes = metrics.getAllocatedBytes();
+        refinedPixels = metrics.getRefinedPixels();
+    }
+
+    /**
+     * Function used to mark the rendering as cancelled before committing the event.
+     */
+    void setCancelled() {
+        cancelled = true;
+    }
+}
@@ -0,0 +1,241 @@
+package org.mandelbrot.metrics;
+
+import org.mandelbrot.utils.Constants;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The measures of a single complete rendering: its duration, the resources used by the worker threads and the amount of iterations it required.
+ */
+public final class FrameMetrics {
+    /**
+     * The width of the rendered image in pixels.
+     */
+    private final int width;
+
+    /**
+     * The height of the rendered image in pixels.
+     */
+    private final int height;
+
+    /**
+     * The maximal number of iterations of the pixels.
+     */
+    private final int maxIterations;
+
+    /**
+     * The elapsed time between the request of the rendering and its completion, in nanoseconds.
+     */
+    private final long wallNanos;
+
+    /**
+     * The processor time each worker thread has used computing tiles, in nanoseconds, indexed by the name of the thread.
+     */
+    private final Map<String, Long> cpuNanos;
+
+    /**
+     * The sum of the numbers of iterations of all the pixels.
+     */
+    private final long totalIterations;
+
+    /**
+     * The number of pixels that reached the maximal number of iterations.
+     */
+    private final long maxedPixels;
+
+    /**
+     * The number of tiles computed.
+     */
+    private final long tileCount;
+
+    /**
+     * The number of tiles by latency, the bucket i counting the tiles computed in [2^i, 2^(i+1)) microseconds.
+     */
+    private final long[] tileLatencies;
+
+    /**
+     * The number of pixels by number of iterations, the bucket i counting the pixels which took [2^i, 2^(i+1)) iterations, the bucket 0 also counting those which took none.
+     */
+    private final long[] iterationHistogram;
+
+    /**
+     * The number of bytes allocated on the heap by the worker threads while computing the tiles.
+     */
+    private final long allocatedBytes;
+
+    /**
+     * The number of pixels supersampled by the anti-aliasing.
+     */
+    private final long refinedPixels;
+
+    /**
+     * The Constructor function of the FrameMetrics class.
+     * @param width The width of the rendered image in pixels.
+     * @param height The height of the rendered image in pixels.
+     * @param maxIterations The maximal number of iterations of the pixels.
+     * @param wallNanos The elapsed time of the rendering, in nanoseconds.
+     * @param cpuNanos The processor time each worker thread has used, in nanoseconds, indexed by the name of the thread.
+     * @param totalIterations The sum of the numbers of iterations of all the pixels.
+     * @param maxedPixels The number of pixels that reached the maximal number of iterations.
+     * @param tileCount The number of tiles computed.
+     * @param tileLatencies The histogram of the latencies of the tiles, in power-of-two buckets of microseconds.
+     * @param iterationHistogram The histogram of the iterations of the pixels, with {@link Constants#ITERATION_BUCKETS} power-of-two buckets.
+     * @param allocatedBytes The number of bytes allocated by the worker threads.
+     * @param refinedPixels The number of pixels supersampled by the anti-aliasing.
+     */
+    public FrameMetrics(int width, int height, int maxIterations, long wallNanos, Map<String, Long> cpuNanos, long totalIterations,
+                        long maxedPixels, long tileCount, long[] tileLatencies, long[] iterationHistogram,
+                        long allocatedBytes, long refinedPixels) {
+        this.width = width;
+        this.height = height;
+        this.maxIterations = maxIterations;
+        this.wallNanos = wallNanos;
+        this.cpuNanos = Collections.unmodifiableMap(new TreeMap<>(cpuNanos));
+        this.totalIterations = totalIterations;
+        this.maxedPixels = maxedPixels;
+        this.tileCount = tileCount;
+        this.tileLatencies = tileLatencies.clone();
+        this.iterationHistogram = iterationHistogram.clone();
+        this.allocatedBytes = allocatedBytes;
+        this.refinedPixels = refinedPixels;
+    }
+
+    /**
+     * Function used to get the width of the rendered image.
+     * @return The width in pixels.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Function used to get the height of the rendered image.
+     * @return The height in pixels.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Function used to get the maximal number of iterations of the pixels.
+     * @return The maximal number of iterations.
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Function used to get the elapsed time between the request of the rendering and its completion.
+     * @return The wall time in nanoseconds.
+     */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * Function used to get the processor time each worker thread has used computing tiles.
+     * @return The processor time in nanoseconds, indexed by the name of the thread.
+     */
+    public Map<String, Long> getCpuNanos() {
+        return cpuNanos;
+    }
+
+    /**
+     * Function used to get the processor time used by all the worker threads.
+     * @return The total processor time in nanoseconds.
+     */
+    public long getTotalCpuNanos() {
+        return cpuNanos.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Function used to get the sum of the numbers of iterations of all the pixels.
+     * @return The total number of iterations.
+     */
+    public long getTotalIterations() {
+        return totalIterations;
+    }
+
+    /**
+     * Function used to get the number of iterations per second of wall time.
+     * @return The iteration throughput of the rendering.
+     */
+    public double getIterationsPerSecond() {
+        return wallNanos == 0 ? 0 : totalIterations * 1e9 / wallNanos;
+    }
+
+    /**
+     * Function used to get the number of pixels that reached the maximal number of iterations.
+     * @return The number of pixels considered inside the set.
+     */
+    public long getMaxedPixels() {
+        return maxedPixels;
+    }
+
+    /**
+     * Function used to get the share of the pixels that reached the maximal number of iterations.
+     * @return The ratio of the pixels considered inside the set, between 0 and 1.
+     */
+    public double getMaxedRatio() {
+        return (double) maxedPixels / ((long) width * height);
+    }
+
+    /**
+     * Function used to get the number of tiles computed.
+     * @return The number of tiles.
+     */
+    public long getTileCount() {
+        return tileCount;
+    }
+
+    /**
+     * Function used to get the histogram of the latencies of the tiles.
+     * @return The number of tiles by latency, the bucket i counting the tiles computed in [2^i, 2^(i+1)) microseconds.
+     */
+    public long[] getTileLatencies() {
+        return tileLatencies.clone();
+    }
+
+    /**
+     * Function used to get the histogram bucket of a number of iterations.
+     * @param iterations The number of iterations of a pixel.
+     * @return The index of the bucket counting the pixel.
+     */
+    public static int getIterationBucket(int iterations) {
+        return iterations <= 0 ? 0 : Math.min(31 - Integer.numberOfLeadingZeros(iterations), Constants.ITERATION_BUCKETS - 1);
+    }
+
+    /**
+     * Function used to get the histogram of the iterations of the pixels.
+     * @return The number of pixels by number of iterations, the bucket i counting the pixels which took [2^i, 2^(i+1)) iterations.
+     */
+    public long[] getIterationHistogram() {
+        return iterationHistogram.clone();
+    }
+
+    /**
+     * Function used to get the number of bytes allocated on the heap by the worker threads while computing the tiles.
+     * @return The allocated bytes.
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Function used to get the number of pixels supersampled by the anti-aliasing.
+     * @return The number of refined pixels.
+     */
+    public long getRefinedPixels() {
+        return refinedPixels;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%dx%d@%d in %dms (cpu %dms) - %.3g iterations/s - %.1f%% at max - %d tiles - %d KB allocated",
+                width, height, maxIterations, TimeUnit.NANOSECONDS.toMillis(wallNanos), TimeUnit.NANOSECONDS.toMillis(getTotalCpuNanos()),
+                getIterationsPerSecond(), getMaxedRatio() * 100, tileCount, allocatedBytes / 1024);
+    }
+}
@@ -0,0 +1,214 @@
+package org.mandelbrot.metrics;
+
+import org.mandelbrot.utils.Constants;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The registry of the metrics of the renderings of a renderer, accumulated in process and exposed as a JMX MBean and as Flight Recorder events.
+ */
+public class RenderMetrics implements RenderMetricsMBean {
+    /**
+     * The domain of the names of the registered MBeans.
+     */
+    private static final String DOMAIN = "org.mandelbrot";
+
+    /**
+     * The number of complete renderings.
+     */
+    private long frames;
+
+    /**
+     * The number of renderings cancelled before their completion.
+     */
+    private long cancelledFrames;
+
+    /**
+     * The sum of the numbers of iterations of the pixels of all the complete renderings.
+     */
+    private long totalIterations;
+
+    /**
+     * The cumulated wall time of the complete renderings, in nanoseconds.
+     */
+    private long totalWallNanos;
+
+    /**
+     * The cumulated processor time of the worker threads of the complete renderings, in nanoseconds.
+     */
+    private long totalCpuNanos;
+
+    /**
+     * The cumulated number of bytes allocated by the worker threads of the complete renderings.
+     */
+    private long totalAllocatedBytes;
+
+    /**
+     * The histogram of the latencies of the tiles of all the complete renderings.
+     */
+    private final long[] tileLatencies = new long[Constants.TILE_LATENCY_BUCKETS];
+
+    /**
+     * The histogram of the iterations of the pixels of all the complete renderings.
+     */
+    private final long[] iterationHistogram = new long[Constants.ITERATION_BUCKETS];
+
+    /**
+     * The metrics of the last complete rendering, or null if none has completed yet.
+     */
+    private FrameMetrics last;
+
+    /**
+     * Function used to record a complete rendering and to commit its Flight Recorder event.
+     * @param metrics The metrics of the rendering.
+     * @param event The event begun when the rendering has been requested.
+     */
+    public void record(FrameMetrics metrics, FrameEvent event) {
+        synchronized (this) {
+            frames++;
+            totalIterations += metrics.getTotalIterations();
+            totalWallNanos += metrics.getWallNanos();
+            totalCpuNanos += metrics.getTotalCpuNanos();
+            totalAllocatedBytes += metrics.getAllocatedBytes();
+            long[] latencies = metrics.getTileLatencies();
+            for(int i = 0; i < latencies.length; i++) {
+                tileLatencies[i] += latencies[i];
+            }
+            long[] iterations = metrics.getIterationHistogram();
+            for(int i = 0; i < iterations.length; i++) {
+                iterationHistogram[i] += iterations[i];
+            }
+            last = metrics;
+        }
+        if(event.shouldCommit()) {
+            event.set(metrics);
+            event.commit();
+        }
+    }
+
+    /**
+     * Function used to record a rendering cancelled before its completion and to commit its Flight Recorder event.
+     * @param event The event begun when the rendering has been requested.
+     */
+    public void recordCancelled(FrameEvent event) {
+        synchronized (this) {
+            cancelledFrames++;
+        }
+        if(event.shouldCommit()) {
+            event.setCancelled();
+            event.commit();
+        }
+    }
+
+    /**
+     * Function used to register the metrics on the platform MBean server.
+     * @param name The name distinguishing this renderer from the other registered ones.
+     * @return The name under which the metrics are registered.
+     * @throws JMException If the MBean cannot be registered, for instance because the name is already used.
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName(DOMAIN + ":type=RenderMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    @Override
+    public synchronized long getFrameCount() {
+        return frames;
+    }
+
+    @Override
+    public synchronized long getCancelledFrameCount() {
+        return cancelledFrames;
+    }
+
+    @Override
+    public synchronized long getTotalIterations() {
+        return totalIterations;
+    }
+
+    @Override
+    public synchronized long getTotalWallMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalWallNanos);
+    }
+
+    @Override
+    public synchronized long getTotalCpuMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalCpuNanos);
+    }
+
+    @Override
+    public synchronized long getTotalAllocatedBytes() {
+        return totalAllocatedBytes;
+    }
+
+    @Override
+    public synchronized long getLastWallMillis() {
+        return last == null ? 0 : TimeUnit.NANOSECONDS.toMillis(last.getWallNanos());
+    }
+
+    @Override
+    public synchronized long getLastCpuMillis() {
+        return last == null ? 0 : TimeUnit.NANOSECONDS.toMillis(last.getTotalCpuNanos());
+    }
+
+    @Override
+    public synchronized double getLastIterationsPerSecond() {
+        return last == null ? 0 : last.getIterationsPerSecond();
+    }
+
+    @Override
+    public synchronized double getLastMaxedRatio() {
+        return last == null ? 0 : last.getMaxedRatio();
+    }
+
+    @Override
+    public synchronized long getLastAllocatedBytes() {
+        return last == null ? 0 : last.getAllocatedBytes();
+    }
+
+    @Override
+    public synchronized long getLastRefinedPixels() {
+        return last == null ? 0 : last.getRefinedPixels();
+    }
+
+    @Override
+    public synchronized long[] getTileLatencyHistogram() {
+        return tileLatencies.clone();
+    }
+
+    @Override
+    public synchronized long[] getIterationHistogram() {
+        return iterationHistogram.clone();
+    }
+
+    /**
+     * Function used to get the metrics of the last complete rendering.
+     * @return The metrics of the last frame, or null if none has completed yet.
+     */
+    public synchronized FrameMetrics getLastFrame() {
+        return last;
+    }
+
+    @Override
+    public synchronized void reset() {
+        frames = 0;
+        cancelledFrames = 0;
+        totalIterations = 0;
+        totalWallNanos = 0;
+        totalCpuNanos = 0;
+        totalAllocatedBytes = 0;
+        Arrays.fill(tileLatencies, 0);
+        Arrays.fill(iterationHistogram, 0);
+        last = null;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d frames (%d cancelled) - %d iterations - last: %s", frames, cancelledFrames, totalIterations, last);
+    }
+}
@@ -0,0 +1,95 @@
+package org.mandelbrot.metrics;
+
+/**
+ * The management interface of the metrics of a renderer, exposed through JMX.
+ */
+public interface RenderMetricsMBean {
+    /**
+     * Function used to get the number of complete renderings.
+     * @return The number of recorded frames.
+     */
+    long getFrameCount();
+
+    /**
+     * Function used to get the number of renderings cancelled before their completion.
+     * @return The number of cancelled frames.
+     */
+    long getCancelledFrameCount();
+
+    /**
+     * Function used to get the sum of the numbers of iterations of the pixels of all the complete renderings.
+     * @return The total number of iterations.
+     */
+    long getTotalIterations();
+
+    /**
+     * Function used to get the cumulated wall time of the complete renderings.
+     * @return The total wall time in milliseconds.
+     */
+    long getTotalWallMillis();
+
+    /**
+     * Function used to get the cumulated processor time of the worker threads of the complete renderings.
+     * @return The total processor time in milliseconds.
+     */
+    long getTotalCpuMillis();
+
+    /**
+     * Function used to get the cumulated number of bytes allocated by the worker threads of the complete renderings.
+     * @return The total allocated bytes.
+     */
+    long getTotalAllocatedBytes();
+
+    /**
+     * Function used to get the wall time of the last complete rendering.
+     * @return The wall time in milliseconds.
+     */
+    long getLastWallMillis();
+
+    /**
+     * Function used to get the processor time of the worker threads of the last complete rendering.
+     * @return The processor time in milliseconds.
+     */
+    long getLastCpuMillis();
+
+    /**
+     * Function used to get the number of iterations per second of the last complete rendering.
+     * @return The iteration throughput.
+     */
+    double getLastIterationsPerSecond();
+
+    /**
+     * Function used to get the share of the pixels of the last complete rendering that reached the maximal number of iterations.
+     * @return The ratio of the pixels considered inside the set, between 0 and 1.
+     */
+    double getLastMaxedRatio();
+
+    /**
+     * Function used to get the number of bytes allocated by the worker threads during the last complete rendering.
+     * @return The allocated bytes.
+     */
+    long getLastAllocatedBytes();
+
+    /**
+     * Function used to get the number of pixels supersampled by the anti-aliasing during the last complete rendering.
+     * @return The number of refined pixels.
+     */
+    long getLastRefinedPixels();
+
+    /**
+     * Function used to get the histogram of the latencies of the tiles of all the complete renderings.
+     * @return The number of tiles by latency, the bucket i counting the tiles computed in [2^i, 2^(i+1)) microseconds.
+     */
+    long[] getTileLatencyHistogram();
+
+    /**
+     * Function used to get the histogram of the iterations of the pixels of all the complete renderings.
+     * @return The number of pixels by number of iterations, the bucket i counting the pixels which took [2^i, 2^(i+1)) iterations.
+     */
+    long[] getIterationHistogram();
+
+    /**
+     * Function used to reset all the metrics.
+     */
+    void reset();
+}
@@ -0,0 +1,47 @@
+package org.mandelbrot.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * The measure of the resources used by the current thread, through the thread management interface of the virtual machine.
+ * The measures the virtual machine does not support are reported as 0.
+ */
+public final class ThreadMeter {
+    /**
+     * The thread management interface of the virtual machine.
+     */
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    /**
+     * The extended thread management interface of the HotSpot virtual machine measuring the allocations, or null if it is not available.
+     */
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = THREADS instanceof com.sun.management.ThreadMXBean extended && extended.isThreadAllocatedMemorySupported() ? extended : null;
+
+    /**
+     * Whether the processor time of the current thread can be measured.
+     */
+    private static final boolean CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported();
+
+    /**
+     * The Constructor function of the ThreadMeter class, which only holds static functions.
+     */
+    private ThreadMeter() {
+    }
+
+    /**
+     * Function used to get the processor time used by the current thread since it started.
+     * @return The processor time of the current thread in nanoseconds, or 0 if it cannot be measured.
+     */
+    public static long getCpuNanos() {
+        return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    /**
+     * Function used to get the number of bytes allocated on the heap by the current thread since it started.
+     * @return The bytes allocated by the current thread, or 0 if they cannot be measured.
+     */
+    public static long getAllocatedBytes() {
+        return ALLOCATIONS != null ? ALLOCATIONS.getCurrentThreadAllocatedBytes() : 0;
+    }
+}
@@ -0,0 +1,64 @@
+package org.mandelbrot.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The Flight Recorder event of the computation of a single tile, whose duration is the latency of the tile.
+ */
+@Name("org.mandelbrot.Tile")
+@Label("Tile Computed")
+@Category({"Mandelbrot", "Rendering"})
+@Description("The computation of a tile of a rendering by a worker thread")
+@StackTrace(false)
+public class TileEvent extends Event {
+    /**
+     * The column of the top left pixel of the tile.
+     */
+    @Label("X")
+    private int x;
+
+    /**
+     * The row of the top left pixel of the tile.
+     */
+    @Label("Y")
+    private int y;
+
+    /**
+     * The width of the tile in pixels.
+     */
+    @Label("Width")
+    private int width;
+
+    /**
+     * The height of the tile in pixels.
+     */
+    @Label("Height")
+    private int height;
+
+    /**
+     * The number of pixels or samples computed in the tile.
+     */
+    @Label("Computed Pixels")
+    private long pixels;
+
+    /**
+     * Function used to describe the computed tile before committing the event.
+     * @param x The column of the top left pixel of the tile.
+     * @param y The row of the top left pixel of the tile.
+     * @param width The width of the tile in pixels.
+     * @param height The height of the tile in pixels.
+     * @param pixels The number of pixels or samples computed in the tile.
+     */
+    public void set(int x, int y, int width, int height, long pixels) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.pixels = pixels;
+    }
+}
@@ -28,6 +28,22 @@ public class Complex {
         this.image = image;
     }
 
+    /**
+     * Function used to get the real part of the complex number.
+     * @return The real part of the complex number.
+     */
+    public double getReal() {
+        return real;
+    }
+
+    /**
+     * Function used to get the imaginary part of the complex number.
+     * @return The imaginary part of the complex number.
+     */
+    public double getImage() {
+        return image;
+    }
+
     /**
      * Function used to calculate the mod of the complex number.
      * @return The mod of the complex number
@@ -62,6 +78,7 @@ public class Complex {
      * Function used to compute the power of the complex number a certain number of time and stop before if the mod reaches a value bigger than 2.
      * @param maxSteps The power of the complex number we want to compute.
      * @return A map containing the value of the last computed power and the step where it stopped computation.
+     * @see EscapeTimeKernel The allocation-free equivalent used by the application.
      */
     public Map<Complex, Integer> computeMandelbrot(int maxSteps) {
         Map<Complex, Integer> map = new HashMap<>();
@@ -0,0 +1,159 @@
+package org.mandelbrot.model;
+
+import java.math.BigDecimal;
+
+/**
+ * A real number stored as the unevaluated sum of two doubles, giving about 106 bits (32 decimal digits) of precision at a fraction of the cost of a BigDecimal.
+ * Instances are mutable and every operation stores its result in the instance it is called on, so that an iteration only works on preallocated numbers.
+ */
+public class DoubleDouble {
+    /**
+     * The leading part of the number.
+     */
+    private double hi;
+
+    /**
+     * The trailing part of the number, smaller than half an ulp of the leading part.
+     */
+    private double lo;
+
+    /**
+     * The Constructor function of the DoubleDouble class, initialized to zero.
+     */
+    public DoubleDouble() {
+    }
+
+    /**
+     * The Constructor function of the DoubleDouble class, rounding a BigDecimal value.
+     * @param value The value of the number.
+     */
+    public DoubleDouble(BigDecimal value) {
+        set(value);
+    }
+
+    /**
+     * Function used to get the leading part of the number.
+     * @return The leading part of the number.
+     */
+    public double getHi() {
+        return hi;
+    }
+
+    /**
+     * Function used to get the trailing part of the number.
+     * @return The trailing part of the number.
+     */
+    public double getLo() {
+        return lo;
+    }
+
+    /**
+     * Function used to get the number rounded to a double.
+     * @return The closest double to the number.
+     */
+    public double doubleValue() {
+        return hi + lo;
+    }
+
+    /**
+     * Function used to get the exact value of the number.
+     * @return The number as a BigDecimal.
+     */
+    public BigDecimal toBigDecimal() {
+        return new BigDecimal(hi).add(new BigDecimal(lo));
+    }
+
+    /**
+     * Function used to set the value of the number from another one.
+     * @param value The value to copy.
+     * @return This number.
+     */
+    public DoubleDouble set(DoubleDouble value) {
+        this.hi = value.hi;
+        this.lo = value.lo;
+        return this;
+    }
+
+    /**
+     * Function used to set the value of the number by rounding a BigDecimal value.
+     * @param value The value to round.
+     * @return This number.
+     */
+    public DoubleDouble set(BigDecimal value) {
+        this.hi = value.doubleValue();
+        this.lo = Double.isFinite(hi) ? value.subtract(new BigDecimal(hi)).doubleValue() : 0;
+        return this;
+    }
+
+    /**
+     * Function used to add another number to this one.
+     * @param b The number to add.
+     * @return This number.
+     */
+    public DoubleDouble add(DoubleDouble b) {
+        double s = hi + b.hi;
+        double v = s - hi;
+        double e = (hi - (s - v)) + (b.hi - v) + lo + b.lo;
+        return normalize(s, e);
+    }
+
+    /**
+     * Function used to subtract another number from this one.
+     * @param b The number to subtract.
+     * @return This number.
+     */
+    public DoubleDouble subtract(DoubleDouble b) {
+        double s = hi - b.hi;
+        double v = s - hi;
+        double e = (hi - (s - v)) - (b.hi + v) + lo - b.lo;
+        return normalize(s, e);
+    }
+
+    /**
+     * Function used to multiply this number by another one.
+     * @param b The number to multiply by.
+     * @return This number.
+     */
+    public DoubleDouble multiply(DoubleDouble b) {
+        double p = hi * b.hi;
+        double e = Math.fma(hi, b.hi, -p) + (hi * b.lo + lo * b.hi);
+        return normalize(p, e);
+    }
+
+    /**
+     * Function used to square this number.
+     * @return This number.
+     */
+    public DoubleDouble square() {
+        double p = hi * hi;
+        double e = Math.fma(hi, hi, -p) + 2 * hi * lo;
+        return normalize(p, e);
+    }
+
+    /**
+     * Function used to double this number, which is exact.
+     * @return This number.
+     */
+    public DoubleDouble twice() {
+        hi *= 2;
+        lo *= 2;
+        return this;
+    }
+
+    /**
+     * Function used to store the sum of a double and of its rounding error so that the trailing part stays below half an ulp of the leading part.
+     * @param s The leading part before normalization.
+     * @param e The trailing part before normalization.
+     * @return This number.
+     */
+    private DoubleDouble normalize(double s, double e) {
+        this.hi = s + e;
+        this.lo = e - (hi - s);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toString();
+    }
+}
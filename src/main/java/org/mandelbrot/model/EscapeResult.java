@@ -0,0 +1,100 @@
+package org.mandelbrot.model;
+
+/**
+ * The outcome of an escape-time computation for a single point. Instances are mutable so that a single one can be reused for every pixel computed by a thread.
+ */
+public class EscapeResult {
+    /**
+     * The number of iterations performed before the orbit escaped or the maximal number of steps was reached.
+     */
+    private int iterations;
+
+    /**
+     * The squared modulus of the last computed value of the orbit.
+     */
+    private double squaredModulus;
+
+    /**
+     * The real part of the last computed value of the orbit, or NaN if the orbit cannot be resumed.
+     */
+    private double real = Double.NaN;
+
+    /**
+     * The imaginary part of the last computed value of the orbit, or NaN if the orbit cannot be resumed.
+     */
+    private double imaginary = Double.NaN;
+
+    /**
+     * Function used to get the number of iterations performed before the orbit escaped or the maximal number of steps was reached.
+     * @return The number of performed iterations.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Function used to get the squared modulus of the last computed value of the orbit.
+     * @return The squared modulus of the last computed value.
+     */
+    public double getSquaredModulus() {
+        return squaredModulus;
+    }
+
+    /**
+     * Function used to get the real part of the last computed value of the orbit, from which it can be resumed.
+     * @return The real part of the last value, or NaN if the orbit cannot be resumed.
+     */
+    public double getReal() {
+        return real;
+    }
+
+    /**
+     * Function used to get the imaginary part of the last computed value of the orbit, from which it can be resumed.
+     * @return The imaginary part of the last value, or NaN if the orbit cannot be resumed.
+     */
+    public double getImaginary() {
+        return imaginary;
+    }
+
+    /**
+     * Function used to know if the orbit has stopped at the maximal number of steps without escaping nor being proven to belong to the set, so that it can be continued with more steps.
+     * @param maxSteps The maximal number of steps of the computation.
+     * @return true if the orbit can be resumed, false otherwise.
+     */
+    public boolean isResumable(int maxSteps) {
+        return iterations == maxSteps && squaredModulus < EscapeTimeKernel.ESCAPE_RADIUS_SQUARED && !Double.isNaN(real);
+    }
+
+    /**
+     * Function used to know if the orbit has escaped the circle of radius 2.
+     * @return true if the orbit has escaped, false otherwise.
+     */
+    public boolean hasEscaped() {
+        return squaredModulus > EscapeTimeKernel.ESCAPE_RADIUS_SQUARED;
+    }
+
+    /**
+     * Function used to store the outcome of a computation in the result.
+     * @param iterations The number of performed iterations.
+     * @param squaredModulus The squared modulus of the last computed value.
+     */
+    public void set(int iterations, double squaredModulus) {
+        this.iterations = iterations;
+        this.squaredModulus = squaredModulus;
+        this.real = Double.NaN;
+        this.imaginary = Double.NaN;
+    }
+
+    /**
+     * Function used to store the outcome of a computation in the result, along with the last value of the orbit so that it can be resumed.
+     * @param iterations The number of performed iterations.
+     * @param real The real part of the last computed value.
+     * @param imaginary The imaginary part of the last computed value.
+     */
+    public void set(int iterations, double real, double imaginary) {
+        this.iterations = iterations;
+        this.squaredModulus = real * real + imaginary * imaginary;
+        this.real = real;
+        this.imaginary = imaginary;
+    }
+}
@@ -0,0 +1,244 @@
+package org.mandelbrot.model;
+
+/**
+ * The escape-time algorithm working only on primitive doubles. Contrary to {@link Complex#computeMandelbrot(int)}, it does not allocate any object and compares the squared modulus to 4 instead of computing a square root at each iteration.
+ * Two optional shortcuts stop the iterations early for the points of the set, reporting them as having reached the maximal number of steps:
+ * <ul>
+ *     <li>the cardioid check analytically detects the points of the main cardioid and of the period-2 bulb before iterating;</li>
+ *     <li>the periodicity check detects the orbits falling into a cycle, by comparing the current value to a value saved at steps 1, 2, 4, 8, ... (Brent's algorithm).</li>
+ * </ul>
+ * The orbits reaching the maximal number of steps without being proven to belong to the set report their last value, from which they can be resumed with a higher maximal number of steps (see {@link #resume}).
+ */
+public class EscapeTimeKernel {
+    /**
+     * The squared radius of the circle outside which an orbit is known to diverge.
+     */
+    public static final double ESCAPE_RADIUS_SQUARED = 4.0;
+
+    /**
+     * Whether the points of the main cardioid and of the period-2 bulb are detected before iterating.
+     */
+    private volatile boolean cardioidCheck = true;
+
+    /**
+     * Whether the orbits falling into a cycle are detected while iterating.
+     */
+    private volatile boolean periodicityCheck = true;
+
+    /**
+     * Function used to iterate z = z * z + c from z = 0 until the orbit escapes or the maximal number of steps is reached.
+     * The periodicity check, if enabled, only detects the orbits coming back exactly to a previous value.
+     * @param cr The real part of the starting complex number c.
+     * @param ci The imaginary part of the starting complex number c.
+     * @param maxSteps The maximal number of iterations we want to compute.
+     * @param result The reusable result in which the number of iterations and the final squared modulus are stored.
+     */
+    public void compute(double cr, double ci, int maxSteps, EscapeResult result) {
+        compute(cr, ci, maxSteps, 0, result);
+    }
+
+    /**
+     * Function used to iterate z = z * z + c from z = 0 until the orbit escapes or the maximal number of steps is reached.
+     * @param cr The real part of the starting complex number c.
+     * @param ci The imaginary part of the starting complex number c.
+     * @param maxSteps The maximal number of iterations we want to compute.
+     * @param tolerance The distance on each axis under which two values of the orbit are considered equal by the periodicity check.
+     * @param result The reusable result in which the number of iterations and the final squared modulus are stored.
+     */
+    public void compute(double cr, double ci, int maxSteps, double tolerance, EscapeResult result) {
+        if(cardioidCheck && isInMainComponents(cr, ci)) {
+            result.set(Math.max(maxSteps, 0), 0);
+            return;
+        }
+        iterate(cr, ci, 0, 0, 0, maxSteps, tolerance, result);
+    }
+
+    /**
+     * Function used to continue the iterations of an orbit that has reached a lower maximal number of steps, until it escapes or the new maximal number of steps is reached.
+     * The result is the same as computing the point from z = 0 with the new maximal number of steps.
+     * @param cr The real part of the starting complex number c.
+     * @param ci The imaginary part of the starting complex number c.
+     * @param zr The real part of the value of the orbit at the starting step.
+     * @param zi The imaginary part of the value of the orbit at the starting step.
+     * @param start The number of iterations already performed.
+     * @param maxSteps The maximal number of iterations we want to compute.
+     * @param tolerance The distance on each axis under which two values of the orbit are considered equal by the periodicity check.
+     * @param result The reusable result in which the number of iterations and the final squared modulus are stored.
+     */
+    public void resume(double cr, double ci, double zr, double zi, int start, int maxSteps, double tolerance, EscapeResult result) {
+        iterate(cr, ci, zr, zi, start, maxSteps, tolerance, result);
+    }
+
+    /**
+     * Function used to iterate z = z * z + c from a given value of the orbit until it escapes or the maximal number of steps is reached.
+     * @param cr The real part of the starting complex number c.
+     * @param ci The imaginary part of the starting complex number c.
+     * @param zr The real part of the value of the orbit at the starting step.
+     * @param zi The imaginary part of the value of the orbit at the starting step.
+     * @param step The number of iterations already performed.
+     * @param maxSteps The maximal number of iterations we want to compute.
+     * @param tolerance The distance on each axis under which two values of the orbit are considered equal by the periodicity check.
+     * @param result The reusable result in which the number of iterations and the final squared modulus are stored.
+     */
+    private void iterate(double cr, double ci, double zr, double zi, int step, int maxSteps, double tolerance, EscapeResult result) {
+        boolean periodicity = periodicityCheck;
+        double zr2 = zr * zr;
+        double zi2 = zi * zi;
+        double savedR = zr;
+        double savedI = zi;
+        long checkpoint = Math.max((long) step << 1, 1);
+        while (step < maxSteps && zr2 + zi2 < ESCAPE_RADIUS_SQUARED) {
+            zi = 2 * zr * zi + ci;
+            zr = zr2 - zi2 + cr;
+            zr2 = zr * zr;
+            zi2 = zi * zi;
+            step++;
+            if(periodicity) {
+                if(Math.abs(zr - savedR) <= tolerance && Math.abs(zi - savedI) <= tolerance && zr2 + zi2 < ESCAPE_RADIUS_SQUARED) {
+                    result.set(maxSteps, zr2 + zi2);
+                    return;
+                }
+                if(step == checkpoint) {
+                    savedR = zr;
+                    savedI = zi;
+                    checkpoint <<= 1;
+                }
+            }
+        }
+        result.set(step, zr, zi);
+    }
+
+    /**
+     * Function used to compute the escape time of several points sharing the same imaginary part, such as the pixels of a row.
+     * @param cr The real parts of the points, from index 0 to count - 1.
+     * @param ci The imaginary part shared by all points.
+     * @param count The number of points we want to compute.
+     * @param maxSteps The maximal number of iterations we want to compute.
+     * @param tolerance The distance on each axis under which two values of an orbit are considered equal by the periodicity check.
+     * @param iterations The array in which the number of iterations of each point is stored.
+     * @param squaredModuli The array in which the final squared modulus of each point is stored.
+     */
+    public void computeRow(double[] cr, double ci, int count, int maxSteps, double tolerance, int[] iterations, double[] squaredModuli) {
+        computeRow(cr, ci, count, maxSteps, tolerance, iterations, squaredModuli, null, null);
+    }
+
+    /**
+     * Function used to compute the escape time of several points sharing the same imaginary part, such as the pixels of a row, keeping the last value of their orbits.
+     * @param cr The real parts of the points, from index 0 to count - 1.
+     * @param ci The imaginary part shared by all points.
+     * @param count The number of points we want to compute.
+     * @param maxSteps The maximal number of iterations we want to compute.
+     * @param tolerance The distance on each axis under which two values of an orbit are considered equal by the periodicity check.
+     * @param iterations The array in which the number of iterations of each point is stored.
+     * @param squaredModuli The array in which the final squared modulus of each point is stored.
+     * @param reals The array in which the real part of the last value of each orbit is stored, NaN for the points proven to belong to the set, or null if not needed.
+     * @param imaginaries The array in which the imaginary part of the last value of each orbit is stored, NaN for the points proven to belong to the set, or null if not needed.
+     */
+    public void computeRow(double[] cr, double ci, int count, int maxSteps, double tolerance, int[] iterations, double[] squaredModuli, double[] reals, double[] imaginaries) {
+        EscapeResult result = new EscapeResult();
+        for(int i = 0; i < count; i++) {
+            compute(cr[i], ci, maxSteps, tolerance, result);
+            iterations[i] = result.getIterations();
+            squaredModuli[i] = result.getSquaredModulus();
+            if(reals != null) {
+                reals[i] = result.getReal();
+                imaginaries[i] = result.getImaginary();
+            }
+        }
+    }
+
+    /**
+     * Function used to get the number of points the kernel computes at once in {@link #computeRow}.
+     * @return The number of lanes of the kernel.
+     */
+    public int getLanes() {
+        return 1;
+    }
+
+    /**
+     * Function used to create the fastest kernel available on the running machine: the SIMD one if the {@code jdk.incubator.vector} module is available and the processor offers vectors of at least 2 doubles, the scalar one otherwise.
+     * @return The kernel to use for the renderings.
+     */
+    public static EscapeTimeKernel create() {
+        if(ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return new EscapeTimeKernel();
+        }
+        try {
+            EscapeTimeKernel kernel = (EscapeTimeKernel) Class.forName("org.mandelbrot.model.VectorKernel").getDeclaredConstructor().newInstance();
+            return kernel.getLanes() > 1 ? kernel : new EscapeTimeKernel();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new EscapeTimeKernel();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "scalar";
+    }
+
+    /**
+     * Function used to know if a point belongs to the main cardioid or to the period-2 bulb of the mandelbrot set.
+     * @param cr The real part of the point.
+     * @param ci The imaginary part of the point.
+     * @return true if the point is inside one of both components, false otherwise.
+     */
+    public static boolean isInMainComponents(double cr, double ci) {
+        return isInMainCardioid(cr, ci) || isInPeriod2Bulb(cr, ci);
+    }
+
+    /**
+     * Function used to know if a point belongs to the closed main cardioid of the mandelbrot set.
+     * @param cr The real part of the point.
+     * @param ci The imaginary part of the point.
+     * @return true if the point is inside the main cardioid or on its border, false otherwise.
+     */
+    public static boolean isInMainCardioid(double cr, double ci) {
+        double ci2 = ci * ci;
+        double shifted = cr - 0.25;
+        double q = shifted * shifted + ci2;
+        return q * (q + shifted) <= 0.25 * ci2;
+    }
+
+    /**
+     * Function used to know if a point belongs to the closed period-2 bulb of the mandelbrot set, the disc of radius 1/4 centered on -1.
+     * @param cr The real part of the point.
+     * @param ci The imaginary part of the point.
+     * @return true if the point is inside the period-2 bulb or on its border, false otherwise.
+     */
+    public static boolean isInPeriod2Bulb(double cr, double ci) {
+        double bulb = cr + 1;
+        return bulb * bulb + ci * ci <= 0.0625;
+    }
+
+    /**
+     * Function used to know if the points of the main cardioid and of the period-2 bulb are detected before iterating.
+     * @return true if the cardioid check is enabled, false otherwise.
+     */
+    public boolean isCardioidCheck() {
+        return cardioidCheck;
+    }
+
+    /**
+     * Function used to enable or disable the detection of the points of the main cardioid and of the period-2 bulb.
+     * @param cardioidCheck true to enable the cardioid check, false to iterate every point.
+     */
+    public void setCardioidCheck(boolean cardioidCheck) {
+        this.cardioidCheck = cardioidCheck;
+    }
+
+    /**
+     * Function used to know if the orbits falling into a cycle are detected while iterating.
+     * @return true if the periodicity check is enabled, false otherwise.
+     */
+    public boolean isPeriodicityCheck() {
+        return periodicityCheck;
+    }
+
+    /**
+     * Function used to enable or disable the detection of the orbits falling into a cycle.
+     * @param periodicityCheck true to enable the periodicity check, false to iterate every point up to the maximal number of steps.
+     */
+    public void setPeriodicityCheck(boolean periodicityCheck) {
+        this.periodicityCheck = periodicityCheck;
+    }
+}
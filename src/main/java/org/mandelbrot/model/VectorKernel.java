@@ -0,0 +1,166 @@
+package org.mandelbrot.model;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The escape-time algorithm computing several points at once with the SIMD instructions of the processor, through the incubating Vector API.
+ * Each lane holds a point with its own orbit, step counter and periodicity checkpoint. As soon as the orbit of a lane escapes, cycles or reaches the maximal number of steps, its result is stored and the lane is refilled with the next point of the row, so that fast points never wait for the slow ones. The results are identical to the scalar ones.
+ * The class requires the {@code jdk.incubator.vector} module: use {@link EscapeTimeKernel#create()} to fall back to the scalar kernel when it is not available.
+ */
+public class VectorKernel extends EscapeTimeKernel {
+    /**
+     * The widest vector shape supported by the processor.
+     */
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void computeRow(double[] cr, double ci, int count, int maxSteps, double tolerance, int[] iterations, double[] squaredModuli, double[] reals, double[] imaginaries) {
+        if(maxSteps <= 0 || count < SPECIES.length()) {
+            super.computeRow(cr, ci, count, maxSteps, tolerance, iterations, squaredModuli, reals, imaginaries);
+            return;
+        }
+        int lanes = SPECIES.length();
+        boolean cardioid = isCardioidCheck();
+        boolean periodicity = isPeriodicityCheck();
+        int[] points = new int[lanes];
+        double[] laneR = new double[lanes];
+        double[] zrs = new double[lanes];
+        double[] zis = new double[lanes];
+        double[] steps = new double[lanes];
+        double[] savedRs = new double[lanes];
+        double[] savedIs = new double[lanes];
+        double[] checkpoints = new double[lanes];
+        double[] moduli = new double[lanes];
+        boolean[] idle = new boolean[lanes];
+        boolean[] finished = new boolean[lanes];
+        boolean[] cycled = new boolean[lanes];
+        int next = 0;
+        for(int lane = 0; lane < lanes; lane++) {
+            next = load(lane, next, cr, ci, count, maxSteps, cardioid, points, laneR, zrs, zis, steps, savedRs, savedIs, checkpoints, idle, iterations, squaredModuli, reals, imaginaries);
+        }
+        DoubleVector cImage = DoubleVector.broadcast(SPECIES, ci);
+        while(true) {
+            VectorMask<Double> busy = VectorMask.fromArray(SPECIES, idle, 0).not();
+            if(!busy.anyTrue()) return;
+            DoubleVector cReal = DoubleVector.fromArray(SPECIES, laneR, 0);
+            DoubleVector zr = DoubleVector.fromArray(SPECIES, zrs, 0);
+            DoubleVector zi = DoubleVector.fromArray(SPECIES, zis, 0);
+            DoubleVector step = DoubleVector.fromArray(SPECIES, steps, 0);
+            DoubleVector savedR = DoubleVector.fromArray(SPECIES, savedRs, 0);
+            DoubleVector savedI = DoubleVector.fromArray(SPECIES, savedIs, 0);
+            DoubleVector checkpoint = DoubleVector.fromArray(SPECIES, checkpoints, 0);
+            DoubleVector squaredModulus;
+            VectorMask<Double> cycling;
+            VectorMask<Double> done;
+            do {
+                DoubleVector zr2 = zr.mul(zr);
+                DoubleVector zi2 = zi.mul(zi);
+                zi = zr.mul(2).mul(zi).add(cImage);
+                zr = zr2.sub(zi2).add(cReal);
+                step = step.add(1);
+                squaredModulus = zr.mul(zr).add(zi.mul(zi));
+                VectorMask<Double> escaped = squaredModulus.compare(VectorOperators.GE, ESCAPE_RADIUS_SQUARED);
+                done = escaped.or(step.compare(VectorOperators.GE, maxSteps));
+                if(periodicity) {
+                    cycling = zr.sub(savedR).abs().compare(VectorOperators.LE, tolerance)
+                            .and(zi.sub(savedI).abs().compare(VectorOperators.LE, tolerance))
+                            .andNot(escaped);
+                    done = done.or(cycling);
+                    VectorMask<Double> save = step.compare(VectorOperators.EQ, checkpoint);
+                    savedR = savedR.blend(zr, save);
+                    savedI = savedI.blend(zi, save);
+                    checkpoint = checkpoint.blend(checkpoint.mul(2), save);
+                } else {
+                    cycling = SPECIES.maskAll(false);
+                }
+                done = done.and(busy);
+            } while(!done.anyTrue());
+            zr.intoArray(zrs, 0);
+            zi.intoArray(zis, 0);
+            step.intoArray(steps, 0);
+            savedR.intoArray(savedRs, 0);
+            savedI.intoArray(savedIs, 0);
+            checkpoint.intoArray(checkpoints, 0);
+            squaredModulus.intoArray(moduli, 0);
+            done.intoArray(finished, 0);
+            cycling.intoArray(cycled, 0);
+            for(int lane = 0; lane < lanes; lane++) {
+                if(!finished[lane]) continue;
+                iterations[points[lane]] = cycled[lane] ? maxSteps : (int) steps[lane];
+                squaredModuli[points[lane]] = moduli[lane];
+                if(reals != null) {
+                    reals[points[lane]] = cycled[lane] ? Double.NaN : zrs[lane];
+                    imaginaries[points[lane]] = cycled[lane] ? Double.NaN : zis[lane];
+                }
+                next = load(lane, next, cr, ci, count, maxSteps, cardioid, points, laneR, zrs, zis, steps, savedRs, savedIs, checkpoints, idle, iterations, squaredModuli, reals, imaginaries);
+            }
+        }
+    }
+
+    /**
+     * Function used to load the next point of the row that needs iterating into a lane. The points of the main cardioid and of the period-2 bulb are stored directly without occupying the lane.
+     * @param lane The lane we want to fill.
+     * @param next The index of the next point of the row.
+     * @param cr The real parts of the points of the row.
+     * @param ci The imaginary part shared by all points.
+     * @param count The number of points of the row.
+     * @param maxSteps The maximal number of iterations we want to compute.
+     * @param cardioid Whether the cardioid check is enabled.
+     * @param points The index of the point held by each lane.
+     * @param laneR The real part of the point held by each lane.
+     * @param zrs The real part of the orbit of each lane.
+     * @param zis The imaginary part of the orbit of each lane.
+     * @param steps The number of iterations performed by each lane.
+     * @param savedRs The real part of the periodicity checkpoint of each lane.
+     * @param savedIs The imaginary part of the periodicity checkpoint of each lane.
+     * @param checkpoints The step at which each lane saves its next periodicity checkpoint, held as a double like the steps so that its doubling never wraps around past Integer.MAX_VALUE.
+     * @param idle Whether each lane is left empty because the row has no more points.
+     * @param iterations The array in which the number of iterations of each point is stored.
+     * @param squaredModuli The array in which the final squared modulus of each point is stored.
+     * @param reals The array in which the real part of the last value of each orbit is stored, or null if not needed.
+     * @param imaginaries The array in which the imaginary part of the last value of each orbit is stored, or null if not needed.
+     * @return The index of the next point of the row after the loaded one.
+     */
+    private static int load(int lane, int next, double[] cr, double ci, int count, int maxSteps, boolean cardioid, int[] points, double[] laneR,
+                            double[] zrs, double[] zis, double[] steps, double[] savedRs, double[] savedIs, double[] checkpoints,
+                            boolean[] idle, int[] iterations, double[] squaredModuli, double[] reals, double[] imaginaries) {
+        while(next < count && cardioid && isInMainComponents(cr[next], ci)) {
+            iterations[next] = maxSteps;
+            squaredModuli[next] = 0;
+            if(reals != null) {
+                reals[next] = Double.NaN;
+                imaginaries[next] = Double.NaN;
+            }
+            next++;
+        }
+        if(next == count) {
+            idle[lane] = true;
+            laneR[lane] = 0;
+            zrs[lane] = 0;
+            zis[lane] = 0;
+            return next;
+        }
+        points[lane] = next;
+        laneR[lane] = cr[next];
+        zrs[lane] = 0;
+        zis[lane] = 0;
+        steps[lane] = 0;
+        savedRs[lane] = 0;
+        savedIs[lane] = 0;
+        checkpoints[lane] = 1;
+        return next + 1;
+    }
+
+    @Override
+    public int getLanes() {
+        return SPECIES.length();
+    }
+
+    @Override
+    public String toString() {
+        return "vector x" + SPECIES.length();
+    }
+}
@@ -0,0 +1,155 @@
+package org.mandelbrot.server;
+
+import org.mandelbrot.engine.Viewport;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.mandelbrot.utils.Constants.*;
+
+/**
+ * The address of a tile served over HTTP, as requested by the slippy map viewers: /tiles/{zoom}/{x}/{y}.png, optionally followed by the steps and palette query parameters.
+ * The zoom level 0 is a single tile covering the whole set, and each zoom level splits every tile of the previous one into four.
+ */
+final class TileAddress {
+    /**
+     * The path of a tile, with the zoom level, the column and the row.
+     */
+    private static final Pattern PATH = Pattern.compile("/tiles/(\\d{1,4})/(\\d{1,100})/(\\d{1,100})\\.png");
+
+    /**
+     * The version of the rendering, from the version of the renderer and the colors of the palettes, so that the entity tags change with any of them.
+     */
+    static final String RENDERING_VERSION = "v" + SERVER_RENDERING_VERSION + "." + Integer.toHexString(Arrays.deepHashCode(PALETTES));
+
+    /**
+     * The zoom level of the tile.
+     */
+    private final int zoom;
+
+    /**
+     * The column of the tile, from the left.
+     */
+    private final BigInteger x;
+
+    /**
+     * The row of the tile, from the top.
+     */
+    private final BigInteger y;
+
+    /**
+     * The maximal number of iterations of the pixels.
+     */
+    private final int maxIterations;
+
+    /**
+     * The color palette of the tile, from 0.
+     */
+    private final int activePalette;
+
+    /**
+     * The Constructor function of the TileAddress class.
+     * @param zoom The zoom level of the tile.
+     * @param x The column of the tile, from the left.
+     * @param y The row of the tile, from the top.
+     * @param maxIterations The maximal number of iterations of the pixels.
+     * @param activePalette The color palette of the tile, from 0.
+     */
+    TileAddress(int zoom, BigInteger x, BigInteger y, int maxIterations, int activePalette) {
+        BigInteger side = BigInteger.ONE.shiftLeft(zoom);
+        if(zoom > SERVER_MAX_ZOOM || x.signum() < 0 || y.signum() < 0 || x.compareTo(side) >= 0 || y.compareTo(side) >= 0) {
+            throw new IllegalArgumentException("No tile " + zoom + "/" + x + "/" + y);
+        }
+        if(maxIterations <= 0 || maxIterations > SERVER_MAX_STEPS || activePalette < 0 || activePalette >= PALETTES.length) {
+            throw new IllegalArgumentException("Invalid steps " + maxIterations + " or palette " + (activePalette + 1));
+        }
+        this.zoom = zoom;
+        this.x = x;
+        this.y = y;
+        this.maxIterations = maxIterations;
+        this.activePalette = activePalette;
+    }
+
+    /**
+     * Function used to read the address of a tile from a requested URI.
+     * @param uri The requested URI.
+     * @return The address of the tile, or null if the path is not the one of a tile of the map.
+     * @throws IllegalArgumentException If the path is the one of a tile but the query parameters are invalid.
+     */
+    static TileAddress parse(URI uri) {
+        Matcher matcher = PATH.matcher(uri.getPath());
+        if(!matcher.matches()) return null;
+        int zoom = Integer.parseInt(matcher.group(1));
+        BigInteger x = new BigInteger(matcher.group(2));
+        BigInteger y = new BigInteger(matcher.group(3));
+        if(zoom > SERVER_MAX_ZOOM || x.bitLength() > zoom || y.bitLength() > zoom) return null;
+        int maxIterations = INITIAL_NB_STEPS;
+        int activePalette = 0;
+        if(uri.getQuery() != null) {
+            for(String parameter : uri.getQuery().split("&")) {
+                int separator = parameter.indexOf('=');
+                String name = separator < 0 ? parameter : parameter.substring(0, separator);
+                String value = separator < 0 ? "" : parameter.substring(separator + 1);
+                switch(name) {
+                    case "steps" -> maxIterations = Integer.parseInt(value);
+                    case "palette" -> activePalette = Integer.parseInt(value) - 1;
+                    default -> throw new IllegalArgumentException("Unknown parameter: " + name);
+                }
+            }
+        }
+        return new TileAddress(zoom, x, y, maxIterations, activePalette);
+    }
+
+    /**
+     * Function used to get the viewport of the tile. The coordinates of its corner are exact, as the side of a tile is the side of the whole set divided by a power of two.
+     * @return The viewport of the tile.
+     */
+    Viewport getViewport() {
+        BigDecimal side = SERVER_WORLD_SIZE.divide(BigDecimal.TWO.pow(zoom));
+        BigDecimal left = SERVER_WORLD_LEFT.add(side.multiply(new BigDecimal(x)));
+        BigDecimal top = SERVER_WORLD_TOP.add(side.multiply(new BigDecimal(y)));
+        return new Viewport(left, top, side.doubleValue() / SERVER_TILE_SIZE, SERVER_TILE_SIZE, SERVER_TILE_SIZE, maxIterations);
+    }
+
+    /**
+     * Function used to get the color palette of the tile.
+     * @return The index of the palette, from 0.
+     */
+    int getActivePalette() {
+        return activePalette;
+    }
+
+    /**
+     * Function used to get the entity tag of the tile. A tile only depends on its address and on the version of the rendering, so that the tag is known without rendering it.
+     * @return The quoted entity tag.
+     */
+    String getEtag() {
+        return "\"" + RENDERING_VERSION + "-" + zoom + "-" + x + "-" + y + "-" + maxIterations + "-" + (activePalette + 1) + "\"";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof TileAddress other)) return false;
+        return zoom == other.zoom && x.equals(other.x) && y.equals(other.y)
+                && maxIterations == other.maxIterations && activePalette == other.activePalette;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = zoom;
+        hash = 31 * hash + x.hashCode();
+        hash = 31 * hash + y.hashCode();
+        hash = 31 * hash + maxIterations;
+        return 31 * hash + activePalette;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TileAddress[tile=%d/%s/%s, maxIterations=%d, palette=%d]", zoom, x, y, maxIterations, activePalette + 1);
+    }
+}
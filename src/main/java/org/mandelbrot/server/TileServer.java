@@ -0,0 +1,427 @@
+package org.mandelbrot.server;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.mandelbrot.engine.RenderExecutor;
+import org.mandelbrot.engine.RenderResult;
+import org.mandelbrot.engine.Renderer;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.mandelbrot.utils.Constants.*;
+
+/**
+ * The HTTP server mode, serving the set as the 256x256 PNG tiles of a slippy map (see {@link TileAddress}) rendered through the same engine as the application.
+ * The viewers of a same area request the same tiles at the same time: the concurrent requests of a tile share a single rendering, and the encoded tiles are kept in memory for the next viewers.
+ * The number of distinct tiles rendered or waiting to be rendered is bounded, the requests beyond it being refused with a 503 status and a Retry-After header rather than queued, so that a burst of viewers cannot pile up work the threads will never catch up with.
+ * As a tile only depends on its address, its entity tag is known without rendering it: a client revalidating a tile is answered with a 304 status without any computation, and the tiles are marked as cacheable by the clients and the proxies.
+ */
+public class TileServer implements AutoCloseable {
+    /**
+     * The description of the console arguments of the server mode.
+     */
+    public static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: java -jar mandelbrot-set.jar --serve <port> [--threads <threads>] [--queue <tiles>]",
+            "  --serve <port>        The HTTP port on which the tiles are served at /tiles/{z}/{x}/{y}.png?steps=<steps>&palette=<palette>, 0 to choose a free one",
+            "  --threads <threads>   The number of threads computing the tiles",
+            "  --queue <tiles>       The number of distinct tiles rendered or waiting to be rendered, beyond which the requests are refused");
+
+    /**
+     * The embedded HTTP server.
+     */
+    private final HttpServer server;
+
+    /**
+     * The executor owning the threads computing and encoding the tiles.
+     */
+    private final RenderExecutor executor;
+
+    /**
+     * The rendering engine computing the tiles.
+     */
+    private final Renderer renderer = new Renderer();
+
+    /**
+     * The threads handling the requests, which wait for the renderings.
+     */
+    private final ExecutorService handlers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("mandelbrot-http-", 0).factory());
+
+    /**
+     * The renderings of the tiles in progress, shared by all the requests of a same tile.
+     */
+    private final ConcurrentHashMap<TileAddress, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * The permits of the distinct tiles rendered or waiting to be rendered.
+     */
+    private final Semaphore queue;
+
+    /**
+     * The number of distinct tiles that can be rendered or waiting to be rendered at once.
+     */
+    private final int queueCapacity;
+
+    /**
+     * The encoded tiles kept in memory, from the least recently used to the most recently used.
+     */
+    private final LinkedHashMap<TileAddress, byte[]> tiles = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The number of bytes of encoded tiles kept in memory.
+     */
+    private long bytes = 0;
+
+    /**
+     * The number of tile requests received.
+     */
+    private final LongAdder requests = new LongAdder();
+
+    /**
+     * The number of tiles rendered.
+     */
+    private final LongAdder renders = new LongAdder();
+
+    /**
+     * The number of requests sharing the rendering of a concurrent request.
+     */
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * The number of requests answered with a tile kept in memory.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * The number of requests answered as not modified, without any tile.
+     */
+    private final LongAdder notModified = new LongAdder();
+
+    /**
+     * The number of requests refused because the queue was full.
+     */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * The Constructor function of the TileServer class, listening on all the interfaces.
+     * @param port The HTTP port on which the tiles are served, 0 to choose a free one.
+     * @param parallelism The number of threads computing the tiles.
+     * @param queueCapacity The number of distinct tiles that can be rendered or waiting to be rendered at once.
+     * @throws IOException If the port cannot be listened on.
+     */
+    public TileServer(int port, int parallelism, int queueCapacity) throws IOException {
+        if(queueCapacity <= 0) {
+            throw new IllegalArgumentException("Invalid queue capacity: " + queueCapacity);
+        }
+        this.queueCapacity = queueCapacity;
+        this.queue = new Semaphore(queueCapacity);
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = new RenderExecutor(parallelism, true);
+        server.createContext("/tiles/", this::handleTile);
+        server.createContext("/status", this::handleStatus);
+        server.setExecutor(handlers);
+    }
+
+    /**
+     * Function used to get the HTTP port on which the tiles are served.
+     * @return The listened port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Function used to get the number of tiles rendered.
+     * @return The number of renderings.
+     */
+    public long getRenders() {
+        return renders.sum();
+    }
+
+    /**
+     * Function used to get the number of requests which shared the rendering of a concurrent request of the same tile.
+     * @return The number of coalesced requests.
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Function used to get the number of distinct tiles rendered or waiting to be rendered.
+     * @return The number of queued tiles.
+     */
+    public int getQueuedTiles() {
+        return queueCapacity - queue.availablePermits();
+    }
+
+    /**
+     * Function used to serve the tiles in the background, until the server is closed.
+     * The dispatching thread of the HTTP server is a platform thread, which keeps the server process alive.
+     * @return The server, once it accepts requests.
+     */
+    public TileServer start() {
+        server.start();
+        return this;
+    }
+
+    /**
+     * Function used to answer the request of a tile.
+     * @param exchange The request and its response.
+     * @throws IOException If the response cannot be sent.
+     */
+    private void handleTile(HttpExchange exchange) throws IOException {
+        try(exchange) {
+            requests.increment();
+            String method = exchange.getRequestMethod();
+            if(!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            TileAddress address;
+            try {
+                address = TileAddress.parse(exchange.getRequestURI());
+            } catch (IllegalArgumentException e) {
+                sendText(exchange, 400, "Invalid parameters: " + e.getMessage());
+                return;
+            }
+            if(address == null) {
+                sendText(exchange, 404, "No tile at " + exchange.getRequestURI().getPath());
+                return;
+            }
+            Headers headers = exchange.getResponseHeaders();
+            headers.set("ETag", address.getEtag());
+            headers.set("Cache-Control", "public, max-age=" + SERVER_MAX_AGE + ", immutable");
+            if(matches(exchange.getRequestHeaders().getFirst("If-None-Match"), address.getEtag())) {
+                notModified.increment();
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            byte[] png;
+            try {
+                png = getTile(address).join();
+            } catch (CompletionException e) {
+                headers.remove("ETag");
+                headers.remove("Cache-Control");
+                if(e.getCause() instanceof RejectedExecutionException) {
+                    headers.set("Retry-After", Integer.toString(SERVER_RETRY_AFTER));
+                    sendText(exchange, 503, e.getCause().getMessage());
+                } else {
+                    sendText(exchange, 500, "Unable to render " + address + ": " + e.getCause());
+                }
+                return;
+            }
+            headers.set("Content-Type", "image/png");
+            if(method.equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, png.length);
+            try(OutputStream body = exchange.getResponseBody()) {
+                body.write(png);
+            }
+        }
+    }
+
+    /**
+     * Function used to answer the request of the counters of the server.
+     * @param exchange The request and its response.
+     * @throws IOException If the response cannot be sent.
+     */
+    private void handleStatus(HttpExchange exchange) throws IOException {
+        try(exchange) {
+            exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            sendText(exchange, 200, toString());
+        }
+    }
+
+    /**
+     * Function used to know if the entity tags of a conditional request include the one of a tile.
+     * @param header The If-None-Match header of the request, or null if there is none.
+     * @param etag The quoted entity tag of the tile.
+     * @return true if the client already has the tile, false otherwise.
+     */
+    private static boolean matches(String header, String etag) {
+        if(header == null) return false;
+        for(String tag : header.split(",")) {
+            tag = tag.trim();
+            if(tag.startsWith("W/")) tag = tag.substring(2);
+            if(tag.equals("*") || tag.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Function used to send a plain text response.
+     * @param exchange The request and its response.
+     * @param status The HTTP status of the response.
+     * @param text The body of the response.
+     * @throws IOException If the response cannot be sent.
+     */
+    private static void sendText(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] body = (text + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        if(exchange.getRequestMethod().equals("HEAD")) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try(OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Function used to get the encoded tile at an address: from memory if it has been rendered already, from the rendering in progress if another request asked for it, otherwise from a new rendering if the queue is not full.
+     * @param address The address of the tile.
+     * @return A future completed with the PNG bytes of the tile, or failed with a {@link RejectedExecutionException} if the queue is full.
+     */
+    private CompletableFuture<byte[]> getTile(TileAddress address) {
+        byte[] cached = getCached(address);
+        if(cached != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<byte[]> created = new CompletableFuture<>();
+        CompletableFuture<byte[]> future = inFlight.computeIfAbsent(address, key -> queue.tryAcquire() ? created : null);
+        if(future == null) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Too many tiles are being rendered, try again later"));
+        }
+        if(future != created) {
+            coalesced.increment();
+            return future;
+        }
+        renders.increment();
+        try {
+            renderer.render(address.getViewport(), address.getActivePalette(), executor.getPool())
+                    .thenApplyAsync(TileServer::encode, executor.getIoExecutor())
+                    .whenComplete((png, error) -> {
+                        if(error == null) cache(address, png);
+                        inFlight.remove(address, created);
+                        queue.release();
+                        if(error == null) created.complete(png);
+                        else created.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+                    });
+        } catch (RuntimeException e) {
+            inFlight.remove(address, created);
+            queue.release();
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    /**
+     * Function used to encode a rendered tile.
+     * @param result The rendered tile.
+     * @return The PNG bytes of the tile.
+     */
+    private static byte[] encode(RenderResult result) {
+        BufferedImage image = new BufferedImage(result.getViewport().getWidth(), result.getViewport().getHeight(), BufferedImage.TYPE_INT_RGB);
+        result.copyRaster(((DataBufferInt) image.getRaster().getDataBuffer()).getData());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            if(!ImageIO.write(image, "png", out)) {
+                throw new IOException("No PNG encoder available");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Function used to get an encoded tile kept in memory.
+     * @param address The address of the tile.
+     * @return The PNG bytes of the tile, or null if it is not kept in memory.
+     */
+    private synchronized byte[] getCached(TileAddress address) {
+        return tiles.get(address);
+    }
+
+    /**
+     * Function used to keep an encoded tile in memory, evicting the least recently used ones beyond {@link org.mandelbrot.utils.Constants#SERVER_CACHE_BYTES}.
+     * @param address The address of the tile.
+     * @param png The PNG bytes of the tile.
+     */
+    private synchronized void cache(TileAddress address, byte[] png) {
+        byte[] previous = tiles.put(address, png);
+        bytes += png.length - (previous != null ? previous.length : 0);
+        Iterator<Map.Entry<TileAddress, byte[]>> eldest = tiles.entrySet().iterator();
+        while(bytes > SERVER_CACHE_BYTES && eldest.hasNext()) {
+            Map.Entry<TileAddress, byte[]> entry = eldest.next();
+            bytes -= entry.getValue().length;
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Function used to stop serving and computing tiles.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        handlers.shutdownNow();
+        executor.close();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d requests - %d tiles rendered - %d coalesced - %d from memory - %d not modified - %d refused - %d/%d queued - %d tiles (%d KB) in memory",
+                requests.sum(), renders.sum(), coalesced.sum(), hits.sum(), notModified.sum(), rejected.sum(),
+                getQueuedTiles(), queueCapacity, tiles.size(), bytes / 1024);
+    }
+
+    /**
+     * The main execution function of the server mode, serving tiles until the process is stopped.
+     * @param args The console arguments, starting with --serve and the port.
+     */
+    public static void main(String[] args) {
+        int port = -1;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        int queueCapacity = SERVER_QUEUE_CAPACITY;
+        try {
+            for(int i = 0; i < args.length; i += 2) {
+                if(i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + args[i]);
+                switch(args[i]) {
+                    case "--serve" -> port = Integer.parseInt(args[i + 1]);
+                    case "--threads" -> parallelism = Integer.parseInt(args[i + 1]);
+                    case "--queue" -> queueCapacity = Integer.parseInt(args[i + 1]);
+                    default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+                }
+            }
+            if(port < 0 || port > 0xFFFF || parallelism <= 0 || queueCapacity <= 0) throw new IllegalArgumentException("Invalid port, number of threads or queue capacity");
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        try {
+            TileServer server = new TileServer(port, parallelism, queueCapacity).start();
+            System.out.printf("Serving tiles on http://localhost:%d/tiles/{z}/{x}/{y}.png with %d threads%n", server.getPort(), parallelism);
+        } catch (IOException e) {
+            System.err.println("Unable to listen on port " + port + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package org.mandelbrot.utils;
 
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.math.BigDecimal;
 
 /**
  * Store of all global constants used in the application. The class is final to avoid heritage.
@@ -21,26 +20,230 @@ public final class Constants {
      */
     public static final int INITIAL_NB_STEPS = 1024;
 
+    /**
+     * The size in pixels of the side of the square tiles an image is split into when rendering it.
+     */
+    public static final int TILE_SIZE = 64;
+
+    /**
+     * The size in pixels under which the side of a tile is never split when scheduling the rendering.
+     */
+    public static final int MIN_TILE_SIZE = 16;
+
+    /**
+     * The size in pixels above which the side of a tile is always split when scheduling the rendering.
+     */
+    public static final int MAX_TILE_SIZE = 256;
+
+    /**
+     * The distance in pixels between two samples computed by the first pass of a progressive rendering. Each following pass halves it until all pixels are computed.
+     */
+    public static final int COARSEST_STRIDE = 8;
+
+    /**
+     * The duration in nanoseconds a single tile should take to compute, used to adapt the size of the tiles to their measured cost.
+     */
+    public static final long TARGET_TILE_NANOS = 1_000_000;
+
+    /**
+     * The target tile durations in nanoseconds tried by the calibration, from which the automatic tuning never strays.
+     */
+    public static final long[] CALIBRATION_TILE_NANOS = {250_000, 1_000_000, 4_000_000};
+
+    /**
+     * The number of timed renderings of each configuration tried by the calibration, the fastest one being kept.
+     */
+    public static final int CALIBRATION_RUNS = 3;
+
+    /**
+     * The load imbalance above which the automatic tuning halves the target tile duration.
+     */
+    public static final double TUNING_IMBALANCE = 1.25;
+
+    /**
+     * The load imbalance below which a rendering is considered balanced by the automatic tuning.
+     */
+    public static final double TUNING_BALANCE = 1.05;
+
+    /**
+     * The number of tiles per thread above which a balanced rendering lets the automatic tuning double the target tile duration.
+     */
+    public static final int TUNING_TILES_PER_THREAD = 64;
+
+    /**
+     * The system property giving the path of the file in which the calibrated configuration is kept. When it is not set, the file is in the home directory of the user.
+     */
+    public static final String PROFILE_FILE_PROPERTY = "mandelbrot.profile";
+
     /**
      * The initial number of available threads to compute the set.
      */
     public static final int MAX_NB_CORES = Runtime.getRuntime().availableProcessors();
 
+    /**
+     * The number of power-of-two buckets of microseconds of the histograms of the tile latencies, the last one counting the tiles slower than about half a second.
+     */
+    public static final int TILE_LATENCY_BUCKETS = 20;
+
+    /**
+     * The number of power-of-two buckets of the histograms of the iterations of the pixels, enough to count any positive number of iterations.
+     */
+    public static final int ITERATION_BUCKETS = 31;
+
     /**
      * The initial zoom factor.
      */
     public static final int INITIAL_ZOOM_SCALE = 375;
 
     /**
-     * The html wrapper of the application's status.
+     * The tolerance of the periodicity check, as a fraction of the distance between two adjacent pixels. Two values of an orbit closer than this tolerance on both axes are considered equal.
      */
-    public static final String STATUS_WRAPPER = "<html><div style='font-size: 16px; padding: 10px;'>%s</div></html>";
+    public static final double PERIODICITY_TOLERANCE = 1e-3;
+
+    /**
+     * The largest distance, as a fraction of the distance between two adjacent pixels, between the pixels of two viewports for them to be considered aligned, so that the iterations of one can be reused for the other.
+     */
+    public static final double PIXEL_ALIGNMENT_TOLERANCE = 1e-6;
+
+    /**
+     * The number of samples along each axis of the pixels refined by the adaptive anti-aliasing, each refined pixel being sampled on a regular grid.
+     */
+    public static final int ANTI_ALIASING_GRID = 4;
+
+    /**
+     * The largest difference of iterations between two adjacent pixels for which the adaptive anti-aliasing leaves them alone. Beyond it, both pixels lie on an edge and are supersampled.
+     */
+    public static final int ANTI_ALIASING_THRESHOLD = 2;
+
+    /**
+     * The number of units in the last place of the coordinates under which the distance between two adjacent pixels requires the deep zoom engine, the double precision being no longer enough to tell the pixels apart.
+     */
+    public static final int DEEP_ZOOM_ULPS = 512;
+
+    /**
+     * The smallest distance between two adjacent pixels for which the reference orbit of the deep zoom engine is computed in double-double arithmetic, the 106 bits of the double-double numbers still leaving more than ten significant digits below the pixel size.
+     */
+    public static final double DOUBLE_DOUBLE_SCALE = 1e-20;
 
     /**
-     * Instantiation of the executor, that will take care of executing mandelbrot values tasks asynchronously.
-     * I used a cached thread pool in order to create new threads as needed when performing tasks or reuse existing ones when they are available.
+     * The number of significant digits kept on top of those needed to distinguish two adjacent pixels when storing high-precision coordinates.
      */
-    public static final Executor EXECUTOR = Executors.newCachedThreadPool();
+    public static final int EXTRA_PRECISION_DIGITS = 20;
+
+    /**
+     * The minimal delay in milliseconds between two repaints of the image while it is being computed, bounding the repaints to 60 per second.
+     */
+    public static final int REPAINT_DELAY = 1000 / 60;
+
+    /**
+     * The initial x position of the top left corner of the image.
+     */
+    public static final BigDecimal INITIAL_LEFT = new BigDecimal("-2.0");
+
+    /**
+     * The initial y position of the top left corner of the image.
+     */
+    public static final BigDecimal INITIAL_TOP = new BigDecimal("-1.13");
+
+    /**
+     * The maximal number of bytes of compressed tiles kept in memory by the tile cache.
+     */
+    public static final long TILE_CACHE_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * The size in bytes of the file in which the tile cache keeps its tiles across the executions of the application.
+     */
+    public static final int TILE_CACHE_FILE_BYTES = 256 * 1024 * 1024;
+
+    /**
+     * The system property giving the path of the file of the tile cache. When it is not set, the tiles are only kept in memory.
+     */
+    public static final String TILE_CACHE_FILE_PROPERTY = "mandelbrot.tileCache";
+
+    /**
+     * The system property enabling the virtual threads for the input and output stages, such as the encoding of the frames and the disk tier of the tile cache.
+     */
+    public static final String VIRTUAL_THREADS_PROPERTY = "mandelbrot.virtualThreads";
+
+    /**
+     * The largest number of pixels of an image rendered at once by the batch mode. Larger images are rendered and written in horizontal strips.
+     */
+    public static final long MAX_FRAME_PIXELS = 1L << 24;
+
+    /**
+     * The number of pixels of each strip of the images rendered in strips, each one taking about 12 bytes per pixel while it is computed.
+     */
+    public static final int STRIP_PIXELS = 1 << 20;
+
+    /**
+     * The size in pixels of the side of the tiles sent to the worker processes, large enough for the computation to outweigh the round trip.
+     */
+    public static final int DISTRIBUTED_TILE_SIZE = 128;
+
+    /**
+     * The number of tiles sent in advance to a worker process for each of its threads, so that its threads never wait for the network.
+     */
+    public static final int WORKER_TILES_PER_THREAD = 2;
+
+    /**
+     * The size in pixels of the side of the tiles served over HTTP, the one expected by the slippy map viewers.
+     */
+    public static final int SERVER_TILE_SIZE = 256;
+
+    /**
+     * The real part of the left edge of the single tile of the zoom level 0 served over HTTP.
+     */
+    public static final BigDecimal SERVER_WORLD_LEFT = new BigDecimal("-2.75");
+
+    /**
+     * The imaginary part of the top edge of the single tile of the zoom level 0 served over HTTP.
+     */
+    public static final BigDecimal SERVER_WORLD_TOP = new BigDecimal("-2");
+
+    /**
+     * The side in the complex plane of the single tile of the zoom level 0 served over HTTP.
+     */
+    public static final BigDecimal SERVER_WORLD_SIZE = new BigDecimal("4");
+
+    /**
+     * The deepest zoom level served over HTTP, the distance between two pixels staying far within the range of the doubles used by the deep zoom engine.
+     */
+    public static final int SERVER_MAX_ZOOM = 256;
+
+    /**
+     * The largest number of iterations a client may request for the pixels of a tile served over HTTP, so that a single request cannot hold the threads of the server for an unbounded time.
+     */
+    public static final int SERVER_MAX_STEPS = 100000;
+
+    /**
+     * The default number of distinct tiles rendered or waiting to be rendered by the HTTP server, beyond which the requests are refused until the queue drains.
+     */
+    public static final int SERVER_QUEUE_CAPACITY = 64;
+
+    /**
+     * The maximal number of bytes of encoded tiles kept in memory by the HTTP server.
+     */
+    public static final long SERVER_CACHE_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * The number of seconds the clients and the proxies may reuse a served tile without asking the server again.
+     */
+    public static final int SERVER_MAX_AGE = 7 * 24 * 3600;
+
+    /**
+     * The number of seconds after which a client whose request has been refused should try again.
+     */
+    public static final int SERVER_RETRY_AFTER = 1;
+
+    /**
+     * The version of the rendering of the served tiles, part of their entity tags. It must be bumped whenever a change of the renderer alters the pixels of a tile, so that the clients drop their stale copies.
+     */
+    public static final int SERVER_RENDERING_VERSION = 1;
+
+    /**
+     * The html wrapper of the application's status.
+     */
+    public static final String STATUS_WRAPPER = "<html><div style='font-size: 16px; padding: 10px;'>%s</div></html>";
 
     /**
      * The list of display colors in the mandelbrot set when choosing the gray palette.
@@ -1,14 +1,27 @@
 package org.mandelbrot.utils;
 
 import org.mandelbrot.model.Complex;
+import org.mandelbrot.model.EscapeResult;
+import org.mandelbrot.model.EscapeTimeKernel;
 
-import java.util.Map;
+import java.math.MathContext;
+import java.math.RoundingMode;
 
 /**
  * Store of all global utility functions used in the application. The class is final to avoid heritage.
  */
 public final class Utils {
 
+    /**
+     * The kernel used to compute the escape time of the pixels.
+     */
+    private static final EscapeTimeKernel KERNEL = new EscapeTimeKernel();
+
+    /**
+     * The result reused by each thread when computing the escape time of the pixels.
+     */
+    private static final ThreadLocal<EscapeResult> RESULT = ThreadLocal.withInitial(EscapeResult::new);
+
     /**
      * Private constructor for the Utils class to avoid instantiation.
      */
@@ -24,18 +37,42 @@ public final class Utils {
      * @return The color to display at the emplacement of the complex number.
      */
     public static int getMandelbrotPixelColor(Complex z0, int detail, int activePalette) {
-        Map<Complex, Integer> map = z0.computeMandelbrot(detail);
-        Complex end = map.keySet().stream().findAny().orElse(null);
+        return getMandelbrotPixelColor(z0.getReal(), z0.getImage(), detail, activePalette);
+    }
 
-        if(end == null) return -1;
-        int finalValue = map.get(end);
+    /**
+     * Utility function used to compute the mandelbrot algorithm from the parts of a starting complex number and return the resulting associated color.
+     * @param cr The real part of the complex number for which we want to compute the power.
+     * @param ci The imaginary part of the complex number for which we want to compute the power.
+     * @param detail The maximal power we want to compute for the complex number
+     * @param activePalette The active color palette we want to use to compute the color
+     * @return The color to display at the emplacement of the complex number.
+     */
+    public static int getMandelbrotPixelColor(double cr, double ci, int detail, int activePalette) {
+        EscapeResult result = RESULT.get();
+        KERNEL.compute(cr, ci, detail, result);
+        return getPixelColor(result.getIterations(), result.getSquaredModulus(), activePalette);
+    }
 
-        int color = 0x000000;
-        int[] palette = Constants.PALETTES[activePalette];
+    /**
+     * Utility function used to get the color associated to the outcome of the mandelbrot algorithm.
+     * @param iterations The number of iterations performed before the orbit escaped.
+     * @param squaredModulus The squared modulus of the last computed value of the orbit.
+     * @param activePalette The active color palette we want to use to compute the color
+     * @return The color to display at the emplacement of the complex number.
+     */
+    public static int getPixelColor(int iterations, double squaredModulus, int activePalette) {
+        if(squaredModulus <= EscapeTimeKernel.ESCAPE_RADIUS_SQUARED) return 0x000000;
+        return Constants.PALETTES[activePalette][iterations % 64];
+    }
 
-        if(end.mod() > 2) {
-            color = palette[finalValue % 64];
-        }
-        return color;
+    /**
+     * Utility function used to get the precision needed to represent the coordinates of the complex plane at a certain scale.
+     * @param scale The distance in the complex plane between two adjacent pixels.
+     * @return The math context keeping enough significant digits to distinguish the pixels, with a safety margin.
+     */
+    public static MathContext getMathContext(double scale) {
+        int digits = (int) Math.ceil(-Math.log10(Math.abs(scale))) + Constants.EXTRA_PRECISION_DIGITS;
+        return new MathContext(Math.max(digits, Constants.EXTRA_PRECISION_DIGITS), RoundingMode.HALF_EVEN);
     }
 }
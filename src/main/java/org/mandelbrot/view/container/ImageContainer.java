@@ -1,15 +1,29 @@
 package org.mandelbrot.view.container;
 
-import org.mandelbrot.model.Complex;
+import org.mandelbrot.engine.AutoTuner;
+import org.mandelbrot.engine.CancellationToken;
+import org.mandelbrot.engine.GenerationTracker;
+import org.mandelbrot.engine.RenderExecutor;
+import org.mandelbrot.engine.RenderResult;
+import org.mandelbrot.engine.Renderer;
+import org.mandelbrot.engine.Tile;
+import org.mandelbrot.engine.TileCache;
+import org.mandelbrot.engine.TileListener;
+import org.mandelbrot.engine.TuningProfile;
+import org.mandelbrot.engine.Viewport;
+import org.mandelbrot.metrics.RenderMetrics;
 import org.mandelbrot.utils.Constants;
-import org.mandelbrot.utils.Utils;
 import org.mandelbrot.view.label.ImageLabel;
 import org.mandelbrot.view.rectangle.Rectangle;
 
+import javax.management.JMException;
 import javax.swing.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.util.concurrent.*;
-import java.util.stream.IntStream;
 
 import static org.mandelbrot.utils.Constants.*;
 
@@ -18,14 +32,14 @@ import static org.mandelbrot.utils.Constants.*;
  */
 public class ImageContainer extends JPanel {
     /**
-     * The y position of the top left corner of the image.
+     * The y position of the top left corner of the image, in arbitrary precision to allow deep zooms.
      */
-    private double top = -1.13;
+    private BigDecimal top = INITIAL_TOP;
 
     /**
-     * The x position of the top left corner of the image.
+     * The x position of the top left corner of the image, in arbitrary precision to allow deep zooms.
      */
-    private double left = -2.0;
+    private BigDecimal left = INITIAL_LEFT;
 
     /**
      * The zooming of the image.
@@ -36,6 +50,11 @@ public class ImageContainer extends JPanel {
      */
     private final BufferedImage image;
 
+    /**
+     * The data buffer backing the image, in which the computed tiles are copied.
+     */
+    private final int[] pixels;
+
     /**
      * The number of steps to perform in the calculation to determine the color of a pixel in the mandelbrot set.
      */
@@ -47,15 +66,70 @@ public class ImageContainer extends JPanel {
     private int nbCores;
 
     /**
-     * The thread pool from which we will execute the parallel computing.
+     * The executor owning the threads computing the mandelbrot set and those writing the tile cache, resized in place when the number of cores changes.
+     */
+    private final RenderExecutor executor;
+
+    /**
+     * The headless engine computing the mandelbrot set image.
+     */
+    private final Renderer renderer;
+
+    /**
+     * The tracker cancelling the obsolete computations and allowing only the latest one to reach the image.
      */
-    private ForkJoinPool threadPool;
+    private final GenerationTracker generations;
+
+    /**
+     * The result of the last complete computation, kept to color the image again or to deepen it without computing it from scratch.
+     */
+    private volatile RenderResult lastResult;
+
+    /**
+     * Whether a computation is running, the displayed image being then different from the last complete result.
+     */
+    private volatile boolean computing;
 
     /**
      * The total duration a computation has taken to display the mandelbrot set.
      */
     private long duration;
 
+    /**
+     * The ratio between the busiest thread and the average thread during the last computation.
+     */
+    private double imbalance = 1.0;
+
+    /**
+     * The number of pixels supersampled by the anti-aliasing during the last computation.
+     */
+    private int refined = 0;
+
+    /**
+     * The error which made the last computation fail, or null if it has been completed.
+     */
+    private String failure = null;
+
+    /**
+     * The automatic tuning of the number of threads and of the size of the tiles.
+     */
+    private final AutoTuner tuner;
+
+    /**
+     * Whether the size of the tiles keeps being adjusted from the load of each computation.
+     */
+    private boolean autoTuning = true;
+
+    /**
+     * The loading or the calibration of the tuning profile, which the computations wait for so that they are neither slowed down by it nor measured in its place.
+     */
+    private CompletableFuture<Void> tuning;
+
+    /**
+     * Whether a computation is waiting for the tuning to complete.
+     */
+    private boolean tuningPending = false;
+
     /**
      * The bottom bar displaying the actual status of the mandelbrot set application (number of threads, display palette chosen, ...).
      */
@@ -77,9 +151,18 @@ public class ImageContainer extends JPanel {
     public ImageContainer() {
         super();
         this.image = new BufferedImage(Constants.WIDTH, Constants.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
         nbSteps = INITIAL_NB_STEPS;
         nbCores = MAX_NB_CORES / 2;
-        threadPool = new ForkJoinPool(nbCores);
+        executor = new RenderExecutor(nbCores, Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY));
+        renderer = new Renderer();
+        renderer.setIoExecutor(executor.getIoExecutor());
+        renderer.setProgressive(true);
+        renderer.setTileCache(createTileCache());
+        registerMetrics(renderer.getMetrics());
+        tuner = new AutoTuner(renderer, executor);
+        tuning = tune(false);
+        generations = new GenerationTracker();
 
         this.setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
         imageLabel = new ImageLabel(new ImageIcon(image));
@@ -90,34 +173,174 @@ public class ImageContainer extends JPanel {
     }
 
     /**
-     * Function used to compute the color value of all pixels in the image.
+     * Function used to create the cache of the rendered tiles, backed by the file given by the {@link Constants#TILE_CACHE_FILE_PROPERTY} system property if it is set.
+     * @return The tile cache of the renderer.
      */
-    public final void calculateImage() {
-        threadPool.execute(() -> {
-            long startTime = System.nanoTime();
-            IntStream.range(0, Constants.HEIGHT).parallel().forEach((int y) -> {
-                double ci = y * zoom + top;
-                IntStream.range(0, Constants.WIDTH).parallel().forEach((int x) -> {
-                    double cr = x * zoom + left;
-                    Complex origin = new Complex(cr, ci);
-                    int color = Utils.getMandelbrotPixelColor(origin, nbSteps, activePalette);
-
-                    if(color == -1) return;
-
-                    image.setRGB(x, y, color);
-                    this.getParent().repaint();
-                });
+    private static TileCache createTileCache() {
+        String file = System.getProperty(TILE_CACHE_FILE_PROPERTY);
+        if(file != null) {
+            try {
+                return new TileCache(TILE_CACHE_BYTES, Path.of(file), TILE_CACHE_FILE_BYTES);
+            } catch (IOException e) {
+                System.err.println("Unable to open the tile cache file " + file + ", the tiles are only kept in memory: " + e.getMessage());
+            }
+        }
+        return new TileCache(TILE_CACHE_BYTES);
+    }
+
+    /**
+     * Function used to expose the metrics of the renderings through JMX, so that they can be watched with tools such as JConsole while exploring.
+     * @param metrics The metrics of the renderer.
+     */
+    private static void registerMetrics(RenderMetrics metrics) {
+        try {
+            metrics.register("window");
+        } catch (JMException e) {
+            System.err.println("Unable to register the rendering metrics, they are only recorded in memory: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Function used to configure the number of threads and the size of the tiles in the background, from the saved profile of the machine or by calibrating it.
+     * @param recalibrate Whether the machine is calibrated again even if a profile has been saved.
+     * @return A future completed once the profile has been applied.
+     */
+    private CompletableFuture<Void> tune(boolean recalibrate) {
+        return CompletableFuture.supplyAsync(() -> {
+            TuningProfile profile = recalibrate ? null : loadProfile();
+            if(profile == null) {
+                profile = tuner.calibrate();
+                try {
+                    tuner.save(profile);
+                } catch (IOException e) {
+                    System.err.println("Unable to save the tuning profile " + AutoTuner.getProfileFile() + ", the machine will be calibrated again: " + e.getMessage());
+                }
+            }
+            tuner.apply(profile);
+            return profile;
+        }, executor.getIoExecutor()).handle((profile, error) -> {
+            SwingUtilities.invokeLater(() -> {
+                if(profile != null) nbCores = profile.getParallelism();
+                else autoTuning = false;
+                this.updateStatus();
             });
-            duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
-            this.updateStatus();
+            return null;
+        });
+    }
+
+    /**
+     * Function used to read the tuning profile of the machine.
+     * @return The saved profile, or null if the machine has to be calibrated.
+     */
+    private TuningProfile loadProfile() {
+        try {
+            return tuner.load();
+        } catch (IOException e) {
+            System.err.println("Unable to read the tuning profile " + AutoTuner.getProfileFile() + ", the machine is calibrated again: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Function used to calibrate the number of threads and the size of the tiles again, and to adjust the size of the tiles from then on. The running computation is cancelled so that it does not compete with the calibration.
+     */
+    public void recalibrate() {
+        generations.next();
+        autoTuning = true;
+        tuning = tune(true);
+        this.updateStatus();
+    }
+
+    /**
+     * Function used to compute the color value of all pixels in the image. Any computation still running is cancelled, so that only the latest one reaches the image.
+     * The last complete computation is handed to the renderer, so that a change of the number of steps only resumes or caps its orbits.
+     * Its completion is published on the event dispatch thread, where the generation is checked again, so that the state of the container and the status label are only touched by Swing.
+     * A computation failing for another reason than its cancellation is logged and reported in the status bar, and the last complete result is kept for the next colorings.
+     */
+    public final void calculateImage() {
+        if(!tuning.isDone()) {
+            if(!tuningPending) tuning.thenRun(() -> SwingUtilities.invokeLater(() -> {
+                tuningPending = false;
+                calculateImage();
+            }));
+            tuningPending = true;
+            return;
+        }
+        Viewport viewport = getViewport();
+        CancellationToken token = generations.next();
+        computing = true;
+        long startTime = System.nanoTime();
+        TileListener listener = (tile, result) -> generations.publish(token, () -> publishTile(tile, result));
+        renderer.render(viewport, activePalette, executor.getPool(), listener, token, lastResult).whenComplete((result, error) -> {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if(cause instanceof CancellationException) return;
+            if(cause != null) System.err.println("Unable to compute " + viewport + ": " + cause);
+            SwingUtilities.invokeLater(() -> generations.publish(token, () -> {
+                computing = false;
+                duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                if(cause != null) {
+                    failure = cause.toString();
+                    this.updateStatus();
+                    return;
+                }
+                failure = null;
+                lastResult = result;
+                imbalance = result.getLoadReport().getImbalance();
+                if(autoTuning) tuner.observe(result.getLoadReport());
+                refined = result.getRefinedPixels();
+                this.updateStatus();
+            }));
         });
     }
 
+    /**
+     * Function used to color the image again with the active palette. The iterations of the last computation are reused when it is complete and still matches the displayed viewport, otherwise the image is computed.
+     */
+    public void recolorImage() {
+        RenderResult result = lastResult;
+        if(computing || result == null || !result.getViewport().equals(getViewport())) {
+            calculateImage();
+            return;
+        }
+        long startTime = System.nanoTime();
+        result.recolor(activePalette);
+        result.copyRaster(pixels);
+        imageLabel.markDirty(0, 0, Constants.WIDTH, Constants.HEIGHT);
+        duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        this.updateStatus();
+    }
+
+    /**
+     * Function used to get the viewport of the image at its actual position, zooming and number of steps.
+     * @return The viewport to render.
+     */
+    private Viewport getViewport() {
+        return new Viewport(left, top, zoom, Constants.WIDTH, Constants.HEIGHT, nbSteps);
+    }
+
+    /**
+     * Function used to copy a computed tile into the displayed image and schedule the repaint of its region.
+     * @param tile The tile that has been computed.
+     * @param result The result containing the colors of the tile.
+     */
+    private void publishTile(Tile tile, RenderResult result) {
+        result.copyTile(tile, pixels);
+        imageLabel.markDirty(tile.getX(), tile.getY(), tile.getWidth(), tile.getHeight());
+    }
+
     /**
      * Function used to return the y position of the top left corner of the image.
      * @return The y position of the top left corner of the image.
      */
     public double getTop() {
+        return top.doubleValue();
+    }
+
+    /**
+     * Function used to return the y position of the top left corner of the image in arbitrary precision.
+     * @return The y position of the top left corner of the image.
+     */
+    public BigDecimal getPreciseTop() {
         return top;
     }
 
@@ -126,6 +349,14 @@ public class ImageContainer extends JPanel {
      * @param top The new y position of the top left corner of the image.
      */
     public void setTop(double top) {
+        this.top = new BigDecimal(top);
+    }
+
+    /**
+     * Function used to modify the y position of the top left corner of the image in arbitrary precision.
+     * @param top The new y position of the top left corner of the image.
+     */
+    public void setTop(BigDecimal top) {
         this.top = top;
     }
 
@@ -134,6 +365,14 @@ public class ImageContainer extends JPanel {
      * @return The x position of the top left corner of the image.
      */
     public double getLeft() {
+        return left.doubleValue();
+    }
+
+    /**
+     * Function used to return the x position of the top left corner of the image in arbitrary precision.
+     * @return The x position of the top left corner of the image.
+     */
+    public BigDecimal getPreciseLeft() {
         return left;
     }
 
@@ -142,6 +381,14 @@ public class ImageContainer extends JPanel {
      * @param left The new x position of the top left corner of the image.
      */
     public void setLeft(double left) {
+        this.left = new BigDecimal(left);
+    }
+
+    /**
+     * Function used to modify the x position of the top left corner of the image in arbitrary precision.
+     * @param left The new x position of the top left corner of the image.
+     */
+    public void setLeft(BigDecimal left) {
         this.left = left;
     }
 
@@ -166,7 +413,7 @@ public class ImageContainer extends JPanel {
      * @return The x center of the image.
      */
     public double getXCenter() {
-        return top + (double) Constants.WIDTH / 2;
+        return getTop() + (double) Constants.WIDTH / 2;
     }
 
     /**
@@ -174,15 +421,15 @@ public class ImageContainer extends JPanel {
      * @return The y center of the image.
      */
     public double getYCenter() {
-        return left + (double) Constants.HEIGHT / 2;
+        return getLeft() + (double) Constants.HEIGHT / 2;
     }
 
     /**
      * Function used to reinitialize the x and y top left corner position, the zooming and the number of steps to the initial ones.
      */
     public void reset() {
-        top = -1.13;
-        left = -2.0;
+        top = INITIAL_TOP;
+        left = INITIAL_LEFT;
         zoom = 1.0 / INITIAL_ZOOM_SCALE;
         nbSteps = INITIAL_NB_STEPS;
     }
@@ -210,8 +457,8 @@ public class ImageContainer extends JPanel {
         if(this.nbCores == MAX_NB_CORES) return;
         if(this.nbCores < 3) this.nbCores++;
         else this.nbCores *= 2;
-        threadPool.shutdown();
-        threadPool = new ForkJoinPool(nbCores);
+        autoTuning = false;
+        executor.setParallelism(nbCores);
         this.updateStatus();
     }
 
@@ -223,8 +470,32 @@ public class ImageContainer extends JPanel {
         if(this.nbCores > 3) this.nbCores /= 2;
         else this.nbCores--;
 
-        threadPool.shutdown();
-        threadPool = new ForkJoinPool(nbCores);
+        autoTuning = false;
+        executor.setParallelism(nbCores);
+        this.updateStatus();
+    }
+
+    /**
+     * Function used to switch the computation of the image between solid guessing and the computation of every pixel.
+     */
+    public void toggleSolidGuessing() {
+        renderer.setSolidGuessing(!renderer.isSolidGuessing());
+        this.updateStatus();
+    }
+
+    /**
+     * Function used to switch the solid guessing between its exact mode, which only fills the regions proven to be inside the set, and its fast mode, which fills every region bordered by a single number of iterations.
+     */
+    public void toggleExactGuessing() {
+        renderer.setExactGuessing(!renderer.isExactGuessing());
+        this.updateStatus();
+    }
+
+    /**
+     * Function used to switch the adaptive anti-aliasing of the edges on or off.
+     */
+    public void toggleAntiAliasing() {
+        renderer.setAntiAliasing(!renderer.isAntiAliasing());
         this.updateStatus();
     }
 
@@ -263,7 +534,7 @@ public class ImageContainer extends JPanel {
      * Function used to update the text that is written in the status bar.
      */
     public void updateStatus() {
-        this.status.setText(String.format(STATUS_WRAPPER,String.format("Size: %dx%d - [T]=%d - [C]=%d - [P]=%d - Time=%dms", Constants.WIDTH, Constants.HEIGHT, this.nbCores, this.nbSteps, activePalette + 1, duration)));
+        this.status.setText(String.format(STATUS_WRAPPER,String.format("Size: %dx%d - [T]=%d - [C]=%d - [P]=%d - [G]=%s - [A]=%s (%d refined) - [U]=%s (%dus tiles) - Time=%dms - Imbalance=%.2f - Cache=%.0f%%", Constants.WIDTH, Constants.HEIGHT, this.nbCores, this.nbSteps, activePalette + 1, !renderer.isSolidGuessing() ? "off" : renderer.isExactGuessing() ? "exact" : "fast", renderer.isAntiAliasing() ? "on" : "off", refined, !tuning.isDone() ? "calibrating" : autoTuning ? "auto" : "off", renderer.getTargetTileNanos() / 1000, duration, imbalance, renderer.getTileCache().getHitRatio() * 100) + (failure != null ? " - Failed: " + failure : "")));
     }
 
 }
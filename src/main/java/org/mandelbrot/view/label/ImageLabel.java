@@ -3,6 +3,7 @@ package org.mandelbrot.view.label;
 import javax.swing.*;
 import java.awt.*;
 
+import org.mandelbrot.utils.Constants;
 import org.mandelbrot.view.rectangle.Rectangle;
 
 /**
@@ -11,12 +12,24 @@ import org.mandelbrot.view.rectangle.Rectangle;
 public class ImageLabel extends JLabel {
     private Rectangle rect = null;
 
+    /**
+     * The region of the image modified since the last repaint, or null if the image is up to date.
+     */
+    private java.awt.Rectangle dirtyRegion = null;
+
+    /**
+     * The timer coalescing the repaints of the modified regions of the image.
+     */
+    private final Timer repaintTimer;
+
     /**
      * The Constructor function of the ImageLabel class.
      * @param image The image icon we want to include in the label.
      */
     public ImageLabel(Icon image) {
         super(image);
+        repaintTimer = new Timer(Constants.REPAINT_DELAY, e -> this.repaintDirtyRegion());
+        repaintTimer.setRepeats(false);
     }
 
     @Override
@@ -30,4 +43,35 @@ public class ImageLabel extends JLabel {
     public void setRect(Rectangle rect) {
         this.rect = rect;
     }
+
+    /**
+     * Function used to mark a region of the image as modified. It can be called from any thread, the region being repainted at most once every {@link Constants#REPAINT_DELAY} milliseconds together with all the other regions modified in the meantime.
+     * @param x The column of the top left pixel of the modified region.
+     * @param y The row of the top left pixel of the modified region.
+     * @param width The width of the modified region.
+     * @param height The height of the modified region.
+     */
+    public void markDirty(int x, int y, int width, int height) {
+        synchronized (repaintTimer) {
+            java.awt.Rectangle region = new java.awt.Rectangle(x, y, width, height);
+            dirtyRegion = dirtyRegion == null ? region : dirtyRegion.union(region);
+        }
+        if(!repaintTimer.isRunning()) repaintTimer.start();
+    }
+
+    /**
+     * Function used to repaint the regions of the image modified since the last repaint.
+     */
+    private void repaintDirtyRegion() {
+        java.awt.Rectangle region;
+        synchronized (repaintTimer) {
+            region = dirtyRegion;
+            dirtyRegion = null;
+        }
+        if(region == null) return;
+        Icon icon = getIcon();
+        int offsetX = icon == null ? 0 : (getWidth() - icon.getIconWidth()) / 2;
+        int offsetY = icon == null ? 0 : (getHeight() - icon.getIconHeight()) / 2;
+        repaint(region.x + offsetX, region.y + offsetY, region.width, region.height);
+    }
 }
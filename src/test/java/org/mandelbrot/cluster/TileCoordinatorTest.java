@@ -0,0 +1,114 @@
+package org.mandelbrot.cluster;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mandelbrot.engine.Renderer;
+import org.mandelbrot.engine.Viewport;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The integration tests of the distributed rendering, with two workers listening on free ports of this machine.
+ */
+class TileCoordinatorTest {
+    /**
+     * A frame on the border of the set, slow enough for the tiles to be in flight when a worker is stopped.
+     */
+    private static final Viewport FRAME = new Viewport(new BigDecimal("-0.7530123"), new BigDecimal("0.0950789"), 0.0000213, 640, 512, 20000);
+
+    /**
+     * The first worker computing the tiles.
+     */
+    private TileWorker first;
+
+    /**
+     * The second worker, stopped in the middle of a rendering by one of the tests.
+     */
+    private TileWorker second;
+
+    /**
+     * The coordinator connected to both workers.
+     */
+    private TileCoordinator coordinator;
+
+    @BeforeEach
+    void startWorkers() throws IOException {
+        first = new TileWorker(0, 2).start();
+        second = new TileWorker(0, 2).start();
+        coordinator = new TileCoordinator(List.of(new InetSocketAddress("localhost", first.getPort()), new InetSocketAddress("localhost", second.getPort())));
+    }
+
+    @AfterEach
+    void stopWorkers() {
+        coordinator.close();
+        first.close();
+        second.close();
+    }
+
+    /**
+     * Function used to render a viewport in this process.
+     * @param viewport The viewport to render.
+     * @return The iterations of the pixels.
+     */
+    private static int[] render(Viewport viewport) {
+        return new Renderer().render(viewport, 0, ForkJoinPool.commonPool()).join().getIterations();
+    }
+
+    @Test
+    void rendersTheSamePixelsAsThisProcess() {
+        assertArrayEquals(render(FRAME), coordinator.render(FRAME, 0).join().getIterations());
+        assertEquals(1, coordinator.getFrames());
+    }
+
+    @Test
+    void rendersTheSamePixelsForAStripOfAFrame() {
+        Viewport strip = FRAME.getStrip(137, 200);
+        assertArrayEquals(render(strip), coordinator.render(strip, 0).join().getIterations());
+    }
+
+    @Test
+    void sendsTheTilesOfALostWorkerToTheOtherOne() {
+        CompletableFuture<int[]> distributed = coordinator.render(FRAME, 0).thenApply(result -> result.getIterations());
+        second.close();
+        assertArrayEquals(render(FRAME), distributed.join());
+        assertEquals(1, coordinator.getLiveWorkers());
+        assertTrue(coordinator.getRedispatchedTiles() > 0, "No tile redispatched: " + coordinator);
+    }
+
+    @Test
+    void stealsTheTilesOfAStuckWorker() throws IOException {
+        try(ServerSocket stuck = new ServerSocket(0)) {
+            CompletableFuture<Socket> greeted = CompletableFuture.supplyAsync(() -> {
+                try {
+                    Socket connection = stuck.accept();
+                    TileProtocol.writeHello(new DataOutputStream(new BufferedOutputStream(connection.getOutputStream())), 1);
+                    return connection;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            try(TileCoordinator stealing = new TileCoordinator(List.of(new InetSocketAddress("localhost", first.getPort()), new InetSocketAddress("localhost", stuck.getLocalPort())));
+                Socket connection = greeted.join()) {
+                Viewport strip = FRAME.getStrip(0, 256);
+                assertArrayEquals(render(strip), stealing.render(strip, 0).join().getIterations());
+                assertEquals(2, stealing.getLiveWorkers());
+                assertTrue(stealing.getStolenTiles() > 0, "No tile stolen: " + stealing);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.mandelbrot.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The tests of the on-disk tier of the tile cache, reopened after its ring has wrapped around.
+ */
+class MappedTileStoreTest {
+    /**
+     * The size in bytes of the tested files.
+     */
+    private static final int CAPACITY = 4096;
+
+    /**
+     * Function used to build the key of a test tile.
+     * @param column The column of the tile.
+     * @param flags The checks of the kernel computing the tile.
+     * @return The key of the tile.
+     */
+    private static TileKey key(int column, int flags) {
+        return new TileKey(Double.doubleToLongBits(1e-3), 0, 0, column, 0, 100, flags);
+    }
+
+    /**
+     * Function used to build the content of a test tile.
+     * @param column The column of the tile.
+     * @param length The length of the content.
+     * @return The content of the tile.
+     */
+    private static byte[] data(int column, int length) {
+        byte[] data = new byte[length];
+        Arrays.fill(data, (byte) column);
+        return data;
+    }
+
+    /**
+     * Function used to check that a reopened store holds the same tiles as the store written to the file.
+     * @param written The store written to the file.
+     * @param file The file of the store.
+     * @param columns The number of tiles put in the store.
+     * @throws IOException If the file cannot be reopened.
+     */
+    private static void assertReopened(MappedTileStore written, Path file, int columns) throws IOException {
+        MappedTileStore reopened = new MappedTileStore(file, CAPACITY);
+        assertEquals(written.size(), reopened.size());
+        for(int column = 0; column < columns; column++) {
+            assertArrayEquals(written.get(key(column, 0)), reopened.get(key(column, 0)), "Tile " + column);
+        }
+    }
+
+    @Test
+    void keepsTheRecordsOfThePreviousTurnOfTheRing(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("tiles.bin");
+        MappedTileStore store = new MappedTileStore(file, CAPACITY);
+        for(int column = 0; column < 40; column++) {
+            store.put(key(column, 0), data(column, 100 + 37 * (column % 5)));
+            assertReopened(store, file, column + 1);
+        }
+        assertTrue(store.get(key(39, 0)) != null && store.get(key(0, 0)) == null);
+    }
+
+    @Test
+    void keepsTheNewestRecordOfARewrittenTile(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("tiles.bin");
+        MappedTileStore store = new MappedTileStore(file, CAPACITY);
+        for(int turn = 0; turn < 30; turn++) {
+            store.put(key(turn % 7, 0), data(turn, 150 + turn));
+        }
+        assertReopened(store, file, 7);
+        assertArrayEquals(data(29, 179), new MappedTileStore(file, CAPACITY).get(key(1, 0)));
+    }
+
+    @Test
+    void separatesTheTilesComputedWithOtherChecks(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("tiles.bin");
+        MappedTileStore store = new MappedTileStore(file, CAPACITY);
+        store.put(key(0, TileKey.CARDIOID_CHECK | TileKey.PERIODICITY_CHECK), data(1, 100));
+        MappedTileStore reopened = new MappedTileStore(file, CAPACITY);
+        assertNull(reopened.get(key(0, TileKey.CARDIOID_CHECK)));
+        assertArrayEquals(data(1, 100), reopened.get(key(0, TileKey.CARDIOID_CHECK | TileKey.PERIODICITY_CHECK)));
+    }
+}
@@ -0,0 +1,112 @@
+package org.mandelbrot.engine;
+
+import org.junit.jupiter.api.Test;
+import org.mandelbrot.model.EscapeResult;
+import org.mandelbrot.model.EscapeTimeKernel;
+import org.mandelbrot.utils.Constants;
+import org.mandelbrot.utils.Utils;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The tests of the perturbation computation, compared with the direct computation and with the exact orbits of the pixels.
+ */
+class PerturbationPixelComputerTest {
+    /**
+     * The share of the pixels on which the perturbation and the direct computation may disagree just below the deep zoom threshold.
+     */
+    private static final double MAX_DISAGREEMENT = 0.02;
+
+    /**
+     * The maximal number of iterations of the tested viewports.
+     */
+    private static final int MAX_ITERATIONS = 5000;
+
+    /**
+     * Function used to build a viewport centered on a point.
+     * @param real The real part of the center.
+     * @param imaginary The imaginary part of the center.
+     * @param scale The distance between two adjacent pixels.
+     * @param width The width of the viewport in pixels.
+     * @param height The height of the viewport in pixels.
+     * @return The viewport whose reference pixel is the center.
+     */
+    private static Viewport centeredOn(String real, String imaginary, double scale, int width, int height) {
+        BigDecimal precise = new BigDecimal(scale);
+        return new Viewport(new BigDecimal(real).subtract(precise.multiply(BigDecimal.valueOf(width / 2))),
+                new BigDecimal(imaginary).subtract(precise.multiply(BigDecimal.valueOf(height / 2))),
+                scale, width, height, MAX_ITERATIONS);
+    }
+
+    /**
+     * Function used to compute the exact number of iterations of a pixel, by iterating its orbit in arbitrary precision.
+     * @param viewport The viewport the pixel belongs to.
+     * @param x The column of the pixel.
+     * @param y The row of the pixel.
+     * @return The number of iterations of the pixel.
+     */
+    private static int exact(Viewport viewport, int x, int y) {
+        BigDecimal scale = new BigDecimal(viewport.getScale());
+        MathContext context = Utils.getMathContext(viewport.getScale());
+        BigDecimal cr = viewport.getPreciseLeft().add(scale.multiply(BigDecimal.valueOf(x)), context);
+        BigDecimal ci = viewport.getPreciseTop().add(scale.multiply(BigDecimal.valueOf(y)), context);
+        return new ReferenceOrbit(cr, ci, viewport.getMaxIterations(), 1e-80, CancellationToken.NONE).getLength() - 1;
+    }
+
+    /**
+     * Function used to check a viewport just below the deep zoom threshold, where the doubles of the direct computation still nearly resolve the pixels.
+     * @param real The real part of the center, on the border of the set.
+     * @param imaginary The imaginary part of the center, on the border of the set.
+     */
+    private static void assertAgreesWithDirect(String real, String imaginary) {
+        double threshold = Constants.DEEP_ZOOM_ULPS * Math.ulp(Math.hypot(Double.parseDouble(real), Double.parseDouble(imaginary)));
+        Viewport viewport = centeredOn(real, imaginary, threshold / 2, 200, 150);
+        assertTrue(viewport.isDeepZoom());
+        PixelComputer direct = new DirectPixelComputer(new EscapeTimeKernel(), viewport);
+        PixelComputer perturbation = new PerturbationPixelComputer(viewport, CancellationToken.NONE);
+        EscapeResult expected = new EscapeResult();
+        EscapeResult actual = new EscapeResult();
+        int disagreements = 0;
+        for(int y = 0; y < viewport.getHeight(); y++) {
+            for(int x = 0; x < viewport.getWidth(); x++) {
+                direct.computePixel(x, y, expected);
+                perturbation.computePixel(x, y, actual);
+                if(expected.getIterations() == actual.getIterations()) continue;
+                if(disagreements++ % 10 == 0) {
+                    assertEquals(exact(viewport, x, y), actual.getIterations(), "Pixel (" + x + ", " + y + ") of " + viewport);
+                }
+            }
+        }
+        double share = (double) disagreements / (viewport.getWidth() * viewport.getHeight());
+        assertTrue(share <= MAX_DISAGREEMENT, disagreements + " pixels differ from the direct computation on " + viewport);
+    }
+
+    @Test
+    void agreesWithTheDirectComputationJustBelowTheThreshold() {
+        assertAgreesWithDirect("0", "1");
+        assertAgreesWithDirect("-0.1010963638456221", "0.9562865108091415");
+    }
+
+    @Test
+    void rebasesThePixelsOnAGlitchingReference() {
+        Viewport viewport = centeredOn("0", "1.0000000000000000000001", 1e-25, 64, 64);
+        Viewport center = centeredOn("0", "1.0000000000000000000001", 1e-25, 1, 1);
+        int reference = exact(center, 0, 0);
+        assertTrue(reference < MAX_ITERATIONS, "The reference orbit should escape");
+        PixelComputer perturbation = new PerturbationPixelComputer(viewport, CancellationToken.NONE);
+        EscapeResult actual = new EscapeResult();
+        int beyondReference = 0;
+        for(int y = 0; y < viewport.getHeight(); y += 3) {
+            for(int x = 0; x < viewport.getWidth(); x += 3) {
+                perturbation.computePixel(x, y, actual);
+                assertEquals(exact(viewport, x, y), actual.getIterations(), "Pixel (" + x + ", " + y + ") of " + viewport);
+                if(actual.getIterations() > reference) beyondReference++;
+            }
+        }
+        assertTrue(beyondReference > 0, "No pixel outlived the reference orbit");
+    }
+}
@@ -0,0 +1,74 @@
+package org.mandelbrot.engine;
+
+import org.junit.jupiter.api.Test;
+import org.mandelbrot.model.EscapeTimeKernel;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mandelbrot.utils.Constants.*;
+
+/**
+ * The tests of the solid guessing, compared with the computation of every pixel.
+ */
+class SolidGuessingTileTest {
+    /**
+     * Function used to render a viewport with or without solid guessing.
+     * @param viewport The viewport to render.
+     * @param solidGuessing Whether the uniform regions are guessed.
+     * @return The iterations of the pixels.
+     */
+    private static int[] render(Viewport viewport, boolean solidGuessing) {
+        Renderer renderer = new Renderer();
+        renderer.setSolidGuessing(solidGuessing);
+        return renderer.render(viewport, 0, ForkJoinPool.commonPool()).join().getIterations();
+    }
+
+    @Test
+    void exactGuessingMatchesEveryPixelOnTheInitialView() {
+        Viewport viewport = new Viewport(INITIAL_LEFT, INITIAL_TOP, 1.0 / INITIAL_ZOOM_SCALE, WIDTH, HEIGHT, INITIAL_NB_STEPS);
+        assertArrayEquals(render(viewport, false), render(viewport, true));
+    }
+
+    @Test
+    void exactGuessingMatchesEveryPixelOnTheFilaments() {
+        Viewport viewport = new Viewport(new BigDecimal("-0.7530"), new BigDecimal("0.0950"), 0.00002, 400, 300, 4000);
+        assertArrayEquals(render(viewport, false), render(viewport, true));
+    }
+
+    @Test
+    void exactGuessingMatchesEveryPixelAroundThePeriod2Bulb() {
+        Viewport viewport = new Viewport(new BigDecimal("-1.3"), new BigDecimal("-0.3"), 0.0015, 400, 400, 2000);
+        assertArrayEquals(render(viewport, false), render(viewport, true));
+    }
+
+    @Test
+    void fastGuessingComputesAThirdOfTheHomeView() {
+        Viewport viewport = new Viewport(INITIAL_LEFT, INITIAL_TOP, 1.0 / INITIAL_ZOOM_SCALE, WIDTH, HEIGHT, INITIAL_NB_STEPS);
+        Renderer renderer = new Renderer();
+        int[] expected = render(viewport, false);
+        RenderResult result = new RenderResult(viewport);
+        long computed = 0;
+        for(Tile tile : renderer.getTiles(viewport)) {
+            computed += new SolidGuessingTile(tile, result, new DirectPixelComputer(new EscapeTimeKernel(), viewport), 0, false, CancellationToken.NONE).render();
+        }
+        int wrong = 0;
+        for(int i = 0; i < expected.length; i++) {
+            if(expected[i] != result.getIterations()[i]) wrong++;
+        }
+        assertTrue(computed < expected.length * 0.35, computed + " of " + expected.length + " pixels computed");
+        assertTrue(wrong < expected.length / 10000, wrong + " pixels guessed wrong");
+    }
+
+    @Test
+    void exactGuessingFillsTheInsideOfTheMainComponents() {
+        Viewport viewport = new Viewport(new BigDecimal("-0.4"), new BigDecimal("-0.2"), 0.001, 256, 256, 1000);
+        RenderResult result = new RenderResult(viewport);
+        Tile tile = new Tile(0, 0, viewport.getWidth(), viewport.getHeight());
+        long computed = new SolidGuessingTile(tile, result, new DirectPixelComputer(new EscapeTimeKernel(), viewport), 0, true, CancellationToken.NONE).render();
+        assertTrue(computed < tile.getArea() / 4, "Only " + (tile.getArea() - computed) + " pixels guessed");
+        assertArrayEquals(render(viewport, false), result.getIterations());
+    }
+}
@@ -0,0 +1,56 @@
+package org.mandelbrot.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The tests of the viewports cut from a larger image, which must have exactly the pixels of the image they cover.
+ */
+class ViewportTest {
+    /**
+     * The image the strips and regions are cut from, whose corner and scale are not exact in binary.
+     */
+    private static final Viewport IMAGE = new Viewport(new BigDecimal("-0.7530123"), new BigDecimal("0.0950789"), 0.0000213, 320, 240, 3000);
+
+    @Test
+    void stripsLocateThePixelsOfTheImage() {
+        for(int y = 0; y < IMAGE.getHeight(); y += 7) {
+            Viewport strip = IMAGE.getStrip(y, 7);
+            for(int row = 0; row < strip.getHeight(); row++) {
+                assertEquals(IMAGE.getImaginary(y + row), strip.getImaginary(row), "Row " + (y + row));
+            }
+            for(int x = 0; x < IMAGE.getWidth(); x++) {
+                assertEquals(IMAGE.getReal(x), strip.getReal(x), "Column " + x);
+            }
+        }
+    }
+
+    @Test
+    void regionsOfStripsLocateThePixelsOfTheImage() {
+        Viewport region = IMAGE.getStrip(50, 100).getRegion(new Tile(33, 17, 64, 64));
+        for(int y = 0; y < region.getHeight(); y++) {
+            for(int x = 0; x < region.getWidth(); x++) {
+                assertEquals(IMAGE.getReal(33 + x), region.getReal(x));
+                assertEquals(IMAGE.getImaginary(67 + y), region.getImaginary(y));
+            }
+        }
+    }
+
+    @Test
+    void stripsRenderTheRowsOfTheImage() {
+        Renderer renderer = new Renderer();
+        int[] image = renderer.render(IMAGE, 0, ForkJoinPool.commonPool()).join().getIterations();
+        int rows = 37;
+        for(int y = 0; y < IMAGE.getHeight(); y += rows) {
+            Viewport strip = IMAGE.getStrip(y, Math.min(rows, IMAGE.getHeight() - y));
+            int[] expected = Arrays.copyOfRange(image, y * IMAGE.getWidth(), (y + strip.getHeight()) * IMAGE.getWidth());
+            assertArrayEquals(expected, renderer.render(strip, 0, ForkJoinPool.commonPool()).join().getIterations(), "Strip at row " + y);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.mandelbrot.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * The tests of the cardioid and periodicity checks of the scalar kernel, which must only stop early the orbits that never escape.
+ */
+class EscapeTimeKernelTest {
+    /**
+     * The maximal number of iterations of the compared rows.
+     */
+    private static final int MAX_STEPS = 5000;
+
+    /**
+     * The number of points of the compared rows.
+     */
+    private static final int COUNT = 800;
+
+    /**
+     * The share of the distance between two points under which two values of an orbit are considered equal, as in the renderings.
+     */
+    private static final double TOLERANCE = 1e-3;
+
+    /**
+     * Function used to compute a row of points with the given checks.
+     * @param left The real part of the first point of the row.
+     * @param step The distance between two adjacent points of the row.
+     * @param ci The imaginary part of the row.
+     * @param cardioid Whether the cardioid check is enabled.
+     * @param periodicity Whether the periodicity check is enabled.
+     * @return The number of iterations of each point.
+     */
+    private static int[] computeRow(double left, double step, double ci, boolean cardioid, boolean periodicity) {
+        EscapeTimeKernel kernel = new EscapeTimeKernel();
+        kernel.setCardioidCheck(cardioid);
+        kernel.setPeriodicityCheck(periodicity);
+        double[] cr = new double[COUNT];
+        for(int i = 0; i < COUNT; i++) cr[i] = left + i * step;
+        int[] iterations = new int[COUNT];
+        kernel.computeRow(cr, ci, COUNT, MAX_STEPS, step * TOLERANCE, iterations, new double[COUNT]);
+        return iterations;
+    }
+
+    /**
+     * Function used to check that every combination of checks gives the iterations of the row computed without any check.
+     * @param left The real part of the first point of the row.
+     * @param right The real part of the last point of the row.
+     * @param ci The imaginary part of the row.
+     */
+    private static void assertChecksKeepTheIterations(double left, double right, double ci) {
+        double step = (right - left) / COUNT;
+        int[] expected = computeRow(left, step, ci, false, false);
+        String row = "Row from " + left + "+" + ci + "i";
+        assertArrayEquals(expected, computeRow(left, step, ci, true, false), row + " with the cardioid check");
+        assertArrayEquals(expected, computeRow(left, step, ci, false, true), row + " with the periodicity check");
+        assertArrayEquals(expected, computeRow(left, step, ci, true, true), row + " with both checks");
+    }
+
+    @Test
+    void checksKeepTheIterationsAcrossTheSet() {
+        assertChecksKeepTheIterations(-2.2, 0.6, 0.0);
+        assertChecksKeepTheIterations(-2.2, 0.6, 0.35);
+        assertChecksKeepTheIterations(-1.6, 0.5, 0.65);
+    }
+
+    @Test
+    void checksKeepTheIterationsOnTheBorder() {
+        assertChecksKeepTheIterations(-0.76, -0.73, 0.1318);
+        assertChecksKeepTheIterations(-1.26, -1.24, 0.02);
+        assertChecksKeepTheIterations(0.24, 0.27, 0.0);
+        assertChecksKeepTheIterations(-0.12, -0.08, 0.95);
+    }
+}
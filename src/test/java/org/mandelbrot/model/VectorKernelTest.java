@@ -0,0 +1,88 @@
+package org.mandelbrot.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * The tests of the SIMD kernel, compared with the scalar kernel.
+ */
+class VectorKernelTest {
+    /**
+     * The maximal number of iterations of the compared rows.
+     */
+    private static final int MAX_STEPS = 2000;
+
+    /**
+     * Function used to compare the rows computed by both kernels with the same checks enabled.
+     * @param left The real part of the first point of the row.
+     * @param step The distance between two adjacent points of the row.
+     * @param ci The imaginary part of the row.
+     * @param count The number of points of the row.
+     * @param cardioid Whether the cardioid check is enabled.
+     * @param periodicity Whether the periodicity check is enabled.
+     */
+    private static void assertSameRow(double left, double step, double ci, int count, boolean cardioid, boolean periodicity) {
+        EscapeTimeKernel scalar = new EscapeTimeKernel();
+        VectorKernel vector = new VectorKernel();
+        scalar.setCardioidCheck(cardioid);
+        vector.setCardioidCheck(cardioid);
+        scalar.setPeriodicityCheck(periodicity);
+        vector.setPeriodicityCheck(periodicity);
+        double[] cr = new double[count];
+        for(int i = 0; i < count; i++) cr[i] = left + i * step;
+        double tolerance = step * 1e-3;
+        int[] expectedIterations = new int[count];
+        double[] expectedModuli = new double[count];
+        double[] expectedReals = new double[count];
+        double[] expectedImaginaries = new double[count];
+        scalar.computeRow(cr, ci, count, MAX_STEPS, tolerance, expectedIterations, expectedModuli, expectedReals, expectedImaginaries);
+        int[] iterations = new int[count];
+        double[] moduli = new double[count];
+        double[] reals = new double[count];
+        double[] imaginaries = new double[count];
+        vector.computeRow(cr, ci, count, MAX_STEPS, tolerance, iterations, moduli, reals, imaginaries);
+        String row = String.format("row of %d points from %s+%si (cardioid %s, periodicity %s)", count, left, ci, cardioid, periodicity);
+        assertArrayEquals(expectedIterations, iterations, row);
+        assertArrayEquals(expectedModuli, moduli, row);
+        assertArrayEquals(expectedReals, reals, row);
+        assertArrayEquals(expectedImaginaries, imaginaries, row);
+    }
+
+    /**
+     * Function used to compare a row of the plane with every combination of checks and with lengths around multiples of the number of lanes.
+     * @param left The real part of the first point of the row.
+     * @param right The real part of the last point of the row.
+     * @param ci The imaginary part of the row.
+     */
+    private static void assertSameRows(double left, double right, double ci) {
+        int lanes = new VectorKernel().getLanes();
+        int[] counts = {1, lanes - 1, lanes, lanes + 1, 3 * lanes - 1, 37 * lanes + lanes / 2 + 1, 301};
+        for(int count : counts) {
+            if(count <= 0) continue;
+            double step = (right - left) / count;
+            for(int flags = 0; flags < 4; flags++) {
+                assertSameRow(left, step, ci, count, (flags & 1) != 0, (flags & 2) != 0);
+            }
+        }
+    }
+
+    @Test
+    void matchesTheScalarKernelInsideTheSet() {
+        assertSameRows(-1.2, 0.2, 0.0);
+        assertSameRows(-0.3, 0.3, 0.4);
+    }
+
+    @Test
+    void matchesTheScalarKernelOnTheBorder() {
+        assertSameRows(-0.75, -0.735, 0.1318);
+        assertSameRows(-1.79, -1.74, 0.0005);
+        assertSameRows(0.24, 0.30, 0.01);
+    }
+
+    @Test
+    void matchesTheScalarKernelOutsideTheSet() {
+        assertSameRows(-2.5, 1.5, 1.5);
+        assertSameRows(0.5, 2.0, 0.0);
+    }
+}
@@ -0,0 +1,117 @@
+package org.mandelbrot.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mandelbrot.utils.Constants.*;
+
+/**
+ * The tests of the HTTP server, started on a free port of this machine.
+ */
+class TileServerTest {
+    /**
+     * The path of a tile on the border of the set, slow enough to be still rendering when the next requests arrive.
+     */
+    private static final String SLOW_TILE = "/tiles/2/1/1.png?steps=" + SERVER_MAX_STEPS;
+
+    /**
+     * The client sending the requests.
+     */
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    /**
+     * Function used to build the request of a path of a server.
+     * @param server The server receiving the request.
+     * @param path The requested path.
+     * @return The builder of the request.
+     */
+    private static HttpRequest.Builder request(TileServer server, String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path));
+    }
+
+    /**
+     * Function used to send the request of a path of a server.
+     * @param server The server receiving the request.
+     * @param path The requested path.
+     * @return The response of the server.
+     * @throws IOException If the request cannot be sent.
+     * @throws InterruptedException If the thread is interrupted while waiting for the response.
+     */
+    private HttpResponse<byte[]> get(TileServer server, String path) throws IOException, InterruptedException {
+        return client.send(request(server, path).build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    @Test
+    void coalescesTheConcurrentRequestsOfATile() throws IOException {
+        try(TileServer server = new TileServer(0, 2, SERVER_QUEUE_CAPACITY).start()) {
+            List<CompletableFuture<HttpResponse<byte[]>>> responses = new ArrayList<>();
+            for(int i = 0; i < 8; i++) {
+                responses.add(client.sendAsync(request(server, SLOW_TILE).build(), HttpResponse.BodyHandlers.ofByteArray()));
+            }
+            byte[] first = responses.get(0).join().body();
+            for(CompletableFuture<HttpResponse<byte[]>> response : responses) {
+                assertEquals(200, response.join().statusCode());
+                assertArrayEquals(first, response.join().body());
+            }
+            assertEquals(1, server.getRenders());
+            assertTrue(server.getCoalesced() > 0, "No request coalesced: " + server);
+        }
+    }
+
+    @Test
+    void refusesTheTilesBeyondTheQueue() throws IOException, InterruptedException {
+        try(TileServer server = new TileServer(0, 1, 1).start()) {
+            CompletableFuture<HttpResponse<byte[]>> slow = client.sendAsync(request(server, SLOW_TILE).build(), HttpResponse.BodyHandlers.ofByteArray());
+            while(server.getQueuedTiles() == 0 && !slow.isDone()) Thread.sleep(1);
+            HttpResponse<byte[]> refused = get(server, "/tiles/0/0/0.png");
+            assertEquals(503, refused.statusCode());
+            assertEquals(String.valueOf(SERVER_RETRY_AFTER), refused.headers().firstValue("Retry-After").orElse(null));
+            assertEquals(200, slow.join().statusCode());
+            assertEquals(200, get(server, "/tiles/0/0/0.png").statusCode());
+        }
+    }
+
+    @Test
+    void answersAMatchingEntityTagWithoutRendering() throws IOException, InterruptedException {
+        try(TileServer server = new TileServer(0, 1, 1).start()) {
+            String etag = new TileAddress(1, BigInteger.ONE, BigInteger.ZERO, 300, 0).getEtag();
+            assertTrue(etag.startsWith("\"" + TileAddress.RENDERING_VERSION + "-"));
+            HttpResponse<byte[]> response = client.send(request(server, "/tiles/1/1/0.png?steps=300").header("If-None-Match", etag).build(), HttpResponse.BodyHandlers.ofByteArray());
+            assertEquals(304, response.statusCode());
+            assertEquals(etag, response.headers().firstValue("ETag").orElse(null));
+            assertEquals(0, server.getRenders());
+            String stale = etag.replace(TileAddress.RENDERING_VERSION, "v" + (SERVER_RENDERING_VERSION - 1));
+            HttpResponse<byte[]> rendered = client.send(request(server, "/tiles/1/1/0.png?steps=300").header("If-None-Match", stale).build(), HttpResponse.BodyHandlers.ofByteArray());
+            assertEquals(200, rendered.statusCode());
+            assertEquals(etag, rendered.headers().firstValue("ETag").orElse(null));
+            assertEquals(1, server.getRenders());
+        }
+    }
+
+    @Test
+    void refusesTheInvalidParametersAndTheMissingTiles() throws IOException, InterruptedException {
+        try(TileServer server = new TileServer(0, 1, 1).start()) {
+            assertEquals(400, get(server, "/tiles/0/0/0.png?steps=" + (SERVER_MAX_STEPS + 1)).statusCode());
+            assertEquals(400, get(server, "/tiles/0/0/0.png?steps=0").statusCode());
+            assertEquals(400, get(server, "/tiles/0/0/0.png?steps=many").statusCode());
+            assertEquals(400, get(server, "/tiles/0/0/0.png?palette=" + (PALETTES.length + 1)).statusCode());
+            assertEquals(400, get(server, "/tiles/0/0/0.png?zoom=3").statusCode());
+            assertEquals(404, get(server, "/tiles/0/1/0.png").statusCode());
+            assertEquals(404, get(server, "/tiles/" + (SERVER_MAX_ZOOM + 1) + "/0/0.png").statusCode());
+            assertEquals(404, get(server, "/tiles/0/0.png").statusCode());
+            assertEquals(0, server.getRenders());
+        }
+    }
+}